@@ -0,0 +1,73 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
+import com.antheminc.oss.nimbus.support.expr.ExpressionEvaluator;
+
+/**
+ * Expressions of the shape used by conditional annotations (e.g. @ActivateConditional, @EnableConditional), 
+ * evaluated against a param of a built s0 quad.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class ExpressionEvaluatorBenchmark {
+
+	@Param({
+		"state == 'Y'",
+		"state != null && state.length() > 3",
+		"findStateByPath('/../attr_String') == 'core' or findStateByPath('/../attr_int') > 1"
+	})
+	public String expr;
+	
+	private ExpressionEvaluator expressionEvaluator;
+	
+	private Object rootObject;
+	
+	@Setup
+	public void setup(ScenarioContext ctx) {
+		expressionEvaluator = ctx.getBean(ExpressionEvaluator.class);
+		
+		QuadModel<?, ?> q = ctx.buildQuad(ScenarioContext.S0_VIEW);
+		q.getCore().findParamByPath("/attr_String").setState("core");
+		q.getCore().findParamByPath("/unmapped_String").setState("unmapped");
+		
+		rootObject = q.getCore().findParamByPath("/unmapped_String");
+	}
+	
+	@Benchmark
+	public Boolean getValue() {
+		return expressionEvaluator.getValue(expr, rootObject, Boolean.class);
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
+
+/**
+ * Param lookup and state updates on a built s0 quad. Updates run through the full event propagation: 
+ * mapped notifications from core to view, conditional state event handlers and txn scoped listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class ParamStateBenchmark {
+
+	private QuadModel<?, ?> q;
+	
+	private Param<String> coreAttr;
+	
+	private Param<String> viewMappedAttr;
+	
+	private int counter;
+	
+	@Setup
+	public void setup(ScenarioContext ctx) {
+		q = ctx.buildQuad(ScenarioContext.S0_VIEW);
+		q.getCore().findParamByPath("/attr_list_1_NestedEntity").setState(ScenarioContext.createNestedList(10));
+		
+		coreAttr = q.getCore().findParamByPath("/attr_String");
+		viewMappedAttr = q.getView().findParamByPath("/page_green/tile/for_mapped_state_change_attr");
+	}
+	
+	@Benchmark
+	public Param<?> findParamByPath_view() {
+		return q.getView().findParamByPath("/page_green/tile/section_grid/grid_attached_ConvertedItems");
+	}
+	
+	@Benchmark
+	public Param<?> findParamByPath_collectionElem() {
+		return q.getCore().findParamByPath("/attr_list_1_NestedEntity/5/nested_attr_String");
+	}
+	
+	@Benchmark
+	public Param<?> findParamByPath_linked() {
+		return q.getView().findParamByPath("/page_green/tile/list_attached_noConversion_NestedEntity/5/.m/nested_attr_String");
+	}
+	
+	@Benchmark
+	public Action setState_core() {
+		return coreAttr.setState("core_"+(counter++));
+	}
+	
+	@Benchmark
+	public Action setState_mappedView() {
+		return viewMappedAttr.setState("view_"+(counter++));
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.ListParam;
+import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ParamStateGateway;
+import com.antheminc.oss.nimbus.test.scenarios.s0.core.SampleCoreNestedEntity;
+import com.antheminc.oss.nimbus.test.scenarios.s0.view.VPSampleViewPageGreen.ConvertedNestedEntity;
+
+/**
+ * Reads and writes through {@link ParamStateGateway} on the s0 collections: the attached collection without 
+ * conversion and the one converted from core to view elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class ParamStateGatewayBenchmark {
+
+	@Param({"10", "100"})
+	public int size;
+	
+	private ParamStateGateway paramStateGateway;
+	
+	private ListParam<SampleCoreNestedEntity> coreList;
+	
+	private ListParam<SampleCoreNestedEntity> viewList;
+	
+	private ListParam<ConvertedNestedEntity> viewConvertedList;
+	
+	private List<SampleCoreNestedEntity> state;
+	
+	@Setup
+	public void setup(ScenarioContext ctx) {
+		paramStateGateway = ctx.getBean(ParamStateGateway.class, "default.param.state.repository");
+		
+		QuadModel<?, ?> q = ctx.buildQuad(ScenarioContext.S0_VIEW);
+		
+		coreList = q.getCore().findParamByPath("/attr_list_2_NestedEntity").findIfCollection();
+		viewList = q.getView().findParamByPath("/page_green/tile/list_attached_noConversion_NestedEntity").findIfCollection();
+		viewConvertedList = q.getView().findParamByPath("/page_green/tile/section_grid/grid_attached_ConvertedItems").findIfCollection();
+		
+		state = ScenarioContext.createNestedList(size);
+		coreList.setState(state);
+	}
+	
+	@Benchmark
+	public Object get_convertedCollection() {
+		return paramStateGateway._get(viewConvertedList);
+	}
+	
+	@Benchmark
+	public Action set_attachedCollection() {
+		viewList.setState(null);
+		return viewList.setState(state);
+	}
+	
+	@Benchmark
+	public Action set_convertedCollection() {
+		coreList.setState(null);
+		return coreList.setState(state);
+	}
+}
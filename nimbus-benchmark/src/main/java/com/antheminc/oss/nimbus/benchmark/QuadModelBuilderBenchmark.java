@@ -0,0 +1,64 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
+import com.antheminc.oss.nimbus.domain.model.state.builder.QuadModelBuilder;
+
+/**
+ * State tree construction of a new quad for each of the scenario root domains.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class QuadModelBuilderBenchmark {
+
+	@Param({ScenarioContext.S0_VIEW, ScenarioContext.S1_VIEW, ScenarioContext.S2_VIEW, ScenarioContext.S3_VIEW, ScenarioContext.S4_VIEW})
+	public String domainRoot;
+	
+	private QuadModelBuilder quadModelBuilder;
+	
+	private Command cmd;
+	
+	@Setup
+	public void setup(ScenarioContext ctx) {
+		quadModelBuilder = ctx.getBean(QuadModelBuilder.class);
+		cmd = ScenarioContext.newCommand(domainRoot);
+	}
+	
+	@Benchmark
+	public QuadModel<?, ?> build() {
+		return quadModelBuilder.build(cmd);
+	}
+}
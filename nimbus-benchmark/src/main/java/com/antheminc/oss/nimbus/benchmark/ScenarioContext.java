@@ -0,0 +1,102 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
+import com.antheminc.oss.nimbus.domain.model.state.builder.QuadModelBuilder;
+import com.antheminc.oss.nimbus.test.FrameworkIntegrationTestScenariosApplication;
+import com.antheminc.oss.nimbus.test.scenarios.s0.core.SampleCoreNestedEntity;
+
+/**
+ * Boots the nimbus-test scenarios application once per benchmark run and hands out framework beans and freshly built 
+ * quads of the scenario models.
+ * <p>
+ * Runs with the "benchmark" profile, which needs no Mongo instance as long as suites stay away from repositories.
+ */
+@State(Scope.Benchmark)
+public class ScenarioContext {
+
+	public static final String PLATFORM_ROOT = "/hooli/thebox/p";
+	
+	/* s0: mapped view with attached, converted and nested collections */
+	public static final String S0_VIEW = "sample_view";
+	
+	/* s1: view with detached collection */
+	public static final String S1_VIEW = "s1v_main";
+	
+	/* s2: device cached view */
+	public static final String S2_VIEW = "s2v_main";
+	
+	/* s3: flow with pages and nested core */
+	public static final String S3_VIEW = "view_simplecase";
+	
+	/* s4: view with modal and backing object */
+	public static final String S4_VIEW = "s4v_main";
+	
+	private ConfigurableApplicationContext ctx;
+	
+	@Setup(Level.Trial)
+	public void start() {
+		ctx = new SpringApplicationBuilder(FrameworkIntegrationTestScenariosApplication.class)
+				.profiles("benchmark")
+				.run();
+	}
+	
+	@TearDown(Level.Trial)
+	public void stop() {
+		if(ctx != null)
+			ctx.close();
+	}
+	
+	public <T> T getBean(Class<T> type) {
+		return ctx.getBean(type);
+	}
+	
+	public <T> T getBean(Class<T> type, String qualifier) {
+		return ctx.getBean(qualifier, type);
+	}
+	
+	public static Command newCommand(String domainRoot) {
+		return CommandBuilder.withUri(PLATFORM_ROOT+"/"+domainRoot+"/_new").getCommand();
+	}
+	
+	public QuadModel<?, ?> buildQuad(String domainRoot) {
+		return getBean(QuadModelBuilder.class).build(newCommand(domainRoot));
+	}
+	
+	public static List<SampleCoreNestedEntity> createNestedList(int size) {
+		List<SampleCoreNestedEntity> list = new ArrayList<>(size);
+		for(int i=0; i<size; i++) {
+			SampleCoreNestedEntity e = new SampleCoreNestedEntity();
+			e.setNested_attr_String("nested_"+i);
+			list.add(e);
+		}
+		return list;
+	}
+}
@@ -15,24 +15,169 @@
  */
 package com.antheminc.oss.nimbus.app.extension.config;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.activiti.bpmn.model.ExtensionElement;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.UserTask;
 import org.activiti.engine.impl.persistence.deploy.DefaultDeploymentCache;
 import org.activiti.engine.impl.persistence.deploy.ProcessDefinitionCacheEntry;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 
 /**
+ * Process definition cache which additionally indexes the latest version of each definition by process key, and resolves the 
+ * exit condition of each user task once per process definition id when the definition is added, so that continuing a process 
+ * instance, against the version it was started with, needs map lookups only.
+ * 
+ * <p>User tasks, or whole processes, carrying an <tt>asyncContinuation</tt> extension element with text <tt>true</tt> are 
+ * indexed as well, continuation past such tasks is handed off to {@link com.antheminc.oss.nimbus.domain.bpm.BPMContinuationExecutor}.
+ * 
  * @author Jayant Chaudhuri
  *
  */
 public class ActivitiProcessDefinitionCache extends DefaultDeploymentCache<ProcessDefinitionCacheEntry> {
 	
-	  public ProcessDefinitionCacheEntry findByKey(String currentKey) {
-		  for(String processDefinition:cache.keySet()) {
-			  String key = processDefinition.split(":")[0];
-			  if(key.equals(currentKey)) {
-				  ProcessDefinitionCacheEntry entry = cache.get(processDefinition);
-				  return entry;
-			  }
-		  }
-		  return null;
-	  }
+	public static final String EXTENSION_EXIT_CONDITION = "exitCondition";
+	
+	public static final String EXTENSION_ASYNC_CONTINUATION = "asyncContinuation";
+	
+	private final Map<String, ProcessDefinitionCacheEntry> latestByKey = new ConcurrentHashMap<>();
+	
+	private final Map<String, Map<String, String>> exitConditionsById = new ConcurrentHashMap<>();
+	
+	private final Map<String, Set<String>> asyncTasksById = new ConcurrentHashMap<>();
+	
+	@Override
+	public void add(String id, ProcessDefinitionCacheEntry entry) {
+		super.add(id, entry);
+		exitConditionsById.put(id, resolveExitConditions(entry));
+		asyncTasksById.put(id, resolveAsyncTasks(entry));
+		latestByKey.merge(entry.getProcessDefinition().getKey(), entry, 
+				(curr, added)->added.getProcessDefinition().getVersion() >= curr.getProcessDefinition().getVersion() ? added : curr);
+	}
+	
+	@Override
+	public void remove(String id) {
+		ProcessDefinitionCacheEntry removed = get(id);
+		super.remove(id);
+		exitConditionsById.remove(id);
+		asyncTasksById.remove(id);
+		
+		if(removed!=null)
+			reindex(removed.getProcessDefinition().getKey());
+	}
+	
+	@Override
+	public void clear() {
+		super.clear();
+		exitConditionsById.clear();
+		asyncTasksById.clear();
+		latestByKey.clear();
+	}
+	
+	protected void reindex(String key) {
+		ProcessDefinitionCacheEntry latest = null;
+		synchronized (cache) {
+			for(ProcessDefinitionCacheEntry entry : cache.values()) {
+				if(!key.equals(entry.getProcessDefinition().getKey()))
+					continue;
+				
+				if(latest==null || entry.getProcessDefinition().getVersion() > latest.getProcessDefinition().getVersion())
+					latest = entry;
+			}
+		}
+		
+		if(latest==null)
+			latestByKey.remove(key);
+		else
+			latestByKey.put(key, latest);
+	}
+	
+	/**
+	 * @return latest cached version of the process definition with the given key, or <tt>null</tt> if none is cached
+	 */
+	public ProcessDefinitionCacheEntry findByKey(String currentKey) {
+		return latestByKey.get(currentKey);
+	}
+	
+	/**
+	 * @return exit condition of the user task <tt>taskKey</tt> in the process definition <tt>processDefinitionId</tt>, 
+	 * or <tt>null</tt> if the task has none
+	 */
+	public String findExitCondition(String processDefinitionId, String taskKey) {
+		Map<String, String> exitConditions = exitConditionsById.get(processDefinitionId);
+		return exitConditions==null ? null : exitConditions.get(taskKey);
+	}
+	
+	/**
+	 * @return true if continuation past the user task <tt>taskKey</tt> in the process definition <tt>processDefinitionId</tt> 
+	 * is marked to run asynchronously
+	 */
+	public boolean isAsyncContinuation(String processDefinitionId, String taskKey) {
+		Set<String> asyncTasks = asyncTasksById.get(processDefinitionId);
+		return asyncTasks!=null && asyncTasks.contains(taskKey);
+	}
+	
+	protected Map<String, String> resolveExitConditions(ProcessDefinitionCacheEntry entry) {
+		if(entry.getProcess()==null)
+			return Collections.emptyMap();
+		
+		Map<String, String> exitConditions = new HashMap<>();
+		for(FlowElement flowElement : entry.getProcess().getFlowElements()) {
+			if(!(flowElement instanceof UserTask))
+				continue;
+			
+			String exitCondition = resolveExitCondition((UserTask)flowElement);
+			if(exitCondition!=null)
+				exitConditions.put(flowElement.getId(), exitCondition);
+		}
+		return exitConditions;
+	}
+	
+	protected String resolveExitCondition(UserTask userTask) {
+		if(userTask.getSkipExpression() != null)
+			return userTask.getSkipExpression();
+		
+		Map<String, List<ExtensionElement>> extensionElements = userTask.getExtensionElements();
+		if(extensionElements == null)
+			return null;
+		
+		List<ExtensionElement> extensionElementList = extensionElements.get(EXTENSION_EXIT_CONDITION);
+		if(CollectionUtils.isEmpty(extensionElementList))
+			return null;
+		
+		return extensionElementList.get(0).getElementText();
+	}
+	
+	protected Set<String> resolveAsyncTasks(ProcessDefinitionCacheEntry entry) {
+		if(entry.getProcess()==null)
+			return Collections.emptySet();
+		
+		boolean asyncProcess = isMarkedAsync(entry.getProcess().getExtensionElements());
+		Set<String> asyncTasks = new HashSet<>();
+		for(FlowElement flowElement : entry.getProcess().getFlowElements()) {
+			if(flowElement instanceof UserTask && (asyncProcess || isMarkedAsync(flowElement.getExtensionElements())))
+				asyncTasks.add(flowElement.getId());
+		}
+		return asyncTasks;
+	}
+	
+	private boolean isMarkedAsync(Map<String, List<ExtensionElement>> extensionElements) {
+		if(extensionElements == null)
+			return false;
+		
+		List<ExtensionElement> extensionElementList = extensionElements.get(EXTENSION_ASYNC_CONTINUATION);
+		if(CollectionUtils.isEmpty(extensionElementList))
+			return false;
+		
+		return Boolean.parseBoolean(StringUtils.trim(extensionElementList.get(0).getElementText()));
+	}
 
 }
@@ -16,7 +16,11 @@
 package com.antheminc.oss.nimbus.app.extension.config;
 
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -28,7 +32,12 @@ import org.springframework.web.client.RestTemplate;
 import com.antheminc.oss.nimbus.channel.web.WebActionController;
 import com.antheminc.oss.nimbus.channel.web.WebCommandBuilder;
 import com.antheminc.oss.nimbus.channel.web.WebCommandDispatcher;
+import com.antheminc.oss.nimbus.channel.web.WebAsyncCommandExecutor;
+import com.antheminc.oss.nimbus.channel.web.WebEventStreamListener;
+import com.antheminc.oss.nimbus.channel.web.WebEventStreamRegistry;
+import com.antheminc.oss.nimbus.channel.web.WebResponseETagResolver;
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.model.config.ParamValue;
 import com.antheminc.oss.nimbus.domain.model.state.repo.DefaultModelRepositoryFactory;
 import com.antheminc.oss.nimbus.domain.model.state.repo.DefaultParamStateRepositoryDetached;
 import com.antheminc.oss.nimbus.domain.model.state.repo.DefaultParamStateRepositoryLocal;
@@ -37,11 +46,19 @@ import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ParamStateRepository;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ParamStateRepositoryGateway;
 import com.antheminc.oss.nimbus.domain.model.state.repo.SpringSecurityAuditorAware;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.CacheInvalidationBus;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.EntityCachingModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.InMemoryCacheInvalidationBus;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.ReferenceDataCache;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.RepositoryCache;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.SearchCachingModelRepository;
 import com.antheminc.oss.nimbus.domain.model.state.repo.db.ClientUserGrooupSearchResponseConverter;
 import com.antheminc.oss.nimbus.domain.model.state.repo.db.ParamStateAtomicPersistenceEventListener;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ws.DefaultWSModelRepository;
 import com.antheminc.oss.nimbus.domain.rules.DefaultRulesEngineFactoryProducer;
 import com.antheminc.oss.nimbus.domain.rules.drools.DroolsRulesEngineFactory;
+import com.antheminc.oss.nimbus.support.metrics.InMemoryMetricsRegistry;
+import com.antheminc.oss.nimbus.support.metrics.MetricsRegistry;
 import com.antheminc.oss.nimbus.support.pojo.JavaBeanHandler;
 import com.antheminc.oss.nimbus.support.pojo.reflection.JavaBeanHandlerReflection;
 
@@ -58,6 +75,40 @@ public class DefaultCoreConfiguration {
 		return new DefaultModelRepositoryFactory(beanResolver);
 	}
 
+	@Bean(name="default.repo.entityCache")
+	public RepositoryCache<EntityCachingModelRepository.EntityKey, Object> entityRepositoryCache(
+			@Value("${nimbus.repo.cache.entity.maxSize:1000}") int maxSize, 
+			@Value("${nimbus.repo.cache.entity.ttlSeconds:300}") long ttlSeconds) {
+		return new RepositoryCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+	}
+	
+	@Bean(name="default.repo.searchCache")
+	public RepositoryCache<SearchCachingModelRepository.SearchKey, Object> searchRepositoryCache(
+			@Value("${nimbus.repo.cache.search.maxSize:500}") int maxSize, 
+			@Value("${nimbus.repo.cache.search.ttlSeconds:60}") long ttlSeconds) {
+		return new RepositoryCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+	}
+	
+	@Bean(name="default.repo.cacheInvalidationBus")
+	public CacheInvalidationBus inMemoryCacheInvalidationBus() {
+		return new InMemoryCacheInvalidationBus();
+	}
+	
+	@Bean(name="default.referenceDataCache")
+	public ReferenceDataCache referenceDataCache(BeanResolverStrategy beanResolver,
+			@Value("${nimbus.repo.cache.referenceData.maxSize:500}") int maxSize, 
+			@Value("${nimbus.repo.cache.referenceData.ttlSeconds:0}") long ttlSeconds,
+			@Value("${nimbus.repo.cache.referenceData.warmOnStartup:false}") boolean warmOnStartup) {
+		ReferenceDataCache referenceDataCache = new ReferenceDataCache(beanResolver, new RepositoryCache<String, List<ParamValue>>(maxSize, ttlSeconds, TimeUnit.SECONDS), ttlSeconds, TimeUnit.SECONDS);
+		referenceDataCache.setWarmOnStartup(warmOnStartup);
+		return referenceDataCache;
+	}
+	
+	@Bean(name="default.metricsRegistry")
+	public MetricsRegistry inMemoryMetricsRegistry() {
+		return new InMemoryMetricsRegistry();
+	}
+	
 	@Bean(name="default.rep_ws")
 	public DefaultWSModelRepository defaultWSModelRepository(BeanResolverStrategy beanResolver){
 		return new DefaultWSModelRepository(beanResolver);
@@ -117,6 +168,33 @@ public class DefaultCoreConfiguration {
 		return new WebCommandDispatcher(beanResolver);
 	}
 	
+	@Bean
+	public WebResponseETagResolver webResponseETagResolver(
+			@Value("${nimbus.web.etag.config.enabled:true}") boolean configEnabled,
+			@Value("${nimbus.web.etag.state.enabled:false}") boolean stateEnabled) {
+		return new WebResponseETagResolver(configEnabled, stateEnabled);
+	}
+	
+	@Bean
+	public WebAsyncCommandExecutor webAsyncCommandExecutor(
+			@Value("${nimbus.web.async.threads:20}") int threads,
+			@Value("${nimbus.web.async.queueCapacity:500}") int queueCapacity) {
+		return new WebAsyncCommandExecutor(threads, queueCapacity);
+	}
+	
+	@Bean
+	public WebEventStreamRegistry webEventStreamRegistry(
+			@Value("${nimbus.web.eventStream.threads:2}") int threads,
+			@Value("${nimbus.web.eventStream.queueCapacity:1000}") int queueCapacity,
+			@Value("${nimbus.web.eventStream.timeoutMillis:1800000}") long timeoutMillis) {
+		return new WebEventStreamRegistry(threads, queueCapacity, timeoutMillis);
+	}
+	
+	@Bean
+	public WebEventStreamListener webEventStreamListener(BeanResolverStrategy beanResolver, WebEventStreamRegistry registry) {
+		return new WebEventStreamListener(beanResolver, registry);
+	}
+	
 
 	@Bean(name="clientUserGrooupSearchResponseConverter")
 	Converter clientUserGroupConverter() {
@@ -15,6 +15,7 @@
  */
 package com.antheminc.oss.nimbus.app.extension.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.PropertyResolver;
@@ -111,8 +112,11 @@ public class DefaultCoreExecutorConfig {
 	}
 	
 	@Bean(name="default._update$execute")
-	public CommandExecutor<?> defaultActionExecutorUpdate(BeanResolverStrategy beanResolver){
-		return new DefaultActionExecutorUpdate(beanResolver);
+	public CommandExecutor<?> defaultActionExecutorUpdate(BeanResolverStrategy beanResolver,
+			@Value("${nimbus.cmd.update.streamPayload:false}") boolean streamPayload){
+		DefaultActionExecutorUpdate executor = new DefaultActionExecutorUpdate(beanResolver);
+		executor.setStreamPayload(streamPayload);
+		return executor;
 	}
 	
 	@Bean(name="default._delete$execute")
@@ -142,8 +146,11 @@ public class DefaultCoreExecutorConfig {
 	
 	
 	@Bean(name="default.processGateway")
-	public DefaultCommandExecutorGateway defaultProcessGateway(BeanResolverStrategy beanResolver){
-		return new DefaultCommandExecutorGateway(beanResolver);
+	public DefaultCommandExecutorGateway defaultProcessGateway(BeanResolverStrategy beanResolver, 
+			@Value("${nimbus.trace.enabled:false}") boolean traceEnabled){
+		DefaultCommandExecutorGateway gateway = new DefaultCommandExecutorGateway(beanResolver);
+		gateway.setTraceEnabled(traceEnabled);
+		return gateway;
 	}
 	
 	@Bean(name="searchByExample")
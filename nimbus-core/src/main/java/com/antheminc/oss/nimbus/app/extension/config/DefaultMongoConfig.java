@@ -18,7 +18,6 @@
  */
 package com.antheminc.oss.nimbus.app.extension.config;
 
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
@@ -27,7 +26,7 @@ import org.springframework.data.mongodb.core.convert.CustomConversions;
 
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
 import com.antheminc.oss.nimbus.domain.model.state.repo.IdSequenceRepository;
-import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
 import com.antheminc.oss.nimbus.domain.model.state.repo.MongoIdSequenceRepository;
 import com.antheminc.oss.nimbus.domain.model.state.repo.db.mongo.DefaultMongoModelPersistenceHandler;
 import com.antheminc.oss.nimbus.domain.model.state.repo.db.mongo.DefaultMongoModelRepository;
@@ -47,8 +46,8 @@ public class DefaultMongoConfig {
 	}
 	
 	@Bean(name="default.rep_mongodb_handler")
-	public DefaultMongoModelPersistenceHandler defaultMongoModelPersistenceHandler(@Qualifier("default.rep_mongodb") ModelRepository rep){
-		return new DefaultMongoModelPersistenceHandler(rep);
+	public DefaultMongoModelPersistenceHandler defaultMongoModelPersistenceHandler(ModelRepositoryFactory repoFactory){
+		return new DefaultMongoModelPersistenceHandler(repoFactory);
 	}
 	
 	@Bean(name="default.rep_mongodb")
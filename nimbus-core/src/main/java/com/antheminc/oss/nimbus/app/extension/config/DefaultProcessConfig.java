@@ -15,14 +15,19 @@
  */
 package com.antheminc.oss.nimbus.app.extension.config;
 
+import java.util.concurrent.TimeUnit;
+
 import org.activiti.engine.impl.el.ExpressionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.bpm.BPMContinuationExecutor;
 import com.antheminc.oss.nimbus.domain.bpm.BPMGateway;
 import com.antheminc.oss.nimbus.domain.bpm.activiti.ActivitiBPMGateway;
 import com.antheminc.oss.nimbus.domain.bpm.activiti.ActivitiExpressionManager;
+import com.antheminc.oss.nimbus.domain.bpm.activiti.ActivitiInMemoryProcessExecutor;
 import com.antheminc.oss.nimbus.domain.bpm.activiti.CommandExecutorTaskDelegate;
 import com.antheminc.oss.nimbus.domain.cmd.exec.FunctionHandler;
 import com.antheminc.oss.nimbus.domain.cmd.exec.internal.DefaultParamFunctionHandler;
@@ -53,8 +58,24 @@ public class DefaultProcessConfig {
 	}
 	
 	@Bean
-	public BPMGateway bpmGateway(BeanResolverStrategy beanResolver){
-		return new ActivitiBPMGateway(beanResolver);
+	public ActivitiInMemoryProcessExecutor activitiInMemoryProcessExecutor(BeanResolverStrategy beanResolver){
+		return new ActivitiInMemoryProcessExecutor(beanResolver);
+	}
+	
+	@Bean
+	public BPMContinuationExecutor bpmContinuationExecutor(@Value("${nimbus.bpm.continuation.threads:4}") int threads,
+			@Value("${nimbus.bpm.continuation.queueCapacity:200}") int queueCapacity,
+			@Value("${nimbus.bpm.continuation.outputTtlSeconds:300}") long outputTtlSeconds,
+			@Value("${nimbus.bpm.continuation.maxOutputsPerRoot:100}") int maxOutputsPerRoot){
+		return new BPMContinuationExecutor(threads, queueCapacity, outputTtlSeconds, TimeUnit.SECONDS, maxOutputsPerRoot);
+	}
+	
+	@Bean
+	public BPMGateway bpmGateway(BeanResolverStrategy beanResolver,
+			@Value("${nimbus.bpm.stateless.inMemory:false}") boolean statelessInMemory){
+		ActivitiBPMGateway bpmGateway = new ActivitiBPMGateway(beanResolver);
+		bpmGateway.setStatelessInMemory(statelessInMemory);
+		return bpmGateway;
 	}		
 	
 	@Bean(name="default._new$execute?fn=_initEntity")
@@ -82,7 +103,7 @@ public class DefaultProcessConfig {
 		return new UpdateFunctionHandler<>();
 	}
 	
-	@Bean(name="default._process$execute?fn=_setByRule")
+	@Bean(name="default._process$execute?fn=_setByRule", destroyMethod="shutdown")
 	public FunctionHandler<?,?> setByRuleFunctionHandler(){
 		return new SetByRuleFunctionalHandler<>();
 	}
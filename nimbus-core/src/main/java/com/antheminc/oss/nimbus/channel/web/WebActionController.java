@@ -15,18 +15,30 @@
  */
 package com.antheminc.oss.nimbus.channel.web;
 
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.antheminc.oss.nimbus.InvalidArgumentException;
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.cmd.CommandElement.Type;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
 import com.antheminc.oss.nimbus.domain.cmd.exec.ExecutionContextLoader;
+import com.antheminc.oss.nimbus.domain.defn.Constants;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
 import com.antheminc.oss.nimbus.support.Holder;
 
@@ -85,11 +97,15 @@ public class WebActionController {
 	
 	public static final String URI_PATTERN_P = "/{clientCode}/**/p";
 	public static final String URI_PATTERN_P_OPEN = URI_PATTERN_P + "/**";
+	
+	public static final String HEADER_ASYNC = "X-Nimbus-Async";
 
 	@Autowired WebCommandDispatcher dispatcher;
 	
 	@Autowired ExecutionContextLoader ctxLoader;
 	
+	@Autowired WebEventStreamRegistry eventStreams;
+	
 	@RequestMapping(value=URI_PATTERN_P+"/clear", produces="application/json", method=RequestMethod.GET)
 	public void clear() {
 		ctxLoader.clear();
@@ -127,6 +143,23 @@ public class WebActionController {
 		return handleInternal(req, RequestMethod.PATCH, v, json);
 	}
 	
+	/**
+	 * Asynchronous variant of the handlers above, selected by sending the <tt>X-Nimbus-Async: true</tt> header. The command is 
+	 * queued behind earlier commands on the same root, see {@link WebAsyncCommandExecutor}, and the servlet thread is returned to 
+	 * the container until the response is ready. 
+	 * GET requests pass the payload in the <tt>a</tt> parameter, as for {@link #handleGet(HttpServletRequest, String)}.
+	 */
+	@RequestMapping(value=URI_PATTERN_P_OPEN, produces="application/json", headers=HEADER_ASYNC+"=true", 
+			method={RequestMethod.GET, RequestMethod.DELETE, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH})
+	public DeferredResult<Holder<Object>> handleAsync(HttpServletRequest req, @RequestParam(required=false) String v, 
+			@RequestParam(required=false) String a, @RequestBody(required=false) String json) {
+		
+		RequestMethod httpMethod = RequestMethod.valueOf(req.getMethod());
+		String payload = (httpMethod==RequestMethod.GET) ? a : json;
+		
+		return dispatcher.handleAsync(req, httpMethod, v, payload, obj->new Holder<>(obj));
+	}
+	
 	@RequestMapping(value=URI_PATTERN_P+"/event/notify", produces="application/json", method=RequestMethod.POST)
 	public Object handleEventNotify(HttpServletRequest req, @RequestBody ModelEvent<String> event) {
 		Object obj = dispatcher.handle(req, RequestMethod.POST, event);
@@ -135,6 +168,35 @@ public class WebActionController {
 		return output;
 	}
 	
+	/**
+	 * Executes an ordered list of commands in one round trip, see {@link WebBatchCommand} for the entry format and 
+	 * {@link com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecutorGateway#execute(List)} for the execution semantics.
+	 */
+	@RequestMapping(value=URI_PATTERN_P+"/batch", produces="application/json", method=RequestMethod.POST)
+	public Object handleBatch(HttpServletRequest req, @RequestBody List<WebBatchCommand> batchCmds) {
+		Object obj = dispatcher.handle(req, batchCmds);
+		
+		Holder<Object> output = new Holder<>(obj);
+		return output;
+	}
+	
+	/**
+	 * Opens a Server-Sent Events stream of the state changes made to the given root domain by any command, e.g. <tt>domain=sample_view:1</tt>. <br>
+	 * The root is resolved by executing a <tt>_get</tt> on it, so that subscribing is subject to the same access checks and session 
+	 * scope as reading it, and the stream follows the execution runtime of that root.
+	 */
+	@RequestMapping(value=URI_PATTERN_P+"/event/stream", produces=MediaType.TEXT_EVENT_STREAM_VALUE, method=RequestMethod.GET)
+	public SseEmitter handleEventStream(HttpServletRequest req, @RequestParam String domain) {
+		Command cmd = dispatcher.getBuilder().buildPlatformRelative(req, domain);
+		if(!cmd.isRootDomainOnly())
+			throw new InvalidArgumentException("Event stream can only be opened on a root domain, but found: "+domain);
+		
+		Command getCmd = CommandBuilder.withUri(cmd.buildUri(Type.DomainAlias) + Constants.SEPARATOR_URI.code + Action._get.name()).getCommand();
+		MultiOutput output = dispatcher.handle(getCmd, null);
+		
+		return eventStreams.subscribe(output.getContext().getRootModel().getExecutionRuntime().getId());
+	}
+	
 	@RequestMapping({"/login/*"})
 	public ResponseEntity<?> login(){
 		return ResponseEntity.status(HttpStatus.OK).body(null);
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
@@ -54,6 +55,8 @@ public class WebActionControllerAdvice implements ResponseBodyAdvice<Object> {
 	
 	@Autowired CommandTransactionInterceptor interceptor;
 	
+	@Autowired(required=false) WebResponseETagResolver etagResolver;
+	
 	@Override
 	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
 		return true;
@@ -66,6 +69,19 @@ public class WebActionControllerAdvice implements ResponseBodyAdvice<Object> {
 		logit.debug(()->"Processed response from "+WebActionController.class+": "
 					+ "\n"+ body);
 		
+		if(etagResolver!=null && request.getMethod()==HttpMethod.GET) {
+			String etag = etagResolver.resolve(body);
+			if(etag!=null) {
+				response.getHeaders().setETag(etag);
+				
+				// skip serializing the response when the client already has it
+				if(etagResolver.matches(request.getHeaders().getIfNoneMatch(), etag)) {
+					response.setStatusCode(HttpStatus.NOT_MODIFIED);
+					return null;
+				}
+			}
+		}
+		
 		MultiExecuteOutput multiOutput = interceptor.handleResponse(body);
 		return multiOutput;
 	}
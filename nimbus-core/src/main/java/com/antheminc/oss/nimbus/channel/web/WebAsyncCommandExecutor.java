@@ -0,0 +1,236 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.antheminc.oss.nimbus.FrameworkRuntimeException;
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+/**
+ * Executes asynchronously dispatched web commands, see {@link WebCommandDispatcher#handleAsync}, completing a {@link DeferredResult} 
+ * so that the servlet thread is returned to the container while the command runs. <br>
+ * 
+ * Commands are queued per root domain of the session they target, and each queue is drained by one worker at a time. Commands on 
+ * the same root are serialized by its lock regardless, so a burst on one root occupies a single worker in order of arrival rather 
+ * than parking a worker per command on that lock, leaving the other workers to other roots. <br>
+ * 
+ * A command is executed start to end on a single worker, so the thread bound transaction and event state of the framework 
+ * remains valid for the whole command. The originating request is re-bound to the worker thread, which keeps the 
+ * {@link com.antheminc.oss.nimbus.domain.session.HttpSessionProvider} working as it does for servlet threads. <br>
+ * 
+ * When <tt>queueCapacity</tt> commands are already waiting, further commands fail fast instead of piling up; such rejections 
+ * are counted in {@link #getRejected()}, as are the commands failed because the workers were shut down.
+ */
+public class WebAsyncCommandExecutor {
+
+	private final JustLogit logit = new JustLogit(getClass());
+	
+	private final ExecutorService workers;
+	
+	private final int queueCapacity;
+	
+	private final Map<String, RootQueue> queues = new ConcurrentHashMap<>();
+	
+	private final AtomicInteger waiting = new AtomicInteger();
+	
+	private final AtomicInteger active = new AtomicInteger();
+	
+	private final LongAdder rejected = new LongAdder();
+	
+	/**
+	 * A submitted command along with the request it was received on.
+	 */
+	private class AsyncCommand<T> implements Runnable {
+		
+		private final ServletRequestAttributes reqAttributes;
+		
+		private final Supplier<T> task;
+		
+		private final DeferredResult<T> result;
+		
+		AsyncCommand(ServletRequestAttributes reqAttributes, Supplier<T> task, DeferredResult<T> result) {
+			this.reqAttributes = reqAttributes;
+			this.task = task;
+			this.result = result;
+		}
+		
+		@Override
+		public void run() {
+			waiting.decrementAndGet();
+			active.incrementAndGet();
+			RequestContextHolder.setRequestAttributes(reqAttributes);
+			
+			T value = null;
+			Throwable error = null;
+			try {
+				value = task.get();
+			} catch (Throwable ex) {
+				error = ex;
+			} finally {
+				RequestContextHolder.resetRequestAttributes();
+				completeRequest();
+				active.decrementAndGet();
+			}
+			
+			// completing the result dispatches the request back to the container, so it's done once the request is released 
+			if(error!=null)
+				result.setErrorResult(error);
+			else
+				result.setResult(value);
+		}
+		
+		void reject(Exception ex) {
+			waiting.decrementAndGet();
+			rejected.increment();
+			completeRequest();
+			result.setErrorResult(ex);
+		}
+		
+		private void completeRequest() {
+			try {
+				reqAttributes.requestCompleted();
+			} catch (RuntimeException ex) {
+				logit.error(()->"Failed to complete request attributes of async command", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Commands waiting on one root, retired once drained so that idle roots do not accumulate.
+	 */
+	private class RootQueue implements Runnable {
+		
+		private final String key;
+		
+		private final Queue<AsyncCommand<?>> pending = new ConcurrentLinkedQueue<>();
+		
+		RootQueue(String key) {
+			this.key = key;
+		}
+		
+		@Override
+		public void run() {
+			do {
+				AsyncCommand<?> next;
+				while((next = pending.poll()) != null)
+					next.run();
+			} while(!retire());
+		}
+		
+		/* commands are only added within compute on the same key, so none is left behind once removed */
+		private boolean retire() {
+			boolean[] retired = new boolean[1];
+			queues.compute(key, (k, current)->{
+				if(current!=this || pending.isEmpty()) {
+					retired[0] = true;
+					return current==this ? null : current;
+				}
+				return current;
+			});
+			return retired[0];
+		}
+	}
+	
+	public WebAsyncCommandExecutor(int threads, int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+		
+		AtomicInteger counter = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(threads, r->{
+			Thread t = new Thread(r, "nimbus-web-async-"+counter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+	
+	/**
+	 * @param rootDomainUri root domain targeted by the command, e.g. <tt>/hooli/thebox/p/sample_view:1</tt>
+	 */
+	public <T> DeferredResult<T> submit(HttpServletRequest httpReq, String rootDomainUri, Supplier<T> task) {
+		// session is resolved upfront as it can no longer be created once the servlet thread has handed off the request
+		String sessionId = httpReq.getSession(true).getId();
+		ServletRequestAttributes reqAttributes = new ServletRequestAttributes(httpReq);
+		
+		DeferredResult<T> result = new DeferredResult<>();
+		if(waiting.incrementAndGet() > queueCapacity) {
+			waiting.decrementAndGet();
+			rejected.increment();
+			result.setErrorResult(new FrameworkRuntimeException("Async command rejected as "+queueCapacity
+					+" commands are already waiting, for: "+httpReq.getRequestURI()));
+			return result;
+		}
+		
+		enqueue(sessionId + "|" + rootDomainUri, new AsyncCommand<>(reqAttributes, task, result));
+		return result;
+	}
+	
+	private void enqueue(String key, AsyncCommand<?> command) {
+		RootQueue[] created = new RootQueue[1];
+		queues.compute(key, (k, current)->{
+			RootQueue resolved = (current==null) ? (created[0] = new RootQueue(k)) : current;
+			resolved.pending.add(command);
+			return resolved;
+		});
+		
+		if(created[0]==null)
+			return;
+		
+		try {
+			workers.execute(created[0]);
+		} catch (RejectedExecutionException ex) {
+			// no command is added once removed, so the ones drained here are all that were queued
+			queues.remove(key, created[0]);
+			logit.warn(()->"Rejected async commands of: "+key+" as workers are shut down");
+			
+			AsyncCommand<?> next;
+			while((next = created[0].pending.poll()) != null)
+				next.reject(new FrameworkRuntimeException("Async command rejected as workers are shut down, for: "+key, ex));
+		}
+	}
+	
+	public long getRejected() {
+		return rejected.sum();
+	}
+	
+	public int getActiveCount() {
+		return active.get();
+	}
+	
+	public int getWaitingCount() {
+		return waiting.get();
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		workers.shutdown();
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Entry of a command batch posted to {@link WebActionController#handleBatch}. <br>
+ * 
+ * The <tt>uri</tt> is relative to the platform marker of the batch request and carries the action, behaviors and request 
+ * params of the command, e.g. <tt>/sample_view:1/page/tile/section/field/_update</tt>. The <tt>payload</tt>, if any, is the JSON 
+ * that would otherwise be sent as request body of the individual command.
+ */
+@Getter @Setter @ToString
+public class WebBatchCommand {
+
+	private String uri;
+	
+	private JsonNode payload;
+	
+	public String getRawPayload() {
+		return payload==null || payload.isNull() ? null : payload.toString();
+	}
+}
@@ -60,6 +60,24 @@ public class WebCommandBuilder {
 		return cmd;
 	}
 	
+	public Command build(HttpServletRequest request, WebBatchCommand batchCmd) {
+		return buildPlatformRelative(request, batchCmd.getUri());
+	}
+	
+	/**
+	 * Builds the command for a uri relative to the platform marker of the request uri, e.g. <tt>/sample_view:1/_get</tt> 
+	 * received on <tt>/hooli/thebox/p/batch</tt> resolves to <tt>/hooli/thebox/p/sample_view:1/_get</tt>.
+	 */
+	public Command buildPlatformRelative(HttpServletRequest request, String platformRelativeUri) {
+		String clientUri = StringUtils.substringBefore(request.getRequestURI(), Constants.SEGMENT_PLATFORM_MARKER.code);
+		String constructedUri = clientUri + Constants.SEPARATOR_URI_PLATFORM.code 
+				+ StringUtils.prependIfMissing(platformRelativeUri, Constants.SEPARATOR_URI.code);
+		
+		logit.trace(()->"Constructed URI: "+constructedUri+" for platform relative uri: "+platformRelativeUri);
+		
+		return handleInternal(constructedUri, request.getParameterMap());
+	}
+	
 	public Command handleInternal(String uri, Map<String, String[]> rParams) {
 		Command cmd = CommandBuilder.withUri(uri).addParams(rParams).getCommand();
 		return cmd;
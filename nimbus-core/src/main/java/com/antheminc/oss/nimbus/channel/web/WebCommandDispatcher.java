@@ -18,12 +18,18 @@
  */
 package com.antheminc.oss.nimbus.channel.web;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
 import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
 import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
 import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecutorGateway;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
@@ -40,10 +46,13 @@ public class WebCommandDispatcher {
 	private final WebCommandBuilder builder;
 
 	private final CommandExecutorGateway gateway;
+	
+	private final WebAsyncCommandExecutor asyncExecutor;
 
 	public WebCommandDispatcher(BeanResolverStrategy beanResolver) {
 		this.builder = beanResolver.get(WebCommandBuilder.class);
 		this.gateway = beanResolver.get(CommandExecutorGateway.class);
+		this.asyncExecutor = beanResolver.find(WebAsyncCommandExecutor.class);
 	}
 	
 	public Object handle(HttpServletRequest httpReq, RequestMethod httpMethod, ModelEvent<String> event) {
@@ -56,6 +65,33 @@ public class WebCommandDispatcher {
 		return handle(cmd, json);
 	}
 
+	/**
+	 * Builds the command on the calling servlet thread and executes it on the {@link WebAsyncCommandExecutor}, which releases the 
+	 * servlet thread while the command waits on its root, persistence or remote calls. Executes in the calling thread when no async 
+	 * executor is configured.
+	 * 
+	 * @param toResponse maps the command output to the response body
+	 */
+	public <R> DeferredResult<R> handleAsync(HttpServletRequest httpReq, RequestMethod httpMethod, String v, String json, Function<Object, R> toResponse) {
+		Command cmd = builder.build(httpReq);
+		if(asyncExecutor==null) {
+			DeferredResult<R> result = new DeferredResult<>();
+			result.setResult(toResponse.apply(handle(cmd, json)));
+			return result;
+		}
+		
+		return asyncExecutor.submit(httpReq, cmd.getRootDomainUri(), ()->toResponse.apply(handle(cmd, json)));
+	}
+
+	public MultiOutput handle(HttpServletRequest httpReq, List<WebBatchCommand> batchCmds) {
+		List<CommandMessage> cmdMsgs = new ArrayList<>(batchCmds.size());
+		for(WebBatchCommand batchCmd : batchCmds) {
+			Command cmd = builder.build(httpReq, batchCmd);
+			cmdMsgs.add(new CommandMessage(cmd, batchCmd.getRawPayload()));
+		}
+		return gateway.execute(cmdMsgs);
+	}
+	
 	public MultiOutput handle(Command cmd, String payload) {
 		return gateway.execute(cmd, payload);
 	}
@@ -0,0 +1,79 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.defn.Domain.ListenerType;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.AbstractStateAndConfigEventListener;
+import com.antheminc.oss.nimbus.support.JustLogit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Feeds the param state changes of domains including {@link ListenerType#websocket} to the clients subscribed to their root 
+ * domain via {@link WebEventStreamRegistry}. <br>
+ * 
+ * Events are serialized on the thread changing the state, within the txn of its root, and only 
+ * when at least one client is subscribed to that root.
+ */
+public class WebEventStreamListener extends AbstractStateAndConfigEventListener {
+
+	private final JustLogit logit = new JustLogit(getClass());
+	
+	private final WebEventStreamRegistry registry;
+	
+	private final BeanResolverStrategy beanResolver;
+	
+	private ObjectMapper om;
+	
+	public WebEventStreamListener(BeanResolverStrategy beanResolver, WebEventStreamRegistry registry) {
+		this.beanResolver = beanResolver;
+		this.registry = registry;
+	}
+	
+	@Override
+	public boolean containsListener(ListenerType listenerType) {
+		return ListenerType.websocket == listenerType;
+	}
+	
+	@Override
+	public boolean listen(ModelEvent<Param<?>> event) {
+		if(registry.isEmpty())
+			return false;
+		
+		// keyed by runtime rather than uri, which carries no refId for roots created by _new 
+		String runtimeId = event.getPayload().getRootExecution().getExecutionRuntime().getId();
+		if(!registry.hasSubscribers(runtimeId))
+			return false;
+		
+		try {
+			registry.publish(runtimeId, getObjectMapper().writeValueAsString(event));
+			return true;
+		} catch (JsonProcessingException ex) {
+			logit.warn(()->"Failed to serialize event for event stream of runtime: "+runtimeId+" with event: "+event, ex);
+			return false;
+		}
+	}
+	
+	private ObjectMapper getObjectMapper() {
+		if(om==null)
+			om = beanResolver.get(ObjectMapper.class);
+		
+		return om;
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+import lombok.Getter;
+
+/**
+ * Keeps the Server-Sent Events streams opened by clients, keyed by the id of the execution runtime of the root domain they 
+ * subscribed to. <br>
+ * 
+ * Events are written to the streams on a small dedicated pool, so that a slow client never holds up the command thread which 
+ * produced the event. Each stream sends its events one at a time in the order published, whichever pool thread picks it up. 
+ * When a stream falls behind by more than <tt>queueCapacity</tt> events, further events for it are dropped and counted in 
+ * {@link #getDropped()}; clients are expected to re-read the domain when they reconnect.
+ */
+public class WebEventStreamRegistry {
+
+	public static final String EVENT_NAME = "change";
+	
+	private final JustLogit logit = new JustLogit(getClass());
+	
+	private final Map<String, Set<Stream>> streams = new ConcurrentHashMap<>();
+	
+	private final long timeoutMillis;
+	
+	private final int queueCapacity;
+	
+	private final ExecutorService sender;
+	
+	private final LongAdder dropped = new LongAdder();
+	
+	/**
+	 * Emitter with its pending events, drained by at most one pool thread at a time.
+	 */
+	private class Stream implements Runnable {
+		
+		@Getter
+		private final SseEmitter emitter;
+		
+		private final String key;
+		
+		private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+		
+		private final AtomicInteger size = new AtomicInteger();
+		
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		
+		Stream(String key, SseEmitter emitter) {
+			this.key = key;
+			this.emitter = emitter;
+		}
+		
+		void offer(String json) {
+			if(size.incrementAndGet() > queueCapacity) {
+				size.decrementAndGet();
+				dropped.increment();
+				return;
+			}
+			pending.add(json);
+			schedule();
+		}
+		
+		private void schedule() {
+			if(!scheduled.compareAndSet(false, true))
+				return;
+			
+			try {
+				sender.execute(this);
+			} catch (RejectedExecutionException ex) {
+				scheduled.set(false);
+				logit.debug(()->"Skipped sending events for: "+key+" as sender is shut down");
+			}
+		}
+		
+		@Override
+		public void run() {
+			String json;
+			while((json = pending.poll()) != null) {
+				size.decrementAndGet();
+				try {
+					emitter.send(SseEmitter.event().name(EVENT_NAME).data(json, MediaType.APPLICATION_JSON));
+				} catch (IOException | IllegalStateException ex) {
+					logit.debug(()->"Closing event stream for: "+key+" after failed send: "+ex);
+					unsubscribe(key, emitter);
+					pending.clear();
+					emitter.completeWithError(ex);
+					return;
+				}
+			}
+			scheduled.set(false);
+			
+			// pick up events offered after the last poll, but before the flag was cleared
+			if(!pending.isEmpty())
+				schedule();
+		}
+	}
+	
+	public WebEventStreamRegistry(int threads, int queueCapacity, long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+		this.queueCapacity = queueCapacity;
+		this.sender = Executors.newFixedThreadPool(threads, r->{
+			Thread t = new Thread(r, "nimbus-event-stream");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+	
+	public SseEmitter subscribe(String runtimeId) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Stream stream = new Stream(runtimeId, emitter);
+		
+		streams.compute(runtimeId, (k, existing)->{
+			Set<Stream> resolved = (existing==null) ? new CopyOnWriteArraySet<>() : existing;
+			resolved.add(stream);
+			return resolved;
+		});
+		
+		Runnable remove = ()->unsubscribe(runtimeId, emitter);
+		emitter.onCompletion(remove);
+		emitter.onTimeout(remove);
+		
+		logit.debug(()->"Opened event stream for: "+runtimeId);
+		return emitter;
+	}
+	
+	protected void unsubscribe(String runtimeId, SseEmitter emitter) {
+		streams.computeIfPresent(runtimeId, (k, existing)->{
+			existing.removeIf(stream->stream.getEmitter()==emitter);
+			return existing.isEmpty() ? null : existing;
+		});
+	}
+	
+	public boolean isEmpty() {
+		return streams.isEmpty();
+	}
+	
+	public boolean hasSubscribers(String runtimeId) {
+		return streams.containsKey(runtimeId);
+	}
+	
+	public long getDropped() {
+		return dropped.sum();
+	}
+	
+	/**
+	 * Queues the already serialized <tt>json</tt> on all streams subscribed to the execution runtime with the given id.
+	 */
+	public void publish(String runtimeId, String json) {
+		Set<Stream> subscribed = streams.get(runtimeId);
+		if(subscribed==null)
+			return;
+		
+		subscribed.forEach(stream->stream.offer(json));
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		sender.shutdownNow();
+		streams.values().forEach(subscribed->subscribed.forEach(stream->stream.getEmitter().complete()));
+		streams.clear();
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.Output;
+import com.antheminc.oss.nimbus.domain.model.config.EntityConfig;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.ExecutionModel;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.support.Holder;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves the ETag of <tt>_get</tt> and <tt>_config</tt> responses, which {@link WebActionControllerAdvice} uses to 
+ * answer matching <tt>If-None-Match</tt> requests with <tt>304 Not Modified</tt> instead of serializing the response again. <br>
+ * 
+ * <ul>
+ * <li><tt>_config</tt>: strong ETag per config alias and referred class, as configs do not change once built. Keying on 
+ * those rather than on the config instance keeps the ETag the same across sessions, whose quads build their own configs. 
+ * A random prefix per startup keeps ETags from a previous deployment from matching.</li>
+ * <li><tt>_get</tt> on a param: weak ETag from the id and state version of the param's execution runtime, see 
+ * {@link com.antheminc.oss.nimbus.domain.model.state.ExecutionRuntime#getStateVersion()}. Only enabled with 
+ * <tt>stateEnabled</tt>, since state read through on every access, e.g. detached params not cached in the session, 
+ * does not move the version.</li>
+ * </ul>
+ * 
+ * Responses carrying more than the single output of the command, e.g. events raised while executing it, get no ETag.
+ */
+@RequiredArgsConstructor
+public class WebResponseETagResolver {
+
+	private final boolean configEnabled;
+	
+	private final boolean stateEnabled;
+	
+	private final String startupId = UUID.randomUUID().toString();
+	
+	private final AtomicLong configSequence = new AtomicLong();
+	
+	private final Map<String, Long> configIds = new ConcurrentHashMap<>();
+	
+	public String resolve(Object body) {
+		Object result = (body instanceof Holder) ? ((Holder<?>)body).getState() : body;
+		if(!(result instanceof MultiOutput))
+			return null;
+		
+		List<Output<?>> outputs = ((MultiOutput)result).getOutputs();
+		if(outputs==null || outputs.size()!=1)
+			return null;
+		
+		Output<?> output = outputs.get(0);
+		Object value = output.getValue();
+		
+		if(configEnabled && output.getAction()==Action._config && value instanceof EntityConfig)
+			return "\""+startupId+"-"+configIds.computeIfAbsent(toConfigKey(output, (EntityConfig<?>)value), k->configSequence.incrementAndGet())+"\"";
+		
+		if(stateEnabled && output.getAction()==Action._get && value instanceof Param)
+			return resolveState((Param<?>)value);
+		
+		return null;
+	}
+	
+	protected String toConfigKey(Output<?> output, EntityConfig<?> config) {
+		String alias = output.getContext().getCommandMessage().getCommand().getAbsoluteAlias();
+		Class<?> referredClass = config.getReferredClass();
+		return alias+"|"+(referredClass==null ? null : referredClass.getName());
+	}
+	
+	protected String resolveState(Param<?> p) {
+		ExecutionModel<?> rootExecution = p.getRootExecution();
+		if(rootExecution==null)
+			return null;
+		
+		// linked views share the runtime of their core
+		if(rootExecution.getAssociatedParam().isLinked())
+			rootExecution = rootExecution.getAssociatedParam().findIfLinked().getRootExecution();
+		
+		return "W/\""+rootExecution.getExecutionRuntime().getId()+"-"+rootExecution.getExecutionRuntime().getStateVersion()+"\"";
+	}
+	
+	/**
+	 * Weak comparison as required for <tt>If-None-Match</tt>, i.e. ignoring the <tt>W/</tt> prefix on either side.
+	 */
+	public boolean matches(List<String> ifNoneMatch, String etag) {
+		if(ifNoneMatch==null || ifNoneMatch.isEmpty())
+			return false;
+		
+		String opaque = stripWeak(etag);
+		for(String candidate : ifNoneMatch) {
+			String c = candidate.trim();
+			if("*".equals(c) || opaque.equals(stripWeak(c)))
+				return true;
+		}
+		return false;
+	}
+	
+	private static String stripWeak(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+}
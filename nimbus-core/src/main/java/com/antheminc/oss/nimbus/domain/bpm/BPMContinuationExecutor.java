@@ -0,0 +1,348 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.bpm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.web.context.request.AbstractRequestAttributes;
+import org.springframework.web.context.request.DestructionCallbackBindingListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bounded worker pool continuing business processes off the thread of the command which made them eligible to continue. <br>
+ * 
+ * Continuations are keyed by root execution: at most one continuation per root waits to run, further requests for the same 
+ * root are coalesced into it, and continuations of the same root never run concurrently. A continuation submitted while one 
+ * of its root is running is picked up by the same worker once that one completes, so workers never wait on each other. <br>
+ * 
+ * Each continuation is expected to execute as a regular command, so its state changes go through the usual transaction of 
+ * the root and its change events are collected onto its {@link MultiOutput}, which is kept until {@link #drain(String)} hands 
+ * it to the next command responding for that root. Outputs not drained within <tt>outputTtl</tt>, or beyond 
+ * <tt>maxOutputsPerRoot</tt>, are dropped, see {@link #getDropped()}. <br>
+ * 
+ * The worker does not share the request of the submitting thread, which completes independently. It is bound to request 
+ * attributes of its own, carrying just the session id and the HTTP session, which keeps session scoped lookups working.
+ * When all workers are busy and <tt>queueCapacity</tt> continuations are already waiting, submission is refused so the 
+ * caller can continue synchronously instead; such rejections are counted in {@link #getRejected()}.
+ */
+public class BPMContinuationExecutor {
+	
+	private static final ThreadLocal<Boolean> inContinuation = new ThreadLocal<>();
+	
+	/* marks a root whose continuation is running with none waiting behind it */
+	private static final Continuation NONE_WAITING = new Continuation(null, null);
+	
+	protected final JustLogit logit = new JustLogit(this.getClass());
+	
+	private final ThreadPoolExecutor workers;
+	
+	private final long outputTtlNanos;
+	
+	private final int maxOutputsPerRoot;
+	
+	/* roots with a continuation waiting or running, mapped to the one waiting */
+	private final Map<String, Continuation> roots = new ConcurrentHashMap<>();
+	
+	private final Map<String, CompletedOutputs> completed = new ConcurrentHashMap<>();
+	
+	private final LongAdder rejected = new LongAdder();
+	
+	private final LongAdder dropped = new LongAdder();
+	
+	@RequiredArgsConstructor
+	private static class Continuation {
+		private final Supplier<MultiOutput> work;
+		private final RequestAttributes reqAttributes;
+	}
+	
+	@RequiredArgsConstructor
+	private static class CompletedOutputs {
+		private final List<MultiOutput> outputs = new ArrayList<>();
+		private final long expiresAtNanos;
+		
+		boolean isExpired(long now) {
+			return now - expiresAtNanos >= 0;
+		}
+	}
+	
+	public BPMContinuationExecutor(int threads, int queueCapacity) {
+		this(threads, queueCapacity, 5, TimeUnit.MINUTES, 100);
+	}
+	
+	public BPMContinuationExecutor(int threads, int queueCapacity, long outputTtl, TimeUnit unit, int maxOutputsPerRoot) {
+		AtomicInteger counter = new AtomicInteger();
+		this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), 
+				r->{
+					Thread t = new Thread(r, "nimbus-bpm-continuation-"+counter.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+		this.outputTtlNanos = unit.toNanos(outputTtl);
+		this.maxOutputsPerRoot = maxOutputsPerRoot;
+	}
+	
+	/**
+	 * @param rootKey identifies the root execution whose process is continued
+	 * @param continuation executes the continuation as a command and returns its output
+	 * @return false if the continuation was refused and must be run by the caller
+	 */
+	public boolean submit(String rootKey, Supplier<MultiOutput> continuation) {
+		Continuation submitted = new Continuation(continuation, copyRequestAttributes());
+		
+		// a continuation not yet started observes the latest state anyway
+		AtomicReference<Continuation> scheduled = new AtomicReference<>();
+		roots.compute(rootKey, (k, waiting)->{
+			if(waiting == null)
+				scheduled.set(submitted);
+			
+			return (waiting == null || waiting == NONE_WAITING) ? submitted : waiting;
+		});
+		if(scheduled.get() == null)
+			return true;
+		
+		try {
+			workers.execute(()->run(rootKey));
+			return true;
+			
+		} catch (RejectedExecutionException ex) {
+			roots.remove(rootKey);
+			rejected.increment();
+			logit.warn(()->"Async continuation rejected as all "+workers.getMaximumPoolSize()+" workers are busy and "
+					+workers.getQueue().size()+" continuations are waiting, for root: "+rootKey);
+			return false;
+		}
+	}
+	
+	private void run(String rootKey) {
+		for(Continuation c = takeWaiting(rootKey); c != null; c = takeWaiting(rootKey))
+			run(rootKey, c);
+	}
+	
+	/**
+	 * @return the continuation waiting for the given root, or <tt>null</tt> after releasing the root if none is waiting
+	 */
+	private Continuation takeWaiting(String rootKey) {
+		AtomicReference<Continuation> taken = new AtomicReference<>();
+		roots.computeIfPresent(rootKey, (k, waiting)->{
+			if(waiting == NONE_WAITING)
+				return null;
+			
+			taken.set(waiting);
+			return NONE_WAITING;
+		});
+		return taken.get();
+	}
+	
+	private void run(String rootKey, Continuation continuation) {
+		if(continuation.reqAttributes != null)
+			RequestContextHolder.setRequestAttributes(continuation.reqAttributes);
+		
+		inContinuation.set(Boolean.TRUE);
+		try {
+			MultiOutput output = continuation.work.get();
+			if(output != null)
+				addCompleted(rootKey, output);
+			
+		} catch (RuntimeException ex) {
+			logit.error(()->"Async continuation failed for root: "+rootKey, ex);
+		} finally {
+			inContinuation.remove();
+			if(continuation.reqAttributes instanceof AbstractRequestAttributes)
+				((AbstractRequestAttributes)continuation.reqAttributes).requestCompleted();
+			
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+	
+	private void addCompleted(String rootKey, MultiOutput output) {
+		long now = System.nanoTime();
+		expireCompleted(now);
+		
+		completed.compute(rootKey, (k, outputs)->{
+			CompletedOutputs c = (outputs == null || outputs.isExpired(now)) ? new CompletedOutputs(now + outputTtlNanos) : outputs;
+			if(c.outputs.size() >= maxOutputsPerRoot) {
+				c.outputs.remove(0);
+				dropped.increment();
+			}
+			c.outputs.add(output);
+			return c;
+		});
+	}
+	
+	private void expireCompleted(long now) {
+		completed.entrySet().removeIf(e->{
+			if(!e.getValue().isExpired(now))
+				return false;
+			
+			dropped.add(e.getValue().outputs.size());
+			return true;
+		});
+	}
+	
+	private static RequestAttributes copyRequestAttributes() {
+		RequestAttributes current = RequestContextHolder.getRequestAttributes();
+		if(current == null)
+			return null;
+		
+		Object session = current.resolveReference(RequestAttributes.REFERENCE_SESSION);
+		return new ContinuationRequestAttributes(current.getSessionId(), (session instanceof HttpSession) ? (HttpSession)session : null);
+	}
+	
+	/**
+	 * @return true if the current thread is executing a continuation, which must then complete synchronously
+	 */
+	public boolean isInContinuation() {
+		return inContinuation.get() != null;
+	}
+	
+	/**
+	 * @return outputs of the continuations of the given root completed since the last call, in completion order
+	 */
+	public List<MultiOutput> drain(String rootKey) {
+		CompletedOutputs outputs = completed.remove(rootKey);
+		if(outputs == null)
+			return new ArrayList<>();
+		
+		if(outputs.isExpired(System.nanoTime())) {
+			dropped.add(outputs.outputs.size());
+			return new ArrayList<>();
+		}
+		return outputs.outputs;
+	}
+	
+	public long getRejected() {
+		return rejected.sum();
+	}
+	
+	/**
+	 * @return number of continuation outputs dropped without being drained, as they expired or exceeded the bound per root
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+	
+	public int getActiveCount() {
+		return workers.getActiveCount();
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		workers.shutdown();
+	}
+	
+	/**
+	 * Request attributes of a continuation: request scope is its own, session scope is backed by the HTTP session of the 
+	 * submitting request, if it had one.
+	 */
+	@RequiredArgsConstructor
+	static class ContinuationRequestAttributes extends AbstractRequestAttributes {
+		
+		private final String sessionId;
+		
+		private final HttpSession session;
+		
+		private final Map<String, Object> requestAttributes = new HashMap<>();
+		
+		@Override
+		public Object getAttribute(String name, int scope) {
+			if(scope == SCOPE_REQUEST)
+				return requestAttributes.get(name);
+			
+			try {
+				return session == null ? null : session.getAttribute(name);
+			} catch (IllegalStateException ex) {
+				// session invalidated meanwhile
+				return null;
+			}
+		}
+		
+		@Override
+		public void setAttribute(String name, Object value, int scope) {
+			if(scope == SCOPE_REQUEST)
+				requestAttributes.put(name, value);
+			else if(session != null)
+				session.setAttribute(name, value);
+		}
+		
+		@Override
+		public void removeAttribute(String name, int scope) {
+			if(scope == SCOPE_REQUEST)
+				requestAttributes.remove(name);
+			else if(session != null)
+				session.removeAttribute(name);
+		}
+		
+		@Override
+		public String[] getAttributeNames(int scope) {
+			if(scope == SCOPE_REQUEST)
+				return requestAttributes.keySet().toArray(new String[requestAttributes.size()]);
+			
+			return session == null ? new String[0] : Collections.list(session.getAttributeNames()).toArray(new String[0]);
+		}
+		
+		@Override
+		public void registerDestructionCallback(String name, Runnable callback, int scope) {
+			if(scope == SCOPE_REQUEST)
+				registerRequestDestructionCallback(name, callback);
+			else if(session != null)
+				session.setAttribute(ServletRequestAttributes.DESTRUCTION_CALLBACK_NAME_PREFIX + name, 
+						new DestructionCallbackBindingListener(callback));
+		}
+		
+		@Override
+		public Object resolveReference(String key) {
+			return REFERENCE_SESSION.equals(key) ? session : null;
+		}
+		
+		@Override
+		public String getSessionId() {
+			return sessionId;
+		}
+		
+		@Override
+		public Object getSessionMutex() {
+			return session == null ? this : session;
+		}
+		
+		@Override
+		protected void updateAccessedSessionAttributes() {
+			// session attributes are written through
+		}
+	}
+}
@@ -16,6 +16,8 @@
 package com.antheminc.oss.nimbus.domain.bpm;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 
@@ -32,9 +34,16 @@ public class ProcessEngineContext implements Serializable {
 	private transient Object output;
 	private transient Object input;
 	private transient Param<?> param;
+	/* user tasks entered and not yet left by the engine while executing with this context, kept in memory to avoid querying them back */
+	private transient List<String> activeTasks;
 	public ProcessEngineContext(Param<?> param){
 		this.param = param;
 	}
+	public List<String> getActiveTasks() {
+		if(activeTasks == null)
+			activeTasks = new ArrayList<>();
+		return activeTasks;
+	}
 	public boolean isOutputAnException() {
 		return output != null && output instanceof Exception;
 	}
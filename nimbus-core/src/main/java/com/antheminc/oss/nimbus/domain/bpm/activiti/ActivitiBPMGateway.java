@@ -21,13 +21,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import org.activiti.bpmn.model.ExtensionElement;
-import org.activiti.bpmn.model.UserTask;
 import org.activiti.engine.RuntimeService;
 import org.activiti.engine.TaskService;
 import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.interceptor.CommandExecutor;
 import org.activiti.engine.impl.persistence.deploy.DeploymentManager;
+import org.activiti.engine.impl.persistence.deploy.ProcessDefinitionCacheEntry;
+import org.activiti.engine.impl.persistence.entity.TaskEntity;
 import org.activiti.engine.runtime.ProcessInstance;
 import org.activiti.engine.task.Task;
 import org.activiti.spring.SpringProcessEngineConfiguration;
@@ -37,8 +37,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.antheminc.oss.nimbus.FrameworkRuntimeException;
 import com.antheminc.oss.nimbus.app.extension.config.ActivitiProcessDefinitionCache;
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.bpm.BPMContinuationExecutor;
 import com.antheminc.oss.nimbus.domain.bpm.BPMGateway;
 import com.antheminc.oss.nimbus.domain.bpm.ProcessEngineContext;
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecutorGateway;
 import com.antheminc.oss.nimbus.domain.cmd.exec.ProcessResponse;
 import com.antheminc.oss.nimbus.domain.defn.Constants;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
@@ -46,6 +51,9 @@ import com.antheminc.oss.nimbus.domain.model.state.internal.ExecutionEntity;
 import com.antheminc.oss.nimbus.support.JustLogit;
 import com.antheminc.oss.nimbus.support.expr.ExpressionEvaluator;
 
+import lombok.Getter;
+import lombok.Setter;
+
 /**
  * @author Jayant Chaudhuri
  *
@@ -60,32 +68,58 @@ public class ActivitiBPMGateway implements BPMGateway {
 	
 	@Autowired SpringProcessEngineConfiguration processEngineConfiguration;
 	
+	private final BeanResolverStrategy beanResolver;
+	
 	private ExpressionEvaluator expressionEvaluator;
 	
+	private ActivitiInMemoryProcessExecutor inMemoryProcessExecutor;
+	
+	private BPMContinuationExecutor continuationExecutor;
+	
+	/* execute supported stateless processes in memory instead of through the engine */
+	@Getter @Setter
+	private boolean statelessInMemory;
+	
 	public ActivitiBPMGateway (BeanResolverStrategy beanResolver) {
+		this.beanResolver = beanResolver;
 		this.expressionEvaluator = beanResolver.find(ExpressionEvaluator.class);
+		this.inMemoryProcessExecutor = beanResolver.find(ActivitiInMemoryProcessExecutor.class);
+		this.continuationExecutor = beanResolver.find(BPMContinuationExecutor.class);
 	}
 	
 	@Override
 	public ActivitiProcessFlow startBusinessProcess(Param<?> param, String processId) {
-		ProcessResponse processResponse = startStatlessBusinessProcess(param, processId);
+		ProcessEngineContext context = new ProcessEngineContext(param);
+		ProcessResponse processResponse = startBusinessProcess(context, processId);
 		ActivitiProcessFlow processFlow = new ActivitiProcessFlow();
 		processFlow.setProcessExecutionId(processResponse.getExecutionId());
 		processFlow.setProcessDefinitionId(processResponse.getDefinitionId());
-		List<String> activeTasks = new ArrayList<String>();
-		List<Task> pendingTasks = taskService.createTaskQuery().processInstanceId(processResponse.getExecutionId()).list();
-		if(pendingTasks != null) {
-			for(Task task: pendingTasks) {
-				activeTasks.add(task.getTaskDefinitionKey());
-			}
-		}
-		processFlow.setActiveTasks(activeTasks);
+		
+		// user tasks reached while starting were recorded by the task behavior, no need to query them back
+		processFlow.setActiveTasks(new ArrayList<>(context.getActiveTasks()));
 		return processFlow;
 	}
 	
 	@Override
 	public ProcessResponse startStatlessBusinessProcess(Param<?> param, String processId) {
 		ProcessEngineContext context = new ProcessEngineContext(param);
+		if(!statelessInMemory || inMemoryProcessExecutor == null)
+			return startBusinessProcess(context, processId);
+		
+		ActivitiProcessDefinitionCache cache = (ActivitiProcessDefinitionCache)processEngineConfiguration.getDeploymentManager().getProcessDefinitionCache();
+		refreshProcessDefinitionCacheIfApplicable(processId, cache);
+		ProcessDefinitionCacheEntry entry = cache.findByKey(processId);
+		if(entry == null || !inMemoryProcessExecutor.supports(entry.getProcessDefinition().getId(), entry.getProcess()))
+			return startBusinessProcess(context, processId);
+		
+		inMemoryProcessExecutor.execute(entry.getProcess(), context);
+		ProcessResponse response = new ProcessResponse();
+		response.setResponse(context.getOutput());
+		response.setDefinitionId(entry.getProcessDefinition().getId());
+		return response;
+	}
+	
+	private ProcessResponse startBusinessProcess(ProcessEngineContext context, String processId) {
 		Map<String, Object> executionVariables = new HashMap<String, Object>();
 		executionVariables.put(Constants.KEY_EXECUTE_PROCESS_CTX.code, context);
 		ProcessInstance pi = runtimeService.startProcessInstanceByKey(processId, executionVariables);
@@ -103,66 +137,100 @@ public class ActivitiBPMGateway implements BPMGateway {
 		List<String> activeTasks = processFlow.getActiveTasks();
 		ProcessEngineContext context = new ProcessEngineContext(param);
 		Map<String, Object> executionVariables = new HashMap<String, Object>();
-		executionVariables.put(Constants.KEY_EXECUTE_PROCESS_CTX.code, context);		
-		for(String task: activeTasks){
-			ActivitiProcessDefinitionCache cache = (ActivitiProcessDefinitionCache)deploymentManager.getProcessDefinitionCache();
-			refreshProcessDefinitionCacheIfApplicable(processFlow.getProcessDefinitionId(), cache, param);
-			if(cache.size() == 0) {
-				logit.error(() -> "Could not get ProcessDefinitionCache from either processEngineConfiguration or db query findDeployedLatestProcessDefinitionByKey (which should refresh the cache) while executing param "
-								+ param + " and process Execution Id: " + processExecutionId);
-			}
-			
-			UserTask userTask = (UserTask)cache.findByKey(getProcessKeyFromDefinitionId(processFlow.getProcessDefinitionId(), param)).getProcess().getFlowElementMap().get(task);
-			if(canComplete(param,userTask)) {
-				List<Task> activeTaskInstances = taskService.createTaskQuery().processInstanceId(processExecutionId).taskDefinitionKey(task).list();
-				for(Task activeTaskIntance: activeTaskInstances)
-					taskService.complete(activeTaskIntance.getId(),executionVariables);
-			}
+		executionVariables.put(Constants.KEY_EXECUTE_PROCESS_CTX.code, context);
+		
+		if(CollectionUtils.isEmpty(activeTasks))
+			return context.getOutput();
+		
+		String processDefinitionId = Optional.ofNullable(processFlow.getProcessDefinitionId())
+			.orElseThrow(() -> new FrameworkRuntimeException("Process Definition Id cannot be null while trying to continue the process for param "+param+" execution"));
+		ActivitiProcessDefinitionCache cache = (ActivitiProcessDefinitionCache)deploymentManager.getProcessDefinitionCache();
+		refreshProcessDefinitionCacheByIdIfApplicable(processDefinitionId, cache);
+		if(cache.get(processDefinitionId) == null) {
+			logit.error(() -> "Could not get ProcessDefinitionCache from either processEngineConfiguration or db query findDeployedProcessDefinitionById (which should refresh the cache) while executing param "
+							+ param + " and process Execution Id: " + processExecutionId);
+			throw new FrameworkRuntimeException("Process definition not found for id: "+processDefinitionId+" while continuing process for param: "+param);
 		}
+		
+		if(continueAsync(param, processDefinitionId, cache, activeTasks))
+			return context.getOutput();
+		
+		// all open tasks of the instance in one query, grouped by task definition key
+		Map<String, List<String>> openTaskIds = new HashMap<>();
+		for(Task openTask: taskService.createTaskQuery().processInstanceId(processExecutionId).list())
+			openTaskIds.computeIfAbsent(openTask.getTaskDefinitionKey(), k->new ArrayList<>()).add(openTask.getId());
+		
+		// complete eligible tasks in a single engine command, the nested service calls join its context and transaction
+		processEngineConfiguration.getCommandExecutor().execute((commandContext) -> {
+			for(String task: activeTasks){
+				List<String> taskIds = openTaskIds.get(task);
+				if(CollectionUtils.isEmpty(taskIds) || !canComplete(param, cache.findExitCondition(processDefinitionId, task)))
+					continue;
+				
+				for(String taskId: taskIds) {
+					// skip tasks ended by completing an earlier one
+					TaskEntity taskEntity = commandContext.getTaskEntityManager().findById(taskId);
+					if(taskEntity != null && !taskEntity.isDeleted())
+						taskService.complete(taskId, executionVariables);
+				}
+			}
+			return null;
+		});
 		return context.getOutput();
 	}
 
-	private void refreshProcessDefinitionCacheIfApplicable(String processDefinitionId, ActivitiProcessDefinitionCache cache, Param<?> param) {
-		if(cache.size() == 0) {
+	/**
+	 * Hands off continuation to the {@link BPMContinuationExecutor} when any of the active tasks is marked for asynchronous 
+	 * continuation. The hand-off executes the <tt>_process</tt> command of the root, which continues the process synchronously 
+	 * on the worker within a regular state transaction.
+	 */
+	private boolean continueAsync(Param<?> param, String processDefinitionId, ActivitiProcessDefinitionCache cache, List<String> activeTasks) {
+		if(continuationExecutor == null || continuationExecutor.isInContinuation())
+			return false;
+		
+		if(activeTasks.stream().noneMatch(task->cache.isAsyncContinuation(processDefinitionId, task)))
+			return false;
+		
+		Command rootCmd = param.getRootExecution().getRootCommand();
+		Command continueCmd = CommandBuilder.withUri(rootCmd.getRelativeUri("/_process")).getCommand();
+		return continuationExecutor.submit(param.getRootExecution().getExecutionRuntime().getId(), 
+				()->beanResolver.get(CommandExecutorGateway.class).execute(new CommandMessage(continueCmd, null)));
+	}
+	
+	private void refreshProcessDefinitionCacheIfApplicable(String processKey, ActivitiProcessDefinitionCache cache) {
+		if(cache.findByKey(processKey) == null) {
+			CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutor();
+			if(commandExecutor != null) {
+				commandExecutor.execute((commandContext) -> {
+				          return Context.getProcessEngineConfiguration()
+				                        .getDeploymentManager()
+				                        .findDeployedLatestProcessDefinitionByKey(processKey);
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Loads the version of the process definition an instance was started with, which need not be the latest one, into the cache.
+	 */
+	private void refreshProcessDefinitionCacheByIdIfApplicable(String processDefinitionId, ActivitiProcessDefinitionCache cache) {
+		if(cache.get(processDefinitionId) == null) {
 			CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutor();
 			if(commandExecutor != null) {
 				commandExecutor.execute((commandContext) -> {
 				          return Context.getProcessEngineConfiguration()
 				                        .getDeploymentManager()
-				                        .findDeployedLatestProcessDefinitionByKey(getProcessKeyFromDefinitionId(processDefinitionId, param));
+				                        .findDeployedProcessDefinitionById(processDefinitionId);
 				});
 			}
 		}
 	}
 	
-	private boolean canComplete(Param<?> param, UserTask userTask) {
-		String taskExitCondition = getTaskExitExpression(userTask,"exitCondition");
+	private boolean canComplete(Param<?> param, String taskExitCondition) {
 		if(taskExitCondition != null) {
 			return (Boolean)expressionEvaluator.getValue(taskExitCondition, param);
 		}
 		return true;
 	}
-	
-	private String getTaskExitExpression(UserTask userTask,String extensionName) {
-		String taskExitCondition = userTask.getSkipExpression();
-		if(taskExitCondition != null)
-			return taskExitCondition;
-		Map<String, List<ExtensionElement>> extensionElements = userTask.getExtensionElements();
-		if (extensionElements == null)
-			return null;
-		List<ExtensionElement> extensionElementList = extensionElements.get(extensionName);
-		if (CollectionUtils.isEmpty(extensionElementList))
-			return null;
-		ExtensionElement extensionElement = extensionElementList.get(0);
-		return extensionElement.getElementText();
-	}	
-	
-	
-	private String getProcessKeyFromDefinitionId(String processDefinitionId, Param<?> param) {
-		return Optional.ofNullable(processDefinitionId)
-			.map(id -> id.split(":")[0])
-			.orElseThrow(() -> new FrameworkRuntimeException("Process Definition Id cannot be null while trying to continue the process for param "+param+" execution"));
-		
-	}
 
 }
@@ -15,15 +15,19 @@
  */
 package com.antheminc.oss.nimbus.domain.bpm.activiti;
 
+import java.util.Map;
+
 import javax.el.ArrayELResolver;
 import javax.el.BeanELResolver;
 import javax.el.CompositeELResolver;
+import javax.el.ELContext;
 import javax.el.ELResolver;
 import javax.el.ListELResolver;
 import javax.el.MapELResolver;
 
 import org.activiti.engine.delegate.Expression;
 import org.activiti.engine.delegate.VariableScope;
+import org.activiti.engine.impl.el.ActivitiElContext;
 import org.activiti.engine.impl.el.ExpressionManager;
 import org.activiti.engine.impl.el.JsonNodeELResolver;
 import org.activiti.engine.impl.el.ReadOnlyMapELResolver;
@@ -62,11 +66,32 @@ public class ActivitiExpressionManager extends ExpressionManager implements Appl
 		return expression;
 	}
 	
+	/**
+	 * Evaluates the expression against the given variables instead of an engine variable scope, so that it can be 
+	 * evaluated outside of a running process instance.
+	 * 
+	 * @param expression
+	 * @param variables
+	 * @return
+	 */
+	public Object getValue(String expression, Map<Object, Object> variables) {
+		CompositeELResolver compositeElResolver = new CompositeELResolver();
+		compositeElResolver.add(new ReadOnlyMapELResolver(variables));
+		addElResolvers(compositeElResolver);
+		
+		ELContext elContext = new ActivitiElContext(compositeElResolver);
+		return expressionFactory.createValueExpression(elContext, evaluate(expression.trim()), Object.class).getValue(elContext);
+	}
+	
 	@Override
 	protected ELResolver createElResolver(VariableScope variableScope) {
 	    CompositeELResolver compositeElResolver = new CompositeELResolver();
 	    compositeElResolver.add(new VariableScopeElResolver(variableScope));
+	    addElResolvers(compositeElResolver);
+	    return compositeElResolver;
+	}
 	
+	private void addElResolvers(CompositeELResolver compositeElResolver) {
 	    if (beans != null) {
 	      // Only expose limited set of beans in expressions
 	      compositeElResolver.add(new ReadOnlyMapELResolver(beans));
@@ -80,7 +105,6 @@ public class ActivitiExpressionManager extends ExpressionManager implements Appl
 	    compositeElResolver.add(new MapELResolver());
 	    compositeElResolver.add(new JsonNodeELResolver());
 	    compositeElResolver.add(new BeanELResolver());
-	    return compositeElResolver;
 	}
 	
 	@Override
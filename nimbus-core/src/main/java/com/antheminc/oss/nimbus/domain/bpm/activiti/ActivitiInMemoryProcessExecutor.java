@@ -0,0 +1,219 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.bpm.activiti;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.activiti.bpmn.model.Activity;
+import org.activiti.bpmn.model.EndEvent;
+import org.activiti.bpmn.model.ExclusiveGateway;
+import org.activiti.bpmn.model.FieldExtension;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.FlowNode;
+import org.activiti.bpmn.model.ImplementationType;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SequenceFlow;
+import org.activiti.bpmn.model.ServiceTask;
+import org.activiti.bpmn.model.StartEvent;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.antheminc.oss.nimbus.FrameworkRuntimeException;
+import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.bpm.ProcessEngineContext;
+import com.antheminc.oss.nimbus.domain.defn.Constants;
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+/**
+ * Executes stateless orchestration processes by walking the parsed BPMN model in memory, instead of starting a process 
+ * instance that writes runtime and history rows only to be ended within the same call.
+ * 
+ * <p>Only processes made up of a none start event, none end events, exclusive gateways, conditional sequence flows and 
+ * synchronous service tasks with an expression or a delegate expression resolving to {@link CommandExecutorTaskDelegate} 
+ * are supported. Expressions are evaluated with the {@link ActivitiExpressionManager} against the same variables the 
+ * engine would expose, anything else (listeners, boundary events, multi instance, user tasks, etc.) is left to the engine.
+ * 
+ */
+public class ActivitiInMemoryProcessExecutor {
+	
+	public static final String FIELD_URL = "url";
+	
+	protected final JustLogit logit = new JustLogit(this.getClass());
+	
+	private final ActivitiExpressionManager expressionManager;
+	
+	private final Map<String, Boolean> supportedById = new ConcurrentHashMap<>();
+	
+	public ActivitiInMemoryProcessExecutor(BeanResolverStrategy beanResolver) {
+		this(beanResolver.get(ActivitiExpressionManager.class));
+	}
+	
+	public ActivitiInMemoryProcessExecutor(ActivitiExpressionManager expressionManager) {
+		this.expressionManager = expressionManager;
+	}
+	
+	/**
+	 * @param definitionId deployed process definition id, used to remember the outcome per deployed version
+	 * @param process parsed process model
+	 * @return true if every element of the process can be executed in memory
+	 */
+	public boolean supports(String definitionId, Process process) {
+		return supportedById.computeIfAbsent(definitionId, id->isSupported(process));
+	}
+	
+	public void execute(Process process, ProcessEngineContext context) {
+		Map<Object, Object> variables = new HashMap<>();
+		variables.put(Constants.KEY_EXECUTE_PROCESS_CTX.code, context);
+		
+		FlowElement current = findStartEvent(process);
+		while(current != null && !(current instanceof EndEvent)) {
+			if(current instanceof ServiceTask)
+				executeServiceTask((ServiceTask)current, context, variables);
+			
+			current = leave(process, (FlowNode)current, variables);
+		}
+	}
+	
+	protected void executeServiceTask(ServiceTask serviceTask, ProcessEngineContext context, Map<Object, Object> variables) {
+		if(ImplementationType.IMPLEMENTATION_TYPE_DELEGATEEXPRESSION.equals(serviceTask.getImplementationType())) {
+			CommandExecutorTaskDelegate delegate = (CommandExecutorTaskDelegate)expressionManager.getValue(serviceTask.getImplementation(), variables);
+			delegate.execute(context, findUrls(serviceTask));
+			return;
+		}
+		
+		Object result = expressionManager.getValue(serviceTask.getImplementation(), variables);
+		if(StringUtils.isNotEmpty(serviceTask.getResultVariableName()))
+			variables.put(serviceTask.getResultVariableName(), result);
+	}
+	
+	protected FlowElement leave(Process process, FlowNode node, Map<Object, Object> variables) {
+		List<SequenceFlow> outgoing = node.getOutgoingFlows();
+		if(CollectionUtils.isEmpty(outgoing))
+			return null;
+		
+		if(node instanceof ExclusiveGateway) {
+			String defaultFlow = ((ExclusiveGateway)node).getDefaultFlow();
+			SequenceFlow selected = outgoing.stream()
+					.filter(flow->!flow.getId().equals(defaultFlow) && isConditionSatisfied(flow, variables))
+					.findFirst()
+					.orElseGet(()->outgoing.stream().filter(flow->flow.getId().equals(defaultFlow)).findFirst().orElse(null));
+			
+			if(selected == null)
+				throw new FrameworkRuntimeException("No outgoing sequence flow of exclusive gateway "+node.getId()+" could be selected in process "+process.getId());
+			
+			return process.getFlowElement(selected.getTargetRef());
+		}
+		
+		// single outgoing flow, which the engine fails to leave by when its condition isn't satisfied
+		SequenceFlow flow = outgoing.get(0);
+		if(!isConditionSatisfied(flow, variables))
+			throw new FrameworkRuntimeException("No outgoing sequence flow of element "+node.getId()+" could be selected in process "+process.getId());
+		
+		return process.getFlowElement(flow.getTargetRef());
+	}
+	
+	private boolean isConditionSatisfied(SequenceFlow flow, Map<Object, Object> variables) {
+		if(StringUtils.isEmpty(flow.getConditionExpression()))
+			return true;
+		
+		return Boolean.TRUE.equals(expressionManager.getValue(flow.getConditionExpression(), variables));
+	}
+	
+	private String findUrls(ServiceTask serviceTask) {
+		for(FieldExtension field : serviceTask.getFieldExtensions()) {
+			if(FIELD_URL.equals(field.getFieldName()))
+				return StringUtils.isNotEmpty(field.getStringValue()) ? field.getStringValue() : field.getExpression();
+		}
+		throw new FrameworkRuntimeException("Field "+FIELD_URL+" not found on service task "+serviceTask.getId());
+	}
+	
+	private StartEvent findStartEvent(Process process) {
+		return process.findFlowElementsOfType(StartEvent.class, false).get(0);
+	}
+	
+	protected boolean isSupported(Process process) {
+		if(CollectionUtils.isNotEmpty(process.getExecutionListeners()))
+			return false;
+		
+		if(process.findFlowElementsOfType(StartEvent.class, false).size() != 1)
+			return false;
+		
+		for(FlowElement element : process.getFlowElements()) {
+			if(!isSupported(element)) {
+				logit.debug(()->"Process "+process.getId()+" will be executed by the engine, element "+element.getId()+" is not supported in memory");
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	protected boolean isSupported(FlowElement element) {
+		if(CollectionUtils.isNotEmpty(element.getExecutionListeners()))
+			return false;
+		
+		if(element instanceof SequenceFlow)
+			return StringUtils.isEmpty(((SequenceFlow)element).getSkipExpression());
+		
+		if(element instanceof StartEvent)
+			return CollectionUtils.isEmpty(((StartEvent)element).getEventDefinitions()) && isSequential((FlowNode)element);
+		
+		if(element instanceof EndEvent)
+			return CollectionUtils.isEmpty(((EndEvent)element).getEventDefinitions());
+		
+		if(element instanceof ExclusiveGateway)
+			return !((FlowNode)element).isAsynchronous();
+		
+		if(element instanceof ServiceTask)
+			return isSupported((ServiceTask)element);
+		
+		return false;
+	}
+	
+	private boolean isSupported(ServiceTask serviceTask) {
+		if(StringUtils.isNotEmpty(serviceTask.getType()) || StringUtils.isNotEmpty(serviceTask.getSkipExpression()))
+			return false;
+		
+		if(!isSequential(serviceTask))
+			return false;
+		
+		if(ImplementationType.IMPLEMENTATION_TYPE_EXPRESSION.equals(serviceTask.getImplementationType()))
+			return true;
+		
+		if(ImplementationType.IMPLEMENTATION_TYPE_DELEGATEEXPRESSION.equals(serviceTask.getImplementationType())) {
+			try {
+				return expressionManager.getValue(serviceTask.getImplementation(), new HashMap<>()) instanceof CommandExecutorTaskDelegate;
+			} catch (RuntimeException ex) {
+				return false;
+			}
+		}
+		return false;
+	}
+	
+	private boolean isSequential(FlowNode node) {
+		if(node.isAsynchronous() || node.getOutgoingFlows().size() > 1)
+			return false;
+		
+		if(node instanceof Activity) {
+			Activity activity = (Activity)node;
+			return activity.getLoopCharacteristics() == null && CollectionUtils.isEmpty(activity.getBoundaryEvents());
+		}
+		return true;
+	}
+	
+}
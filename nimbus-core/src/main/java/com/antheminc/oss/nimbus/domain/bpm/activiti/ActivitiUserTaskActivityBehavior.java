@@ -146,6 +146,8 @@ public class ActivitiUserTaskActivityBehavior extends UserTaskActivityBehavior {
 	
 	private void addActiveTask(DelegateExecution execution) {
 		ProcessEngineContext context = getProcessEngineContext(execution);
+		context.getActiveTasks().add(userTask.getId());
+		
 		ActivitiProcessFlow processFlow = (ActivitiProcessFlow)((ExecutionEntity<?,?>)context.getParam().getRootExecution().getState()).getFlow();
 		if(processFlow == null)
 			return;
@@ -160,6 +162,8 @@ public class ActivitiUserTaskActivityBehavior extends UserTaskActivityBehavior {
 	
 	private void removeActiveTask(DelegateExecution execution) {
 		ProcessEngineContext context = getProcessEngineContext(execution);
+		context.getActiveTasks().remove(userTask.getId());
+		
 		ActivitiProcessFlow processFlow = (ActivitiProcessFlow)((ExecutionEntity<?,?>)context.getParam().getRootExecution().getState()).getFlow();
 		if(processFlow == null)
 			return;
@@ -52,8 +52,18 @@ public class CommandExecutorTaskDelegate implements JavaDelegate{
 	
 	@Override
 	public void execute(DelegateExecution execution) {
-		String[] commandUrls = url.getExpressionText().split("\\r?\\n");
 		ProcessEngineContext context = (ProcessEngineContext)execution.getVariable(Constants.KEY_EXECUTE_PROCESS_CTX.code);
+		execute(context, url.getExpressionText());
+	}
+	
+	/**
+	 * Executes the newline separated command urls against the given context, without requiring a process execution.
+	 * 
+	 * @param context
+	 * @param urls
+	 */
+	public void execute(ProcessEngineContext context, String urls) {
+		String[] commandUrls = urls.split("\\r?\\n");
 		MultiOutput output = null;
 		for(String commandUrl: commandUrls){
 			commandUrl = resolveCommandUrl(context,commandUrl);
@@ -16,7 +16,6 @@
 package com.antheminc.oss.nimbus.domain.cmd;
 
 import java.io.Serializable;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -49,7 +48,24 @@ public class CommandMessage implements Serializable {
 	}
 	
 	public boolean hasPayload() {
-		return StringUtils.trimToNull(getRawPayload()) != null && !Pattern.matches(EMPTY_JSON_REGEX, getRawPayload());
+		return StringUtils.trimToNull(getRawPayload()) != null && !isEmptyJsonObject(getRawPayload());
+	}
+	
+	/**
+	 * Same as matching {@link #EMPTY_JSON_REGEX}, i.e. <tt>{}</tt> with only whitespace in between, without running a regex 
+	 * over every payload.
+	 */
+	public static boolean isEmptyJsonObject(String json) {
+		int last = json.length() - 1;
+		if(last < 1 || json.charAt(0)!='{' || json.charAt(last)!='}')
+			return false;
+		
+		for(int i=1; i<last; i++) {
+			char c = json.charAt(i);
+			if(c!=' ' && c!='\t' && c!='\n' && c!='\u000B' && c!='\f' && c!='\r')
+				return false;
+		}
+		return true;
 	}
 	
 	@Override
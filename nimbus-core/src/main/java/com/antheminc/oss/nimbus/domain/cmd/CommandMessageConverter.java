@@ -15,49 +15,77 @@
  */
 package com.antheminc.oss.nimbus.domain.cmd;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com.antheminc.oss.nimbus.FrameworkRuntimeException;
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
 import com.antheminc.oss.nimbus.domain.model.config.ParamConfig;
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 /**
+ * Converts command payloads to and from JSON. <br>
+ * 
+ * Readers are resolved once per Jackson type and reused across commands. They are keyed by the type rather than by 
+ * {@link ParamConfig}, as configs of execution models are built per quad and would otherwise accumulate a reader each.
+ * 
  * @author Soham Chakravarti
  *
  */
 public class CommandMessageConverter {
 	
-	public static final String EMPTY_JSON_REGEX = "(^\\{\\s*\\}$)";
+	public static final String EMPTY_JSON_REGEX = CommandMessage.EMPTY_JSON_REGEX;
 	
 	private final ObjectMapper om;
 	
+	private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+	
 	public CommandMessageConverter(BeanResolverStrategy beanResolver) {
 		this.om = beanResolver.get(ObjectMapper.class);
 	}
+	
+	protected boolean isEmpty(String json) {
+		return StringUtils.isEmpty(json) || CommandMessage.isEmptyJsonObject(json);
+	}
+	
+	protected ObjectReader readerFor(ParamConfig<?> pConfig) {
+		return readerFor(resolveType(pConfig));
+	}
+	
+	protected ObjectReader readerFor(Class<?> clazz) {
+		return readerFor(om.getTypeFactory().constructType(clazz));
+	}
+	
+	protected ObjectReader readerFor(JavaType type) {
+		return readers.computeIfAbsent(type, om::readerFor);
+	}
+	
+	protected JavaType resolveType(ParamConfig<?> pConfig) {
+		if(pConfig.getType().isCollection())
+			return om.getTypeFactory().constructCollectionType(List.class, pConfig.getType().findIfCollection().getElementConfig().getReferredClass());
+		
+		if(pConfig.getType().isArray())
+			return om.getTypeFactory().constructArrayType(pConfig.getReferredClass());
+		
+		return om.getTypeFactory().constructType(pConfig.getReferredClass());
+	}
 
 	public Object read(ParamConfig<?> pConfig, String json) {
-		if(StringUtils.isEmpty(json) || Pattern.matches(EMPTY_JSON_REGEX, json)) 
+		if(isEmpty(json)) 
 			return null;
 		
 		try {
-			final Object model;
-											
-			if(pConfig.getType().isCollection())
-				model = om.readValue(json, om.getTypeFactory().constructCollectionType(List.class, pConfig.getType().findIfCollection().getElementConfig().getReferredClass()));
-			
-			else if(pConfig.getType().isArray())
-				model = om.readValue(json, om.getTypeFactory().constructArrayType(pConfig.getReferredClass()));
-			
-			else
-				model = om.readValue(json, pConfig.getReferredClass());
-											
-			return model;
+			return readerFor(pConfig).readValue(json);
 			
 		} catch (Exception ex) {
 			throw new FrameworkRuntimeException("Failed to convert from JSON to instance of "+pConfig
@@ -66,26 +94,18 @@ public class CommandMessageConverter {
 	}
 	
 	
+	@SuppressWarnings("unchecked")
 	public <T> T read(ParamConfig<?> pConfig, String json, T existingEntityToUpdate) {
-		if(StringUtils.isEmpty(json) || Pattern.matches(EMPTY_JSON_REGEX, json)) 
+		if(isEmpty(json)) 
 			return null;
 		
 		try {
 			final Object model;
-											
-			if(pConfig.getType().isCollection())
-				model = om.readValue(json, om.getTypeFactory().constructCollectionType(List.class, pConfig.getType().findIfCollection().getElementConfig().getReferredClass()));
 			
-			else if(pConfig.getType().isArray())
-				model = om.readValue(json, om.getTypeFactory().constructArrayType(pConfig.getReferredClass()));
-			
-			else {
-				if (!pConfig.isLeaf()) {
-					model = om.readerForUpdating(existingEntityToUpdate).readValue(json);
-				} else {
-					model = om.readValue(json, pConfig.getReferredClass());
-				}
-			}
+			if(!pConfig.getType().isCollection() && !pConfig.getType().isArray() && !pConfig.isLeaf())
+				model = readerFor(pConfig).withValueToUpdate(existingEntityToUpdate).readValue(json);
+			else
+				model = readerFor(pConfig).readValue(json);
 											
 			return (T)model;
 			
@@ -95,12 +115,65 @@ public class CommandMessageConverter {
 		}
 	}
 	
+	/**
+	 * Streams the <tt>json</tt> object onto the nested params of <tt>param</tt>, setting each leaf, collection or array 
+	 * value as it is read, instead of first reading the whole payload into an object graph and then setting that. 
+	 * Fields missing from the payload are left untouched, same as {@link #read(ParamConfig, String, Object)}, and fields with 
+	 * no matching param are skipped. <br>
+	 * 
+	 * All values are applied as one state change of <tt>param</tt>, see {@link Param#applyChanges(java.util.function.Supplier)}.
+	 * 
+	 * @return the resulting action on <tt>param</tt>, or <tt>null</tt> if the payload was empty or did not change its state 
+	 */
+	@SuppressWarnings("unchecked")
+	public Action apply(Param<?> param, String json) {
+		if(isEmpty(json))
+			return null;
+		
+		Param<Object> p = (Param<Object>)param;
+		try (JsonParser jp = om.getFactory().createParser(json)) {
+			jp.nextToken();
+			return p.applyChanges(()->applyValue(jp, p, json));
+			
+		} catch (IOException ex) {
+			throw new FrameworkRuntimeException("Failed to apply JSON onto param: "+param.getPath()
+					+"\n json:\n"+json, ex);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected Action applyValue(JsonParser jp, Param<Object> p, String json) {
+		try {
+			if(jp.getCurrentToken()!=JsonToken.START_OBJECT || !p.isNested() || p.isCollection() || p.isLeaf())
+				return p.setState(readerFor(p.getConfig()).readValue(jp));
+			
+			Action result = null;
+			while(jp.nextToken()==JsonToken.FIELD_NAME) {
+				Param<Object> child = (Param<Object>)p.findIfNested().templateParams().find(jp.getCurrentName());
+				jp.nextToken();
+				
+				if(child==null) {
+					jp.skipChildren();
+					continue;
+				}
+				
+				if(applyValue(jp, child, json)!=null)
+					result = Action._update;
+			}
+			return result;
+			
+		} catch (IOException ex) {
+			throw new FrameworkRuntimeException("Failed to apply JSON onto param: "+p.getPath()
+					+"\n json:\n"+json, ex);
+		}
+	}
+	
 	public <T> T read(Class<T> clazz, String json) {
-		if(StringUtils.isEmpty(json) || Pattern.matches(EMPTY_JSON_REGEX, json)) 
+		if(isEmpty(json)) 
 			return null;
 		
 		try {
-			T model = om.readValue(json, clazz);
+			T model = readerFor(clazz).readValue(json);
 			return model;
 			
 		} catch (Exception ex) {
@@ -110,7 +183,7 @@ public class CommandMessageConverter {
 	}
 	
 	public List readArray(Class<?> elemClazz, Class<? extends Collection> collClazz, String json) {
-		if(StringUtils.isEmpty(json) || Pattern.matches(EMPTY_JSON_REGEX, json)) 
+		if(isEmpty(json)) 
 			return null;
 		
 		try {
@@ -17,6 +17,8 @@ package com.antheminc.oss.nimbus.domain.cmd.exec;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import com.antheminc.oss.nimbus.InvalidConfigException;
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
@@ -31,6 +33,7 @@ import com.antheminc.oss.nimbus.domain.model.state.InvalidStateException;
 import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
 import com.antheminc.oss.nimbus.domain.session.SessionProvider;
 import com.antheminc.oss.nimbus.support.JustLogit;
+import com.antheminc.oss.nimbus.support.metrics.MetricsRegistry;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -47,10 +50,44 @@ public class BaseCommandExecutorStrategies {
 	private final HierarchyMatchBasedBeanFinder hierarchyMatchBeanLoader;
 	
 	protected final JustLogit logit = new JustLogit(this.getClass());
+	
+	private MetricsRegistry metricsRegistry;
 
 	public BaseCommandExecutorStrategies(BeanResolverStrategy beanResolver) {
 		this.beanResolver = beanResolver;
 		this.hierarchyMatchBeanLoader = beanResolver.get(HierarchyMatchBasedBeanFinder.class);
+		// optional, commands are executed untimed when not configured
+		this.metricsRegistry = beanResolver.find(MetricsRegistry.class, "metricsRegistry");
+	}
+	
+	/**
+	 * Runs the work and records its duration under the given metric, tagged by the command's domain alias, action, 
+	 * behavior and outcome. Failures are also counted under <tt>{metric}.errors</tt>, tagged by exception type.
+	 * 
+	 * @param b behavior being executed, or null to tag with all behaviors of the command
+	 */
+	protected <R> R timed(String metric, Command cmd, Behavior b, Supplier<R> work) {
+		if(metricsRegistry == null)
+			return work.get();
+		
+		final String behavior = b != null ? b.name() : cmd.getBehaviors().stream().map(Behavior::name).collect(Collectors.joining(","));
+		
+		long start = System.nanoTime();
+		String outcome = MetricsRegistry.OUTCOME_FAILURE;
+		try {
+			R result = work.get();
+			outcome = MetricsRegistry.OUTCOME_SUCCESS;
+			return result;
+			
+		} catch (RuntimeException ex) {
+			metricsRegistry.increment(metric+".errors", MetricsRegistry.TAG_DOMAIN, cmd.getRootDomainAlias(), MetricsRegistry.TAG_ACTION, cmd.getAction().name(), 
+					MetricsRegistry.TAG_BEHAVIOR, behavior, MetricsRegistry.TAG_EXCEPTION, ex.getClass().getSimpleName());
+			throw ex;
+			
+		} finally {
+			metricsRegistry.recordTime(metric, System.nanoTime() - start, MetricsRegistry.TAG_DOMAIN, cmd.getRootDomainAlias(), MetricsRegistry.TAG_ACTION, cmd.getAction().name(), 
+					MetricsRegistry.TAG_BEHAVIOR, behavior, MetricsRegistry.TAG_OUTCOME, outcome);
+		}
 	}
 	
 	protected Param<?> getRootDomainParam(ExecutionContext eCtx) {
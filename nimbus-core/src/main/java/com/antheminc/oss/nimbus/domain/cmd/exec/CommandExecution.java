@@ -28,7 +28,10 @@ import com.antheminc.oss.nimbus.domain.cmd.Action;
 import com.antheminc.oss.nimbus.domain.cmd.Behavior;
 import com.antheminc.oss.nimbus.domain.model.state.ParamEvent;
 import com.antheminc.oss.nimbus.support.pojo.CollectionsTemplate;
+import com.antheminc.oss.nimbus.support.trace.TraceNode;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -138,6 +141,11 @@ public final class CommandExecution {
 		@Getter @Setter 
 		private List<Output<?>> outputs;
 		
+		/* execution trace, only populated for top level commands requesting it, see Constants#REQ_TRACE_MARKER */
+		@JsonInclude(Include.NON_NULL)
+		@Getter @Setter
+		private TraceNode trace;
+		
 		public MultiOutput(String inputCommandUri, ExecutionContext context, Action action, Behavior b) {
 			super(inputCommandUri, context, action, b);
 		}
@@ -36,6 +36,11 @@ public interface CommandExecutorGateway {
 	
 	MultiOutput execute(CommandMessage cmdMsg);
 	
+	/**
+	 * Executes the commands in the given order as one batch, returning the outputs of all commands combined.
+	 */
+	MultiOutput execute(List<CommandMessage> cmdMsgs);
+	
 	List<MultiOutput> executeConfig(ExecutionContext eCtx, Param<?> cmdParam, List<Execution.Config> execConfigs);
 	
 }
@@ -19,8 +19,11 @@ import java.io.Serializable;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.antheminc.oss.nimbus.domain.cmd.Action;
 import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandElement.Type;
 import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
+import com.antheminc.oss.nimbus.domain.defn.Constants;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.ExecutionModel;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
@@ -74,6 +77,27 @@ public class ExecutionContext implements Serializable {
 		return getRootModel().findStateByPath(path);
 	}
 	
+	/**
+	 * Resolves the param which a plain <tt>_get</tt> of the given command would return, without executing the command.
+	 * 
+	 * @return the param, or <tt>null</tt> if the command is not a <tt>_get</tt> without function on the root domain of this 
+	 * context and needs to be executed
+	 */
+	@SuppressWarnings("unchecked")
+	public <P> Param<P> findParamIfLocalGet(Command cmd) {
+		if(getQuadModel() == null || cmd.getAction() != Action._get || cmd.getFirstParameterValue(Constants.KEY_FUNCTION.code) != null)
+			return null;
+		
+		if(!equalsId(cmd))
+			return null;
+		
+		if(cmd.isRootDomainOnly())
+			return (Param<P>)getQuadModel().getView().getAssociatedParam();
+		
+		String path = cmd.buildAlias(cmd.getElement(Type.DomainAlias).get().next());
+		return getQuadModel().getView().findParamByPath(path);
+	}
+	
 	@Override
 	public boolean equals(Object other) {
 		if(other==null)
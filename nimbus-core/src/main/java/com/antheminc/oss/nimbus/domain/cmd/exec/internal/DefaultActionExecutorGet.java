@@ -15,7 +15,10 @@
  */
 package com.antheminc.oss.nimbus.domain.cmd.exec.internal;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -32,6 +35,7 @@ import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecutorGateway;
 import com.antheminc.oss.nimbus.domain.cmd.exec.ExecutionContext;
 import com.antheminc.oss.nimbus.domain.cmd.exec.FunctionHandler;
 import com.antheminc.oss.nimbus.domain.config.builder.DomainConfigBuilder;
+import com.antheminc.oss.nimbus.domain.defn.Constants;
 import com.antheminc.oss.nimbus.domain.defn.Repo;
 import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
@@ -97,13 +101,17 @@ public class DefaultActionExecutorGet extends AbstractFunctionCommandExecutor<Pa
 		final String refId = eCtx.getCommandMessage().getCommand().getRefId(Type.DomainAlias);
 		
 		final Object entity;
+		Set<String> projection = null;
 		final Repo repo = rootDomainConfig.getRepo();
 		final String resolvedRepAlias = resolveEntityAliasByRepo(rootDomainConfig);
 		
 		// db - entity
 		if(Repo.Database.exists(repo) && StringUtils.isNotBlank(refId)) { // root (view or core) is persistent
+			// core loaded on behalf of a mapped view: fetch only the fields reached by the view
+			projection = domainConfigBuilder.findMappedCoreProjection(eCtx.getCommandMessage().getCommand(), rootDomainConfig);
+			
 			entity = getRepositoryFactory().get(rootDomainConfig.getRepo())
-						._get(refId, rootDomainConfig.getReferredClass(), resolvedRepAlias, eCtx.getCommandMessage().getCommand().getAbsoluteUri());
+						._get(refId, rootDomainConfig.getReferredClass(), resolvedRepAlias, eCtx.getCommandMessage().getCommand().getAbsoluteUri(), projection);
 			
 		} else {
 			entity = instantiateEntity(eCtx, rootDomainConfig);
@@ -115,14 +123,25 @@ public class DefaultActionExecutorGet extends AbstractFunctionCommandExecutor<Pa
 		// create quad-model
 		ExecutionEntity<?, ?> e = ExecutionEntity.resolveAndInstantiate(entity, null);
 		
-		return getQuadModelBuilder().build(eCtx.getCommandMessage().getCommand(), e);
+		QuadModel<?, ?> q = getQuadModelBuilder().build(eCtx.getCommandMessage().getCommand(), e);
+		
+		// kept with the state, as later commands on it don't carry the view marker the core was requested with
+		q.getRoot().setLoadedProjection(projection);
+		return q;
 	}
 
 	protected QuadModel<?, ?> handleMapped(ModelConfig<?> rootDomainConfig, ExecutionContext eCtx, Object mapped, Action action) {
 		ModelConfig<?> mapsToConfig = rootDomainConfig.findIfMapped().getMapsToConfig();
 
 		// create mapsTo command and invoke command gateway to load coreParam
-		Command mapsToCmd = CommandBuilder.from(eCtx.getCommandMessage().getCommand(), mapsToConfig.getAlias()).getCommand();
+		CommandBuilder mapsToCmdBuilder = CommandBuilder.from(eCtx.getCommandMessage().getCommand(), mapsToConfig.getAlias());
+		if(action==Action._get && domainConfigBuilder.isProjectable(mapsToConfig) && domainConfigBuilder.getMappedCoreProjection(rootDomainConfig.getAlias())!=null) {
+			Map<String, String[]> rParams = new HashMap<>();
+			rParams.put(Constants.GET_REQ_PROJECT_VIEW_MARKER.code, new String[] {rootDomainConfig.getAlias()});
+			mapsToCmdBuilder.addParams(rParams);
+		}
+		
+		Command mapsToCmd = mapsToCmdBuilder.getCommand();
 		mapsToCmd.setAction(action);
 		
 		Param<?> coreParam = Optional.ofNullable(commandGateway.execute(mapsToCmd, null))
@@ -23,12 +23,22 @@ import com.antheminc.oss.nimbus.domain.cmd.exec.ExecutionContext;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.ListParam;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 
+import lombok.Getter;
+import lombok.Setter;
+
 /**
  * @author Rakesh Patel
  *
  */
+@Getter @Setter
 public class DefaultActionExecutorUpdate extends AbstractCommandExecutor<Boolean> {
 
+	/**
+	 * When enabled, payloads for nested params are streamed field by field onto the nested params, 
+	 * instead of being read into a full copy of the existing state first, see {@link com.antheminc.oss.nimbus.domain.cmd.CommandMessageConverter#apply}.
+	 */
+	private boolean streamPayload;
+
 	public DefaultActionExecutorUpdate(BeanResolverStrategy beanResolver) {
 		super(beanResolver);
 	}
@@ -58,6 +68,11 @@ public class DefaultActionExecutorUpdate extends AbstractCommandExecutor<Boolean
 	}
 	
 	protected void handleParam(ExecutionContext eCtx, Param<Object> p) {
+		if(isStreamPayload() && p.isNested() && !p.isLeaf()) {
+			getConverter().apply(p, eCtx.getCommandMessage().getRawPayload());
+			return;
+		}
+		
 		// existing entity state
 		Object existing = p.getLeafState();
 		
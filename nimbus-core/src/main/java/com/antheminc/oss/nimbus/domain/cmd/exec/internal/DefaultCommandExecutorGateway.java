@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import javax.annotation.PostConstruct;
 
@@ -35,6 +36,7 @@ import com.antheminc.oss.nimbus.FrameworkRuntimeException;
 import com.antheminc.oss.nimbus.InvalidArgumentException;
 import com.antheminc.oss.nimbus.InvalidConfigException;
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.bpm.BPMContinuationExecutor;
 import com.antheminc.oss.nimbus.domain.cmd.Behavior;
 import com.antheminc.oss.nimbus.domain.cmd.Command;
 import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
@@ -63,6 +65,13 @@ import com.antheminc.oss.nimbus.domain.model.state.InvalidStateException;
 import com.antheminc.oss.nimbus.domain.model.state.ParamEvent;
 import com.antheminc.oss.nimbus.domain.model.state.StateEventListener;
 import com.antheminc.oss.nimbus.domain.model.state.internal.BaseStateEventListener;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents.Span;
+import com.antheminc.oss.nimbus.support.trace.ExecutionTracer;
+import com.antheminc.oss.nimbus.support.trace.TraceNode;
+
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * @author Soham Chakravarti
@@ -70,6 +79,10 @@ import com.antheminc.oss.nimbus.domain.model.state.internal.BaseStateEventListen
  */
 public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies implements CommandExecutorGateway {
 	
+	public static final String METRIC_COMMAND = "nimbus.command";
+	
+	public static final String METRIC_COMMAND_EXECUTOR = "nimbus.command.executor";
+	
 	@SuppressWarnings("rawtypes")
 	private final Map<String, CommandExecutor> executors;
 	
@@ -81,8 +94,14 @@ public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies
 	
 	private DomainConfigBuilder domainConfigBuilder;
 	
+	private BPMContinuationExecutor continuationExecutor;
+	
 	private static final ThreadLocal<String> cmdScopeInThread = new ThreadLocal<>();
 	
+	/* when set, top level commands passing Constants#REQ_TRACE_MARKER=true get their execution trace returned on the MultiOutput */
+	@Getter @Setter
+	private boolean traceEnabled;
+	
 	public DefaultCommandExecutorGateway(BeanResolverStrategy beanResolver) {
 		super(beanResolver);
 		
@@ -95,6 +114,7 @@ public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies
 		this.pathVariableResolver = getBeanResolver().get(CommandPathVariableResolver.class);
 		this.eCtxPathVariableResolver = getBeanResolver().get(ExecutionContextPathVariableResolver.class);
 		this.domainConfigBuilder = getBeanResolver().get(DomainConfigBuilder.class);
+		this.continuationExecutor = getBeanResolver().find(BPMContinuationExecutor.class);
 	}
 
 	
@@ -104,9 +124,94 @@ public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies
 		// validate
 		validateCommand(cmdMsg);
 		
+		final Command cmd = cmdMsg.getCommand();
+		Span jfr = FlightRecorderEvents.begin(FlightRecorderEvents.Type.COMMAND);
+		try {
+			if(!ExecutionTracer.isActive() && isTraceRequested(cmd))
+				return executeTraced(cmdMsg);
+			
+			return ExecutionTracer.span(ExecutionTracer.CATEGORY_COMMAND, cmd.getAction().name(), cmd.getAbsoluteUri(), 
+					()->timed(METRIC_COMMAND, cmd, null, ()->executeWithContext(cmdMsg)));
+		} finally {
+			jfr.end(cmd.getAbsoluteUri(), cmd.getAction().name());
+		}
+	}
+	
+	protected boolean isTraceRequested(Command cmd) {
+		return isTraceEnabled() && Boolean.parseBoolean(cmd.getFirstParameterValue(Constants.REQ_TRACE_MARKER.code));
+	}
+	
+	private MultiOutput executeTraced(CommandMessage cmdMsg) {
+		final Command cmd = cmdMsg.getCommand();
+		TraceNode trace = ExecutionTracer.start(ExecutionTracer.CATEGORY_COMMAND, cmd.getAction().name(), cmd.getAbsoluteUri());
+		
+		Throwable failure = null;
+		try {
+			MultiOutput mOutput = timed(METRIC_COMMAND, cmd, null, ()->executeWithContext(cmdMsg));
+			mOutput.setTrace(trace);
+			return mOutput;
+			
+		} catch (RuntimeException | Error ex) {
+			failure = ex;
+			throw ex;
+		} finally {
+			ExecutionTracer.stop(trace, failure);
+		}
+	}
+	
+	/**
+	 * Executes the commands in order within a single root command scope, so listeners acting on root command completion, 
+	 * e.g. batch persistence and client updates, run once for the whole batch instead of once per command. Each command still 
+	 * completes its state changes, rules and notifications before the next one runs, so later commands observe the effects of 
+	 * earlier ones. Execution stops at the first failing command. <br>
+	 * 
+	 * All commands must target the root domain of the first one, whose execution context is loaded once for the batch. The root's 
+	 * lock is taken by each command's state changes only, as for single commands, so that rules, processes and nested commands 
+	 * reaching other roots don't run under it. Batches that must not interleave with other commands on the root are to be 
+	 * serialized by the caller, e.g. {@link com.antheminc.oss.nimbus.channel.web.WebAsyncCommandExecutor}.
+	 */
+	@Override
+	public MultiOutput execute(List<CommandMessage> cmdMsgs) {
+		if(CollectionUtils.isEmpty(cmdMsgs))
+			throw new InvalidArgumentException("Command batch must contain at least one command for Gateway to process request");
+		
+		cmdMsgs.stream().forEach(this::validateCommand);
+		
+		final CommandMessage firstCmdMsg = cmdMsgs.get(0);
+		final String rootDomainUri = firstCmdMsg.getCommand().getRootDomainUri();
+		cmdMsgs.stream()
+			.filter(cmdMsg->!StringUtils.equals(rootDomainUri, cmdMsg.getCommand().getRootDomainUri()))
+			.findFirst()
+			.ifPresent(cmdMsg->{
+				throw new InvalidArgumentException("Commands in a batch must target the same root domain: "+rootDomainUri
+						+", but found: "+cmdMsg.getCommand().getAbsoluteUri());
+			});
+		
+		ExecutionContext eCtx = loadExecutionContext(firstCmdMsg);
+		
+		return executeInRootScope(eCtx, firstCmdMsg, ()->{
+			MultiOutput mOutput = new MultiOutput(firstCmdMsg.getCommand().getAbsoluteUri(), eCtx, firstCmdMsg.getCommand().getAction(), firstCmdMsg.getCommand().getBehaviors());
+			
+			for(CommandMessage cmdMsg : cmdMsgs) {
+				final Command cmd = cmdMsg.getCommand();
+				final ExecutionContext cmdCtx = new ExecutionContext(cmdMsg, eCtx.getQuadModel());
+				
+				MultiOutput mOut = ExecutionTracer.span(ExecutionTracer.CATEGORY_COMMAND, cmd.getAction().name(), cmd.getAbsoluteUri(), 
+						()->timed(METRIC_COMMAND, cmd, null, ()->executeInternal(cmdCtx, cmdMsg)));
+				addMultiOutput(mOutput, mOut);
+			}
+			return mOutput;
+		});
+	}
+	
+	private MultiOutput executeWithContext(CommandMessage cmdMsg) {
 		// load execution context 
 		ExecutionContext eCtx = loadExecutionContext(cmdMsg);
 		
+		return executeInRootScope(eCtx, cmdMsg, ()->executeInternal(eCtx, cmdMsg));
+	}
+	
+	private MultiOutput executeInRootScope(ExecutionContext eCtx, CommandMessage cmdMsg, Supplier<MultiOutput> work) {
 		final String lockId;
 		
 		if(cmdScopeInThread.get()==null) {
@@ -119,7 +224,11 @@ public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies
 		}
 		
 		try {
-			return executeInternal(eCtx, cmdMsg);
+			MultiOutput mOutput = work.get();
+			if(lockId!=null)
+				addContinuationOutputs(eCtx, mOutput);
+			
+			return mOutput;
 		} finally {
 			if(lockId!=null) {
 				eCtx.getRootModel().getExecutionRuntime().onStopRootCommandExecution(cmdMsg.getCommand());
@@ -128,6 +237,21 @@ public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies
 		}
 	}
 	
+	/**
+	 * Appends the outputs of process continuations completed asynchronously since the last root command on the same root, 
+	 * so that their change events reach the client along with this response.
+	 */
+	private void addContinuationOutputs(ExecutionContext eCtx, MultiOutput mOutput) {
+		if(continuationExecutor == null || continuationExecutor.isInContinuation() || mOutput == null)
+			return;
+		
+		String rootKey = eCtx.getRootModel().getExecutionRuntime().getId();
+		continuationExecutor.drain(rootKey).stream()
+			.filter(continuation->continuation.getOutputs()!=null)
+			.flatMap(continuation->continuation.getOutputs().stream())
+			.forEach(mOutput.template()::add);
+	}
+	
 	protected MultiOutput executeInternal(ExecutionContext eCtx, CommandMessage cmdMsg) {
 		final String inputCommandUri = cmdMsg.getCommand().getAbsoluteUri();
 		
@@ -218,7 +342,7 @@ public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies
 			return execute(configCmdMsg);
 		
 		try {
-			return Executors.newSingleThreadExecutor().submit(()->execute(configCmdMsg)).get();
+			return Executors.newSingleThreadExecutor().submit(ExecutionTracer.propagate(()->execute(configCmdMsg))).get();
 			
 		} catch (Exception ex) {
 			throw new FrameworkRuntimeException("Failed to execute config command in asyn-wait thread for configCmdMsg: "+configCmdMsg+" originating from inputCmd: "+inputCmd, ex);
@@ -333,7 +457,8 @@ public class DefaultCommandExecutorGateway extends BaseCommandExecutorStrategies
 			eCtx.getRootModel().getExecutionRuntime().getEventDelegator().addTxnScopedListener(cmdListener);
 			eCtx.getRootModel().getExecutionRuntime().onStartCommandExecution(cmdMsg.getCommand());
 
-			Output<?> output = executor.execute(input);
+			Output<?> output = ExecutionTracer.span(ExecutionTracer.CATEGORY_EXECUTOR, b.name(), executor.getClass().getSimpleName(), 
+					()->timed(METRIC_COMMAND_EXECUTOR, cmdMsg.getCommand(), b, ()->executor.execute(input)));
 			output.setAggregatedEvents(_aggregatedEvents);
 			selfExecOutputs.add(output);
 
@@ -18,6 +18,8 @@ package com.antheminc.oss.nimbus.domain.cmd.exec.internal.process;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +40,16 @@ import com.antheminc.oss.nimbus.domain.rules.RulesEngineFactory;
 import com.antheminc.oss.nimbus.domain.rules.RulesEngineFactoryProducer;
 
 /**
+ * Fires the rule given by the <tt>rule</tt> parameter on the action param and the params given by <tt>associatedParam</tt>. <br>
+ * 
+ * Rule configs and started runtimes are cached per rules engine factory and rule name, so cached runtimes are expected to 
+ * support firing concurrently, as {@link com.antheminc.oss.nimbus.domain.rules.drools.DroolsRulesRuntime} does by opening 
+ * a stateless session per fire. Only rules which resolve to a config are cached, which bounds the cache by the configured 
+ * rules; the cached runtimes are shut down along with the handler, see {@link #shutdown()}. <br>
+ * 
+ * Associated params within the root domain of the command are resolved against its QuadModel instead of being fetched 
+ * through the {@link CommandExecutorGateway}.
+ * 
  * @author Rakesh Patel
  *
  */
@@ -47,6 +59,8 @@ public class SetByRuleFunctionalHandler <T, R> extends AbstractFunctionHandler<T
 	
 	@Autowired CommandExecutorGateway executorGateway;
 	
+	private final Map<RulesEngineFactory, Map<String, RulesRuntime>> runtimes = new ConcurrentHashMap<>();
+	
 	@Override
 	public R execute(ExecutionContext eCtx, Param<T> actionParameter) {
 		ModelConfig<?> mConfig = getDomainConfigBuilder().getRootDomainOrThrowEx(eCtx.getCommandMessage().getCommand().getRootDomainAlias());
@@ -57,12 +71,10 @@ public class SetByRuleFunctionalHandler <T, R> extends AbstractFunctionHandler<T
 		
 		Assert.notNull(reFactory, "Rule engine factory is null for the config "+mConfig);
 		
-		RulesConfig rConfig = reFactory.createConfig(eCtx.getCommandMessage().getCommand().getFirstParameterValue("rule"));
-				
-		Assert.notNull(rConfig, "Rule config is null for the rule: "+eCtx.getCommandMessage().getCommand().getFirstParameterValue("rule"));
+		String rule = eCtx.getCommandMessage().getCommand().getFirstParameterValue("rule");
+		RulesRuntime rRuntime = getOrCreateRuntime(reFactory, rule);
 		
-		RulesRuntime rRuntime = reFactory.createRuntime(rConfig);
-		rRuntime.start();
+		Assert.notNull(rRuntime, "Rule config is null for the rule: "+rule);
 		
 		List<Param<T>> params = new ArrayList<>();
 		params.add(actionParameter);
@@ -74,19 +86,44 @@ public class SetByRuleFunctionalHandler <T, R> extends AbstractFunctionHandler<T
 			Arrays.asList(associatedParamUris).forEach((associatedParamUri) -> {
 				associatedParamUri = eCtx.getCommandMessage().getCommand().getRelativeUri(associatedParamUri);
 				Command command = CommandBuilder.withUri(associatedParamUri).getCommand();
-				CommandMessage newCommandMessage = new CommandMessage(command, eCtx.getCommandMessage().hasPayload() ?  eCtx.getCommandMessage().getRawPayload() :null);
-				MultiOutput response = executorGateway.execute(newCommandMessage);
 				
-				Param<T> associatedParam = (Param<T>)response.getSingleResult();
+				Param<T> associatedParam = eCtx.findParamIfLocalGet(command);
+				if(associatedParam == null) {
+					CommandMessage newCommandMessage = new CommandMessage(command, eCtx.getCommandMessage().hasPayload() ?  eCtx.getCommandMessage().getRawPayload() :null);
+					MultiOutput response = executorGateway.execute(newCommandMessage);
+					
+					associatedParam = (Param<T>)response.getSingleResult();
+				}
 				params.add(associatedParam);
 			});
 		}
 		
 		rRuntime.fireRules(params.toArray(new Param[params.size()]));
 		
-		
-		rRuntime.shutdown();
-		
 		return null;
 	}
+	
+	protected RulesRuntime getOrCreateRuntime(RulesEngineFactory reFactory, String rule) {
+		return runtimes.computeIfAbsent(reFactory, f->new ConcurrentHashMap<>())
+				.computeIfAbsent(rule, r->{
+					RulesConfig rConfig = reFactory.createConfig(r);
+					if(rConfig == null)
+						return null;
+					
+					RulesRuntime rRuntime = reFactory.createRuntime(rConfig);
+					rRuntime.start();
+					return rRuntime;
+				});
+	}
+	
+	/**
+	 * Shuts down and releases the cached rule runtimes.
+	 */
+	public void shutdown() {
+		runtimes.values().forEach(byRule->{
+			byRule.values().forEach(RulesRuntime::shutdown);
+			byRule.clear();
+		});
+		runtimes.clear();
+	}
 }
@@ -18,7 +18,10 @@ package com.antheminc.oss.nimbus.domain.cmd.exec.internal.process;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,15 +37,33 @@ import com.antheminc.oss.nimbus.domain.defn.Constants;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 
 /**
+ * Assigns state resolved from the <tt>url</tt> parameter of the command. <br>
+ * 
+ * The command targeted by an external <tt>url</tt> is built once per distinct resolved url and copied for each execution. 
+ * The most recently used {@value #MAX_CACHED_COMMANDS} commands are kept, as urls carrying per request values would 
+ * otherwise crowd out the static ones. Targets which are a plain <tt>_get</tt> on the root domain being executed resolve 
+ * to the param in memory, others are executed through the {@link CommandExecutorGateway}.
+ * 
  * @author Jayant Chaudhuri
  * @author Rakesh Patel
  *
  */
 abstract public class URLBasedAssignmentFunctionHandler<T,R,S> implements FunctionHandler<T,R> {
 	
+	public static final int MAX_CACHED_COMMANDS = 1024;
+	
 	@Autowired
 	private CommandExecutorGateway executorGateway; 
 	
+	private final Map<String, Command> externalCommands = Collections.synchronizedMap(new LinkedHashMap<String, Command>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Command> eldest) {
+			return size() > MAX_CACHED_COMMANDS;
+		}
+	});
+	
 	@SuppressWarnings("unchecked")
 	@Override
 	public R execute(ExecutionContext executionContext, Param<T> actionParameter) {
@@ -86,9 +107,7 @@ abstract public class URLBasedAssignmentFunctionHandler<T,R,S> implements Functi
 	}
 	
 	protected CommandMessage buildExternalCommand(CommandMessage commandMessage){
-		String url = getUrl(commandMessage);
-		url = commandMessage.getCommand().getRelativeUri(url);
-		Command command = CommandBuilder.withUri(url).getCommand();
+		Command command = resolveExternalCommand(commandMessage);
 		
 		// TODO Sandeep: decide on which commands should get the payload. Scenario is - we are searching for a form based input. In the below query we are do a member search based on the variable search criteria 
 		// Ex - /pageAdvancedMemberSearch/tileAdvancedMemberSearch/sectionMemberSearchResults/patientResult.m/_process?fn=_set&url=/p/patient/_search?fn=example 
@@ -98,7 +117,28 @@ abstract public class URLBasedAssignmentFunctionHandler<T,R,S> implements Functi
 		return newCommandMessage;
 	}
 	
-
+	protected Command resolveExternalCommand(CommandMessage commandMessage) {
+		// the configured url, prefixed as it resolves relative to the handled command, but independent of the handled param 
+		String url = commandMessage.getCommand().getRelativeUri(getUrl(commandMessage));
+		Command template = externalCommands.get(url);
+		if(template == null) {
+			template = CommandBuilder.withUri(url).getCommand();
+			externalCommands.put(url, template);
+		}
+		
+		Command command = template.clone();
+		if(template.getRequestParams() != null) {
+			Map<String, String[]> requestParams = new HashMap<>();
+			template.getRequestParams().forEach((k, v)->requestParams.put(k, v == null ? null : v.clone()));
+			command.setRequestParams(requestParams);
+		}
+		return command;
+	}
+	
+	int getCachedCommandCount() {
+		return externalCommands.size();
+	}
+	
 	protected boolean isInternal(CommandMessage commandMessage){
 		String url = commandMessage.getCommand().getFirstParameterValue(Constants.REQUEST_PARAMETER_URL_MARKER.code);
 		if(StringUtils.startsWith(url, Constants.SEPARATOR_URI_PLATFORM.code)) {
@@ -121,6 +161,10 @@ abstract public class URLBasedAssignmentFunctionHandler<T,R,S> implements Functi
 	protected S getExternalState(ExecutionContext executionContext){
 		CommandMessage commandToExecute = buildExternalCommand(executionContext.getCommandMessage());
 		
+		Param<?> localParam = executionContext.findParamIfLocalGet(commandToExecute.getCommand());
+		if(localParam != null)
+			return (S)localParam;
+		
 		MultiOutput response = executorGateway.execute(commandToExecute);
 		//TODO Soham: temp fix, need to talk to Jayant
 		return (S)response.getOutputs().get(0).getValue();
@@ -15,8 +15,9 @@
  */
 package com.antheminc.oss.nimbus.domain.cmd.exec.internal.search;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,12 +52,16 @@ public abstract class DefaultSearchFunctionHandler<T, R> extends AbstractFunctio
 	public R execute(ExecutionContext executionContext, Param<T> actionParameter) {
 		ModelConfig<?> mConfig = getRootDomainConfig(executionContext);
 		
+		return (R)search(mConfig, () -> this.createSearchCriteria(executionContext, mConfig, actionParameter));
+	}
+	
+	protected Object search(ModelConfig<?> mConfig, Supplier<SearchCriteria<?>> criteria) {
 		Class<?> criteriaClass = mConfig.getReferredClass();
 		String alias = findRepoAlias(mConfig);
 		
 		ModelRepository rep = getRepFactory().get(mConfig.getRepo());
 		
-		return (R)rep._search(criteriaClass, alias, () -> this.createSearchCriteria(executionContext, mConfig, actionParameter));
+		return rep._search(criteriaClass, alias, criteria);
 	}
 	
 	protected abstract SearchCriteria<?> createSearchCriteria(ExecutionContext executionContext, ModelConfig<?> mConfig, Param<T> cmdParam);
@@ -108,11 +113,12 @@ public abstract class DefaultSearchFunctionHandler<T, R> extends AbstractFunctio
 			
 			Stream.of(keyValues).forEach((kvString) -> {
 				if(MapUtils.isEmpty(projectCriteria.getMapsTo())){
-					projectCriteria.setMapsTo(new HashMap<String, String>());
+					projectCriteria.setMapsTo(new LinkedHashMap<String, String>());
 				}
 				String[] kv = StringUtils.split(kvString,":");
 				projectCriteria.getMapsTo().put(kv[0], kv[1]);
 			});
+			projectCriteria.setDistinct(Boolean.parseBoolean(cmd.getFirstParameterValue(Constants.SEARCH_REQ_PROJECT_DISTINCT_MARKER.code)));
 			return projectCriteria;
 		}
 		return null;
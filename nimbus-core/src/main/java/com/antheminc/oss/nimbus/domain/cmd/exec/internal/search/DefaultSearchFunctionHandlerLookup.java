@@ -17,11 +17,16 @@ package com.antheminc.oss.nimbus.domain.cmd.exec.internal.search;
 
 import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import com.antheminc.oss.nimbus.FrameworkRuntimeException;
 import com.antheminc.oss.nimbus.domain.cmd.Command;
@@ -31,6 +36,7 @@ import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
 import com.antheminc.oss.nimbus.domain.model.config.ParamValue;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.ReferenceDataCache;
 import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria.LookupSearchCriteria;
 import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria.ProjectCriteria;
 import com.antheminc.oss.nimbus.entity.StaticCodeValue;
@@ -42,18 +48,24 @@ import com.antheminc.oss.nimbus.entity.StaticCodeValue;
 @SuppressWarnings("unchecked")
 public class DefaultSearchFunctionHandlerLookup<T, R> extends DefaultSearchFunctionHandler<T, R> {
 
+	@Autowired(required=false) ReferenceDataCache referenceDataCache;
+	
 	@Override
 	public R execute(ExecutionContext executionContext, Param<T> actionParameter) {
 		
 		ModelConfig<?> mConfig = getRootDomainConfig(executionContext);
 		
-		List<?> searchResult = (List<?>)super.execute(executionContext, actionParameter);
-				
 		Command cmd = executionContext.getCommandMessage().getCommand();
-		if(StringUtils.equalsIgnoreCase(cmd.getElement(Type.DomainAlias).get().getAlias(), "staticCodeValue")) {
-			return getStaticParamValues((List<StaticCodeValue>)searchResult, cmd);
+		if(StringUtils.equalsIgnoreCase(cmd.getElement(Type.DomainAlias).get().getAlias(), ReferenceDataCache.ALIAS)) {
+			if(referenceDataCache==null)
+				return searchStaticParamValues(executionContext, actionParameter);
+			
+			String where = resolveNamedQueryIfApplicable(executionContext, mConfig, actionParameter);
+			return (R)referenceDataCache.get(cmd.getAbsoluteUri(), where, ()->(List<ParamValue>)searchStaticParamValues(executionContext, actionParameter));
 		}
+		
 		LookupSearchCriteria lookupSearchCriteria = createSearchCriteria(executionContext, mConfig, actionParameter);
+		List<?> searchResult = (List<?>)search(mConfig, () -> lookupSearchCriteria);
 		return getDynamicParamValues(lookupSearchCriteria, mConfig.getReferredClass(), searchResult);
 	}
 
@@ -75,6 +87,11 @@ public class DefaultSearchFunctionHandlerLookup<T, R> extends DefaultSearchFunct
 		return lookupSearchCriteria;
 	}
 	
+	private R searchStaticParamValues(ExecutionContext executionContext, Param<T> actionParameter) {
+		List<StaticCodeValue> searchResult = (List<StaticCodeValue>)super.execute(executionContext, actionParameter);
+		return getStaticParamValues(searchResult, executionContext.getCommandMessage().getCommand());
+	}
+	
 	private R getStaticParamValues(List<StaticCodeValue> searchResult, Command cmd) {	
 		if(CollectionUtils.isEmpty(searchResult))
 			return null;
@@ -86,23 +103,72 @@ public class DefaultSearchFunctionHandlerLookup<T, R> extends DefaultSearchFunct
 	}
 	
 	private R getDynamicParamValues(LookupSearchCriteria lookupSearchCriteria, Class<?> criteriaClass, List<?> searchResult) {
-		List<String> list = new ArrayList<String>(lookupSearchCriteria.getProjectCriteria().getMapsTo().values());
+		ProjectCriteria projectCriteria = lookupSearchCriteria.getProjectCriteria();
+		ParamValueAccessor accessor = ParamValueAccessor.of(criteriaClass, projectCriteria.getMapsTo());
+		
+		if(CollectionUtils.isEmpty(searchResult))
+			return (R)new ArrayList<ParamValue>();
+		
+		List<ParamValue> paramValues = new ArrayList<>(searchResult.size());
+		Set<Object> codes = projectCriteria.isDistinct() ? new HashSet<>() : null;
+		for(Object model: searchResult) {
+			ParamValue pv = accessor.toParamValue(model);
+			if(codes==null || codes.add(pv.getCode()))
+				paramValues.add(pv);
+		}
+		return (R)paramValues;
+	}
+	
+	/**
+	 * Reads code and label of the lookup rows, the fields being resolved from <tt>projection.mapsTo</tt> once per domain class. <br>
+	 * The mapping keys <tt>code</tt> and <tt>label</tt> name the fields explicitly, otherwise the first mapping is the code 
+	 * and the second one the label. Rows of aggregation queries are read as maps by field name.
+	 */
+	static class ParamValueAccessor {
+		
+		private static final Map<String, ParamValueAccessor> accessors = new ConcurrentHashMap<>();
 		
-		if(list.size() > 2)
-			throw new IllegalStateException("ParamValues lookup failed due to more than 2 fields provided to create the param values. the criteria class is "+criteriaClass);
+		private final String codeField;
+		private final String labelField;
 		
-		PropertyDescriptor codePd = BeanUtils.getPropertyDescriptor(criteriaClass, list.get(0));
-		PropertyDescriptor labelPd = BeanUtils.getPropertyDescriptor(criteriaClass, list.get(1));
+		private final PropertyDescriptor codePd;
+		private final PropertyDescriptor labelPd;
 		
-		try {
-			List<ParamValue> paramValues = new ArrayList<>();
-			for(Object model: searchResult) {
-				paramValues.add(new ParamValue((String)codePd.getReadMethod().invoke(model), (String)labelPd.getReadMethod().invoke(model)));
+		private ParamValueAccessor(Class<?> criteriaClass, String codeField, String labelField) {
+			this.codeField = codeField;
+			this.labelField = labelField;
+			this.codePd = BeanUtils.getPropertyDescriptor(criteriaClass, codeField);
+			this.labelPd = BeanUtils.getPropertyDescriptor(criteriaClass, labelField);
+		}
+		
+		static ParamValueAccessor of(Class<?> criteriaClass, Map<String, String> mapsTo) {
+			List<String> fields = new ArrayList<>(mapsTo.values());
+			
+			if(fields.size() > 2)
+				throw new IllegalStateException("ParamValues lookup failed due to more than 2 fields provided to create the param values. the criteria class is "+criteriaClass);
+			
+			String codeField = mapsTo.containsKey("code") ? mapsTo.get("code") : fields.get(0);
+			String labelField = mapsTo.containsKey("label") ? mapsTo.get("label") : fields.get(fields.size()-1);
+			
+			return accessors.computeIfAbsent(criteriaClass.getName()+"|"+codeField+"|"+labelField, k->new ParamValueAccessor(criteriaClass, codeField, labelField));
+		}
+		
+		ParamValue toParamValue(Object model) {
+			if(model instanceof Map) {
+				Map<String, Object> row = (Map<String, Object>)model;
+				return new ParamValue(row.get(codeField), toLabel(row.get(labelField)));
+			}
+			
+			try {
+				return new ParamValue(codePd.getReadMethod().invoke(model), toLabel(labelPd.getReadMethod().invoke(model)));
+			}
+			catch(Exception ex) {
+				throw new FrameworkRuntimeException("Failed to execute read on property: "+codePd+" and "+labelPd, ex);
 			}
-			return (R)paramValues;
 		}
-		catch(Exception ex) {
-			throw new FrameworkRuntimeException("Failed to execute read on property: "+codePd+" and "+labelPd, ex);
+		
+		private static String toLabel(Object label) {
+			return label==null ? null : String.valueOf(label);
 		}
 	}
 	
@@ -15,20 +15,28 @@
  */
 package com.antheminc.oss.nimbus.domain.config.builder;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 
 import com.antheminc.oss.nimbus.InvalidConfigException;
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.defn.Constants;
 import com.antheminc.oss.nimbus.domain.defn.Domain;
+import com.antheminc.oss.nimbus.domain.defn.Repo;
 import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
 import com.antheminc.oss.nimbus.domain.model.config.builder.EntityConfigBuilder;
 import com.antheminc.oss.nimbus.domain.model.config.builder.EntityConfigVisitor;
@@ -42,6 +50,7 @@ import com.antheminc.oss.nimbus.support.pojo.ClassLoadUtils;
 public class DomainConfigBuilder {
 
 	private final Map<String, ModelConfig<?>> cacheDomainRootModel;
+	private final Map<String, Optional<Set<String>>> cacheMappedCoreProjection = new ConcurrentHashMap<>();
 	private final EntityConfigVisitor configVisitor;
 
 	private final EntityConfigBuilder configBuilder;
@@ -69,6 +78,42 @@ public class DomainConfigBuilder {
 		return cacheDomainRootModel.get(rootAlias);
 	}
 	
+	public Collection<ModelConfig<?>> getRootDomains() {
+		return Collections.unmodifiableCollection(cacheDomainRootModel.values());
+	}
+	
+	/**
+	 * @return core field paths reached by the given mapped view domain, or null if the whole core is required
+	 * @see MappedCoreProjection
+	 */
+	public Set<String> getMappedCoreProjection(String viewAlias) {
+		return cacheMappedCoreProjection.computeIfAbsent(viewAlias, k->Optional.ofNullable(MappedCoreProjection.resolve(getRootDomain(k))))
+				.orElse(null);
+	}
+	
+	/**
+	 * Resolves the projection a core domain was requested with on behalf of a mapped view, see {@link Constants#GET_REQ_PROJECT_VIEW_MARKER}. <br>
+	 * Cores shared through the session ({@link Repo.Cache#rep_device}) are always loaded whole, as other views of the same core may require other fields.
+	 * 
+	 * @return core field paths to load, or null if the whole core must be loaded
+	 */
+	public Set<String> findMappedCoreProjection(Command coreCmd, ModelConfig<?> coreConfig) {
+		String viewAlias = coreCmd==null ? null : coreCmd.getFirstParameterValue(Constants.GET_REQ_PROJECT_VIEW_MARKER.code);
+		if(StringUtils.isBlank(viewAlias) || !isProjectable(coreConfig))
+			return null;
+		
+		ModelConfig<?> viewConfig = getRootDomain(viewAlias);
+		if(viewConfig==null || !viewConfig.isMapped() || viewConfig.findIfMapped().getMapsToConfig().getReferredClass()!=coreConfig.getReferredClass())
+			return null;
+		
+		return getMappedCoreProjection(viewAlias);
+	}
+	
+	public boolean isProjectable(ModelConfig<?> coreConfig) {
+		Repo repo = coreConfig.getRepo();
+		return Repo.Database.isPersistable(repo) && repo.cache()!=Repo.Cache.rep_device;
+	}
+	
 	public ModelConfig<?> getModel(String alias) {
 		return configVisitor.get(alias);
 	}
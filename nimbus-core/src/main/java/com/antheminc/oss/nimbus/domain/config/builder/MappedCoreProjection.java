@@ -0,0 +1,120 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.config.builder;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.antheminc.oss.nimbus.domain.defn.MapsTo;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.config.ParamConfig;
+import com.antheminc.oss.nimbus.domain.model.config.ParamConfigType;
+
+/**
+ * Resolves the core field paths which a mapped view domain reaches via {@link MapsTo.Path}, 
+ * so that only those need to be fetched when the core is loaded on behalf of the view. <br>
+ * 
+ * Paths are bean paths relative to the core root, e.g. {@code /address/city}, mapped nested params include their whole sub-tree. 
+ * Mappings that cannot be followed statically resolve to {@code null}, in which case the whole core must be loaded.
+ */
+public final class MappedCoreProjection {
+
+	private static final Pattern SIMPLE_PATH = Pattern.compile("(/[A-Za-z_$][\\w$]*)+");
+	
+	private MappedCoreProjection() {}
+	
+	public static Set<String> resolve(ModelConfig<?> viewConfig) {
+		if(viewConfig==null || !viewConfig.isMapped())
+			return null;
+		
+		ModelConfig<?> coreConfig = viewConfig.findIfMapped().getMapsToConfig();
+		
+		Set<String> paths = new TreeSet<>();
+		if(!collect(viewConfig, coreConfig.getReferredClass(), paths, Collections.newSetFromMap(new IdentityHashMap<>())))
+			return null;
+		
+		if(paths.isEmpty())
+			return null;
+		
+		if(coreConfig.getIdParamConfig()!=null)
+			paths.add("/"+coreConfig.getIdParamConfig().getCode());
+		
+		// drop paths already covered by an ancestor, as overlapping fields are rejected by the store
+		Set<String> distinct = paths.stream()
+								.filter(p->paths.stream().noneMatch(a->p.startsWith(a+"/")))
+								.collect(Collectors.toCollection(TreeSet::new));
+		
+		return Collections.unmodifiableSet(distinct);
+	}
+	
+	private static boolean collect(ModelConfig<?> mConfig, Class<?> coreClass, Set<String> paths, Set<ModelConfig<?>> visited) {
+		if(!visited.add(mConfig))
+			return true;
+		
+		for(ParamConfig<?> p : mConfig.getParamConfigs()) {
+			MapsTo.Mode mode = p.getMappingMode();
+			
+			// loaded independently of the core
+			if(mode==MapsTo.Mode.MappedDetached)
+				continue;
+			
+			if(mode==MapsTo.Mode.MappedAttached) {
+				MapsTo.Path mapsToPath = p.findIfMapped().getPath();
+				String path = StringUtils.isEmpty(mapsToPath.value()) ? "/"+p.getCode() : mapsToPath.value();
+				
+				if(!SIMPLE_PATH.matcher(path).matches())
+					return false;
+				
+				paths.add(path);
+				continue;
+			}
+			
+			ParamConfigType type = p.getType();
+			if(type==null || !type.isNested())
+				continue;
+			
+			if(type.isCollection()) {
+				// unmapped collections cannot refer to core fields, unless their elements are mapped in which case the target is ambiguous
+				ParamConfig<?> elemConfig = type.findIfCollection().getElementConfig();
+				ModelConfig<?> elemModel = elemConfig==null || elemConfig.getType().findIfNested()==null ? null : elemConfig.getType().findIfNested().getModelConfig();
+				
+				Set<String> elemPaths = new TreeSet<>();
+				if(elemModel!=null && (!collect(elemModel, coreClass, elemPaths, visited) || !elemPaths.isEmpty()))
+					return false;
+				
+				continue;
+			}
+			
+			ModelConfig<?> nestedModel = type.findIfNested().getModelConfig();
+			if(nestedModel==null)
+				continue;
+			
+			// unmapped nested models may only be mapped onto the same core
+			if(nestedModel.isMapped() && nestedModel.findIfMapped().getMapsToConfig().getReferredClass()!=coreClass)
+				return false;
+			
+			if(!collect(nestedModel, coreClass, paths, visited))
+				return false;
+		}
+		return true;
+	}
+}
@@ -88,9 +88,16 @@ public enum Constants {
 	REQUEST_PARAMETER_DELIMITER("&"),
 	PARAM_ASSIGNMENT_MARKER("="),
 	
+	/* get request param constants: mapped view on whose behalf the core is loaded */
+	GET_REQ_PROJECT_VIEW_MARKER("projection.view"),
+	
+	/* request param constant: opt-in execution trace of a top level command, honored only when nimbus.trace.enabled is set */
+	REQ_TRACE_MARKER("trace"),
+	
 	/* search request param constants */
 	SEARCH_REQ_PROJECT_ALIAS_MARKER("projection.alias"),
 	SEARCH_REQ_PROJECT_MAPING_MARKER("projection.mapsTo"),
+	SEARCH_REQ_PROJECT_DISTINCT_MARKER("projection.distinct"),
 	
 	SEARCH_REQ_AGGREGATE_MARKER("aggregate"),
 	SEARCH_REQ_AGGREGATE_COUNT("count"),
@@ -50,9 +50,10 @@ public @interface Repo {
 	/* 1nd level repository: cache (distributed session or sticky) */
 	public enum Cache {
 		rep_none,
-		rep_device;
+		rep_device,
 //		rep_user,
-//		rep_entity;
+		/* entity read-through cache shared across sessions, invalidated on writes */
+		rep_entity;
 		
 		public static boolean exists(Repo repo) {
 			return repo!=null && repo.cache()!=Repo.Cache.rep_none;
@@ -70,6 +71,12 @@ public @interface Repo {
 	
 	NamedNativeQuery[] namedNativeQueries() default {};
 	
+	/* caches _search results of the alias, invalidated on writes to the alias */
+	boolean cacheSearch() default false;
+	
+	/* index hints of query by example searches, the first hint whose fields are all populated in the example is used */
+	IndexHint[] indexHints() default {};
+	
 	
 	@Retention(RetentionPolicy.RUNTIME)
 	@Target(value=ElementType.TYPE)
@@ -77,6 +84,20 @@ public @interface Repo {
 		
 		String name();
 		String[] nativeQueries();
+		
+		/* -1: follow Repo.cacheSearch(), 0: never cache, >0: cache results for given seconds */
+		long cacheTtlSeconds() default -1;
+	}
+	
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(value=ElementType.TYPE)
+	@interface IndexHint {
+		
+		/* name of the index */
+		String index();
+		
+		/* example fields the index covers, empty applies to every example search */
+		String[] fields() default {};
 	}
 	
 	
@@ -19,6 +19,7 @@ import java.util.List;
 
 import com.antheminc.oss.nimbus.domain.defn.Repo;
 import com.antheminc.oss.nimbus.support.pojo.CollectionsTemplate;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * @author Soham Chakravarti
@@ -31,6 +32,9 @@ public interface ModelConfig<T> extends EntityConfig<T> {
 	public String getDomainLifecycle();
 	
 	public Repo getRepo();
+	
+	@JsonIgnore
+	public PersistenceTarget getPersistenceTarget();
 
 	//@JsonIgnore
 	public List<? extends ParamConfig<?>> getParamConfigs();
@@ -0,0 +1,175 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.config;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import com.antheminc.oss.nimbus.domain.defn.Domain;
+import com.antheminc.oss.nimbus.domain.defn.Domain.ListenerType;
+import com.antheminc.oss.nimbus.domain.defn.Model;
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Persistence metadata of a model, resolved once at config build time so that persistence listeners and handlers 
+ * do not re-read {@link Domain}, {@link Model} and {@link Repo} annotations on every state change.
+ */
+@Getter @RequiredArgsConstructor @ToString(exclude="fieldPaths")
+public class PersistenceTarget implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/* collection alias: Repo.alias() if set, otherwise the model alias */
+	private final String alias;
+	
+	private final boolean domain;
+	
+	private final boolean repository;
+	
+	/* backed by a persistent store, see Repo.Database.isPersistable */
+	private final boolean persistable;
+	
+	/* Domain.includeListeners(), empty if not a domain */
+	private final Set<ListenerType> includeListeners;
+	
+	/* Model.excludeListeners() */
+	private final Set<ListenerType> excludeListeners;
+	
+	/* segment of a field path template standing for the id of a list element, resolved from the param state */
+	public static final String ELEM_ID_SEGMENT = "{elemId}";
+	
+	/* 
+	 * store field path templates of the params stored within this document, relative to it and keyed by param config. 
+	 * Configs reachable at more than one path (e.g. a class embedded by two fields) map to null.
+	 */
+	@Getter(AccessLevel.NONE)
+	private final transient Map<ParamConfig<?>, String> fieldPaths = new IdentityHashMap<>();
+	
+	/**
+	 * @return true if stored as its own document, rather than as part of its enclosing model 
+	 */
+	public boolean isDocumentRoot() {
+		return domain && repository;
+	}
+	
+	/**
+	 * @return template of the store field path, e.g. "addresses.{elemId}.city", or null if not resolvable from config alone
+	 */
+	public String findFieldPath(ParamConfig<?> pConfig) {
+		return fieldPaths==null ? null : fieldPaths.get(pConfig);
+	}
+	
+	/**
+	 * Indexes the store field paths of all params reachable from the given document root, once its params are built.
+	 */
+	public void indexFieldPaths(ModelConfig<?> owner) {
+		fieldPaths.clear();
+		indexFieldPaths(owner, "", Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+	
+	private void indexFieldPaths(ModelConfig<?> mConfig, String prefix, Set<ModelConfig<?>> visiting) {
+		// recursive models are indexed up to their first occurrence
+		if(mConfig.getParamConfigs()==null || !visiting.add(mConfig))
+			return;
+		
+		for(ParamConfig<?> pConfig : mConfig.getParamConfigs()) {
+			if(pConfig==null)
+				continue;
+			
+			String path = prefix + pConfig.getBeanName();
+			indexFieldPath(pConfig, path);
+			indexNestedFieldPaths(pConfig, path, visiting);
+		}
+		visiting.remove(mConfig);
+	}
+	
+	private void indexNestedFieldPaths(ParamConfig<?> pConfig, String path, Set<ModelConfig<?>> visiting) {
+		ParamConfigType type = pConfig.getType();
+		if(type==null || type.findIfNested()==null)
+			return;
+		
+		if(type.isCollection()) {
+			ParamConfig<?> elemConfig = type.findIfCollection().getElementConfig();
+			if(elemConfig==null)
+				return;
+			
+			String elemPath = path + "." + ELEM_ID_SEGMENT;
+			indexFieldPath(elemConfig, elemPath);
+			indexNestedFieldPaths(elemConfig, elemPath, visiting);
+			return;
+		}
+		
+		ModelConfig<?> nestedModel = type.findIfNested().getModelConfig();
+		if(nestedModel!=null)
+			indexFieldPaths(nestedModel, path + ".", visiting);
+	}
+	
+	private void indexFieldPath(ParamConfig<?> pConfig, String path) {
+		if(!fieldPaths.containsKey(pConfig))
+			fieldPaths.put(pConfig, path);
+		else if(!path.equals(fieldPaths.get(pConfig)))
+			fieldPaths.put(pConfig, null);
+	}
+	
+	public static PersistenceTarget resolve(ModelConfig<?> mConfig) {
+		Class<?> referredClass = mConfig.getReferredClass();
+		
+		Repo repo = mConfig.getRepo();
+		Domain domain = AnnotationUtils.findAnnotation(referredClass, Domain.class);
+		Model model = AnnotationUtils.findAnnotation(referredClass, Model.class);
+		
+		String alias = repo!=null && StringUtils.isNotBlank(repo.alias()) ? repo.alias() : mConfig.getAlias();
+		
+		return new PersistenceTarget(alias, domain!=null, repo!=null, Repo.Database.isPersistable(repo), 
+				toSet(domain==null ? null : domain.includeListeners()), toSet(model==null ? null : model.excludeListeners()));
+	}
+	
+	/**
+	 * @return target of the model itself or of the model a nested param refers to, null for leaf params
+	 */
+	public static PersistenceTarget of(EntityConfig<?> config) {
+		if(config instanceof ModelConfig)
+			return ((ModelConfig<?>)config).getPersistenceTarget();
+		
+		if(config instanceof ParamConfig) {
+			ParamConfigType type = ((ParamConfig<?>)config).getType();
+			ModelConfig<?> nestedModel = type==null || type.findIfNested()==null ? null : type.findIfNested().getModelConfig();
+			return nestedModel==null ? null : nestedModel.getPersistenceTarget();
+		}
+		return null;
+	}
+	
+	private static Set<ListenerType> toSet(ListenerType[] listeners) {
+		if(listeners==null || listeners.length==0)
+			return Collections.emptySet();
+		
+		EnumSet<ListenerType> set = EnumSet.noneOf(ListenerType.class);
+		Collections.addAll(set, listeners);
+		return Collections.unmodifiableSet(set);
+	}
+}
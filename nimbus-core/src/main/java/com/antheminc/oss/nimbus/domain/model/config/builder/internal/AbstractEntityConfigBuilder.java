@@ -53,6 +53,7 @@ import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
 import com.antheminc.oss.nimbus.domain.model.config.ParamConfig;
 import com.antheminc.oss.nimbus.domain.model.config.ParamConfig.MappedParamConfig;
 import com.antheminc.oss.nimbus.domain.model.config.ParamConfigType;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
 import com.antheminc.oss.nimbus.domain.model.config.builder.EntityConfigVisitor;
 import com.antheminc.oss.nimbus.domain.model.config.internal.DefaultModelConfig;
 import com.antheminc.oss.nimbus.domain.model.config.internal.DefaultParamConfig;
@@ -123,6 +124,8 @@ abstract public class AbstractEntityConfigBuilder {
 		
 		// set alias from domain or model
 		assignDomainAndModel(created, created::setAlias);
+		
+		created.setPersistenceTarget(PersistenceTarget.resolve(created));
 				
 		// rules
 		Optional.ofNullable(created.getAlias())
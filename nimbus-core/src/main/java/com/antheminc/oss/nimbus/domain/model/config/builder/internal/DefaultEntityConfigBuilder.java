@@ -111,6 +111,10 @@ public class DefaultEntityConfigBuilder extends AbstractEntityConfigBuilder impl
 			throw new InvalidConfigException("Persistable Entity: "+mConfig.getReferredClass()+" must be configured with @Id param which has Repo: "+mConfig.getRepo());
 		}
 		
+		// store field paths of params, read by persistence handlers on each write
+		if(mConfig.getPersistenceTarget().isDocumentRoot())
+			mConfig.getPersistenceTarget().indexFieldPaths(mConfig);
+		
 		return mConfig;
 	}
 
@@ -29,6 +29,7 @@ import com.antheminc.oss.nimbus.domain.defn.Model;
 import com.antheminc.oss.nimbus.domain.defn.Repo;
 import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
 import com.antheminc.oss.nimbus.domain.model.config.ParamConfig;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
 import com.antheminc.oss.nimbus.support.pojo.CollectionsTemplate;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -55,6 +56,8 @@ public class DefaultModelConfig<T> extends AbstractEntityConfig<T> implements Mo
 	
 	@JsonIgnore private Repo repo;
 	
+	@JsonIgnore private PersistenceTarget persistenceTarget;
+	
 	private List<ParamConfig<?>> paramConfigs;
 	
 	@JsonIgnore private transient ParamConfig<?> idParamConfig;
@@ -70,6 +73,15 @@ public class DefaultModelConfig<T> extends AbstractEntityConfig<T> implements Mo
 		return templateParamConfigs;
 	}
 
+	@Override @JsonIgnore
+	public PersistenceTarget getPersistenceTarget() {
+		// resolved at build time, lazily for configs created outside of the builder
+		if(persistenceTarget==null)
+			persistenceTarget = PersistenceTarget.resolve(this);
+		
+		return persistenceTarget;
+	}
+	
 	@Override @JsonIgnore 
 	public String getDomainLifecycle() {
 		return Optional.ofNullable(getDomain()).map(Domain::lifecycle).orElse(null);
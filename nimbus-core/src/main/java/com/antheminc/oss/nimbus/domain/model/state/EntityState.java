@@ -18,6 +18,8 @@ package com.antheminc.oss.nimbus.domain.model.state;
 import java.beans.PropertyDescriptor;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -126,6 +128,14 @@ public interface EntityState<T> {
 		@JsonIgnore
 		Map<String, Object> getParamRuntimes();
 		
+		/**
+		 * @return bean paths the domain was fetched with when loaded partially on behalf of a mapped view, null if loaded whole
+		 */
+		@JsonIgnore
+		Set<String> getLoadedProjection();
+		
+		void setLoadedProjection(Set<String> loadedProjection);
+		
 		<U> U unwrap(Class<U> c);
 //		default <U> U unwrap(Class<U> c) {
 //			if(c.isInstance(this))
@@ -355,6 +365,14 @@ public interface EntityState<T> {
 		@JsonIgnore
 		PropertyDescriptor getPropertyDescriptor();
 		
+		/**
+		 * Runs <tt>changes</tt> to this param and/or its nested params as a single state change of this param, so that rules, 
+		 * notifications and process flow are evaluated once after all of them, instead of after each. 
+		 * 
+		 * @param changes performs the changes and returns the resulting action, or <tt>null</tt> when nothing changed
+		 */
+		Action applyChanges(Supplier<Action> changes);
+		
 		@JsonIgnore
 		boolean isActive();
 		void activate();
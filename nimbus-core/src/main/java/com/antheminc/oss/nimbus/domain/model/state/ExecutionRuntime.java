@@ -20,6 +20,7 @@ import java.util.function.BiFunction;
 
 import com.antheminc.oss.nimbus.domain.cmd.Command;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.ExecutionModel;
+import com.antheminc.oss.nimbus.support.pojo.LockTemplate;
 
 /**
  * @author Soham Chakravarti
@@ -32,6 +33,18 @@ public interface ExecutionRuntime extends Notification.Dispatcher<Object> {
 	
 	public boolean isStarted();
 	
+	/**
+	 * Identifies this runtime instance, unique across restarts and nodes.
+	 */
+	public String getId();
+	
+	/**
+	 * Version of the state of all params sharing this runtime, incremented on each change. Together with {@link #getId()}, 
+	 * tells whether anything in the param tree changed since an earlier read.
+	 */
+	public long getStateVersion();
+	public void incrementStateVersion();
+	
 	public ExecutionModel<?> getRootExecution();
 	
 	/**
@@ -53,6 +66,12 @@ public interface ExecutionRuntime extends Notification.Dispatcher<Object> {
 	
 	public boolean isLocked(String lockId);
 	
+	/**
+	 * Single lock shared by all params of the root execution. Held only while param state is mutated, which serializes 
+	 * mutations per root across threads, while reads of param state remain lock-free.
+	 */
+	public LockTemplate getLockTemplate();
+	
 	public String tryLock();
 	public boolean tryUnlock(String lockId);
 
@@ -17,6 +17,7 @@ package com.antheminc.oss.nimbus.domain.model.state;
 
 import java.beans.PropertyDescriptor;
 import java.util.List;
+import java.util.function.Supplier;
 
 import com.antheminc.oss.nimbus.InvalidConfigException;
 import com.antheminc.oss.nimbus.InvalidOperationAttemptedException;
@@ -248,6 +249,11 @@ public class StateHolder {
 			
 			return this.ref.setState(state);
 		}
+		
+		@Override
+		public Action applyChanges(Supplier<Action> changes) {
+			throw throwEx();
+		}
 
 		
 		@Override
@@ -15,11 +15,16 @@
  */
 package com.antheminc.oss.nimbus.domain.model.state.builder.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
 
 import javax.annotation.PostConstruct;
 
@@ -32,8 +37,10 @@ import com.antheminc.oss.nimbus.domain.cmd.Command;
 import com.antheminc.oss.nimbus.domain.config.builder.DomainConfigBuilder;
 import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
 import com.antheminc.oss.nimbus.domain.model.config.ValidatorProvider;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Model;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.EntityStateAspectHandlers;
+import com.antheminc.oss.nimbus.domain.model.state.Notification;
 import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
 import com.antheminc.oss.nimbus.domain.model.state.builder.EntityStateBuilder;
 import com.antheminc.oss.nimbus.domain.model.state.builder.QuadModelBuilder;
@@ -42,6 +49,8 @@ import com.antheminc.oss.nimbus.domain.model.state.event.listener.StateAndConfig
 import com.antheminc.oss.nimbus.domain.model.state.internal.ExecutionEntity;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ParamStateGateway;
 import com.antheminc.oss.nimbus.support.JustLogit;
+import com.antheminc.oss.nimbus.support.metrics.MetricsRegistry;
+import com.antheminc.oss.nimbus.support.pojo.LockTemplate;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -71,6 +80,21 @@ public class DefaultQuadModelBuilder implements QuadModelBuilder {
 	
 	public RestTemplate restTemplate = new RestTemplate();
 	
+	public static final String METRIC_LIVE_QUADS = "nimbus.quad.live";
+	
+	public static final String METRIC_QUAD_SUBSCRIBERS = "nimbus.quad.subscribers";
+	
+	public static final String METRIC_LOCK_CONTENTIONS = "nimbus.quad.lock.contentions";
+	
+	public static final String METRIC_LOCK_WAIT_NANOS = "nimbus.quad.lock.waitNanos";
+	
+	public static final String METRIC_LOCK_HOLD_NANOS = "nimbus.quad.lock.holdNanos";
+	
+	public static final String METRIC_LOCK_MAX_HOLD_NANOS = "nimbus.quad.lock.maxHoldNanos";
+	
+	/* quads built and not yet garbage collected, whether held in session or by an ongoing command */
+	private final Set<QuadModel<?, ?>> liveQuads = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	
 	public DefaultQuadModelBuilder(BeanResolverStrategy beanResolver) {
 		this.beanResolver = beanResolver;
 	}
@@ -87,6 +111,16 @@ public class DefaultQuadModelBuilder implements QuadModelBuilder {
 		
 		Collection<StateAndConfigEventListener> publishers = beanResolver.getMultiple(StateAndConfigEventListener.class);
 		publishers.forEach(getParamEventListeners()::add);
+		
+		MetricsRegistry metricsRegistry = beanResolver.find(MetricsRegistry.class, "metricsRegistry");
+		if(metricsRegistry != null) {
+			metricsRegistry.gauge(METRIC_LIVE_QUADS, liveQuads::size);
+			metricsRegistry.gauge(METRIC_QUAD_SUBSCRIBERS, this::countSubscribers);
+			metricsRegistry.gauge(METRIC_LOCK_CONTENTIONS, ()->sumLockMetric(LockTemplate.Metrics::getContentions));
+			metricsRegistry.gauge(METRIC_LOCK_WAIT_NANOS, ()->sumLockMetric(LockTemplate.Metrics::getWaitTimeNanos));
+			metricsRegistry.gauge(METRIC_LOCK_HOLD_NANOS, ()->sumLockMetric(LockTemplate.Metrics::getHoldTimeNanos));
+			metricsRegistry.gauge(METRIC_LOCK_MAX_HOLD_NANOS, this::maxLockHoldNanos);
+		}
 	}
 	
 	@Override
@@ -109,9 +143,71 @@ public class DefaultQuadModelBuilder implements QuadModelBuilder {
 	
 	private <V, C> QuadModel<V, C> build(ExecutionEntity<V, C>.ExModel execModel) {
 		QuadModel<V, C> quadModel = new QuadModel<>(execModel);
+		liveQuads.add(quadModel);
 		return quadModel;
 	}
 	
+	/**
+	 * Counts view params registered for notifications on core params, over all live quads. Walks the state trees, 
+	 * so only meant for on demand reads of the gauge.
+	 */
+	private long countSubscribers() {
+		List<QuadModel<?, ?>> quads;
+		synchronized (liveQuads) {
+			quads = new ArrayList<>(liveQuads);
+		}
+		
+		long count = 0;
+		for(QuadModel<?, ?> q : quads) {
+			try {
+				count += countSubscribers(q.getCore());
+			} catch (RuntimeException ex) {
+				// tree being mutated by a command in flight, counted on next read 
+				logit.trace(()->"Skipped counting subscribers of quad being mutated: "+ex);
+			}
+		}
+		return count;
+	}
+	
+	private List<LockTemplate.Metrics> lockMetrics() {
+		List<QuadModel<?, ?>> quads;
+		synchronized (liveQuads) {
+			quads = new ArrayList<>(liveQuads);
+		}
+		
+		List<LockTemplate.Metrics> metrics = new ArrayList<>(quads.size());
+		for(QuadModel<?, ?> q : quads)
+			metrics.add(q.getRoot().getExecutionRuntime().getLockTemplate().getMetrics());
+		
+		return metrics;
+	}
+	
+	/**
+	 * Sums the given lock metric over the root locks of all live quads.
+	 */
+	private long sumLockMetric(ToLongFunction<LockTemplate.Metrics> metric) {
+		return lockMetrics().stream().mapToLong(metric).sum();
+	}
+	
+	private long maxLockHoldNanos() {
+		return lockMetrics().stream().mapToLong(LockTemplate.Metrics::getMaxHoldTimeNanos).max().orElse(0);
+	}
+	
+	private static long countSubscribers(Model<?> m) {
+		if(m == null || m.getParams() == null)
+			return 0;
+		
+		long count = 0;
+		for(Param<?> p : m.getParams()) {
+			if(p instanceof Notification.Producer)
+				count += ((Notification.Producer<?>)p).getEventSubscribers().size();
+			
+			if(p.isNested())
+				count += countSubscribers(p.findIfNested());
+		}
+		return count;
+	}
+	
 	private <V, C> ExecutionEntity.ExConfig<V, C> buildExecConfig(Command cmd) {
 		ModelConfig<?> modelConfig = Optional.ofNullable(domainConfigApi.getRootDomain(cmd.getRootDomainAlias()))
 										.orElseThrow(()->new InvalidConfigException("Root Domain ModelConfig not found for : "+cmd.getRootDomainAlias()));
@@ -15,62 +15,79 @@
  */
 package com.antheminc.oss.nimbus.domain.model.state.extension;
 
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
-import com.antheminc.oss.nimbus.domain.cmd.Action;
-import com.antheminc.oss.nimbus.domain.cmd.Command;
-import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
-import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
-import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
-import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecutorGateway;
 import com.antheminc.oss.nimbus.domain.defn.Converters.ParamConverter;
-import com.antheminc.oss.nimbus.domain.model.config.ParamValue;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.ReferenceDataCache;
 
 /**
+ * Converts codes to labels using the static code value sets held by the {@link ReferenceDataCache}. <br>
+ * When that cache is disabled, each distinct code is searched once per request and its label kept in the request 
+ * attributes, so a grid repeating the same codes doesn't search them again for every row.
+ * 
  * @author Rakesh Patel
  *
  */
 public class StaticCodeValueBasedCodeToLabelConverter implements ParamConverter<String, String> {
 
-	private CommandExecutorGateway gateway;
+	private static final String REQUEST_LABELS = StaticCodeValueBasedCodeToLabelConverter.class.getName()+".labels";
+
+	private final ReferenceDataCache referenceDataCache;
 	
 	public StaticCodeValueBasedCodeToLabelConverter(BeanResolverStrategy beanResolver) {
-		this.gateway = beanResolver.find(CommandExecutorGateway.class);
+		this.referenceDataCache = beanResolver.get(ReferenceDataCache.class, "referenceDataCache");
 	}
 	
-	@SuppressWarnings("unchecked")
 	@Override
 	public String serialize(String input) {
-		//TODO - need to make this generic
-		Command cmd = CommandBuilder.withUri("Anthem/icr/p/staticCodeValue/_search?fn=lookup&where=staticCodeValue.paramValues.any().code.eq('"+input+"')").getCommand();
-		cmd.setAction(Action._search);
-		
-		CommandMessage cmdMsg = new CommandMessage();
-		cmdMsg.setCommand(cmd);
-		
-		MultiOutput multiOp = gateway.execute(cmdMsg);
-		
-		List<ParamValue> paramValues = (List<ParamValue>)multiOp.getSingleResult();
+		if(StringUtils.isEmpty(input))
+			return input;
 		
-		if(CollectionUtils.isEmpty(paramValues))
+		return resolve(input, input, ()->referenceDataCache.findLabel(input));
+	}
+	
+	/**
+	 * @return label of the code within the static code value set identified by paramCode, or the code itself when not found
+	 */
+	public String serialize(String paramCode, String input) {
+		if(StringUtils.isEmpty(input))
 			return input;
 		
-		return paramValues.stream()
-					.filter((pv) -> StringUtils.equalsIgnoreCase(input, (String)pv.getCode()))
-					.map((pv)-> pv.getLabel())
-					.findFirst()
-					.orElse(input);
-					
+		return resolve(paramCode+"|"+input, input, ()->referenceDataCache.findLabel(paramCode, input));
+	}
+	
+	private String resolve(String key, String input, Supplier<String> lookup) {
+		RequestAttributes reqAttributes = referenceDataCache.isEnabled() ? null : RequestContextHolder.getRequestAttributes();
+		if(reqAttributes==null)
+			return orCode(lookup.get(), input);
 		
+		Map<String, String> labels = getRequestLabels(reqAttributes);
+		return labels.computeIfAbsent(key, k->orCode(lookup.get(), input));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Map<String, String> getRequestLabels(RequestAttributes reqAttributes) {
+		Map<String, String> labels = (Map<String, String>)reqAttributes.getAttribute(REQUEST_LABELS, RequestAttributes.SCOPE_REQUEST);
+		if(labels==null) {
+			labels = new ConcurrentHashMap<>();
+			reqAttributes.setAttribute(REQUEST_LABELS, labels, RequestAttributes.SCOPE_REQUEST);
+		}
+		return labels;
+	}
+	
+	private static String orCode(String label, String code) {
+		return label==null ? code : label;
 	}
 	
 	@Override
 	public String deserialize(String input) {
 		throw new UnsupportedOperationException("RepoBasedCodeToDescConverter.deserialize is not implemented since it is not needed.");
 	}
-	
 }
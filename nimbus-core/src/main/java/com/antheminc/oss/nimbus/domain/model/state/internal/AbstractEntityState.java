@@ -64,8 +64,6 @@ public abstract class AbstractEntityState<T> implements EntityState<T> {
 	
 	@JsonIgnore final private EntityStateAspectHandlers aspectHandlers;
 	
-	@JsonIgnore final protected LockTemplate lockTemplate = new LockTemplate();
-	
 	@JsonIgnore final protected JustLogit logit = new JustLogit(getClass());
 	
 	@JsonIgnore private RulesRuntime rulesRuntime;
@@ -167,7 +165,15 @@ public abstract class AbstractEntityState<T> implements EntityState<T> {
 		String lockId = execRt.tryLock();
 		final Holder<Action> h = new Holder<>();
 		try {
-			R resp = cb.affectChange(execRt, h, lockId);
+			// hold the root lock only while state is mutated; rules, notifications & BPM below run outside of it
+			R resp = execRt.getLockTemplate().execute(()->{
+				R r = cb.affectChange(execRt, h, lockId);
+				
+				// unchanged state leaves the version, and so the etags derived from it, as is
+				if(h.getState()!=null)
+					execRt.incrementStateVersion();
+				return r;
+			});
 			
 			// fire rules if available at this param level
 			//fireRules();
@@ -216,6 +222,16 @@ public abstract class AbstractEntityState<T> implements EntityState<T> {
 			getAspectHandlers().getBpmEvaluator().apply(getRootDomain().getAssociatedParam(), processExecId);
 	}
 	
+	/**
+	 * Locks are shared per root execution instead of being allocated per param, 
+	 * resolving to the linked root when applicable.
+	 */
+	@JsonIgnore
+	@Override
+	public LockTemplate getLockTemplate() {
+		return resolveRuntime().getLockTemplate();
+	}
+	
 	protected ExecutionRuntime resolveRuntime() {
 		if(getRootExecution().getAssociatedParam().isLinked()) {
 			return getRootExecution().getAssociatedParam().findIfLinked().getRootExecution().getExecutionRuntime();
@@ -16,8 +16,12 @@
 package com.antheminc.oss.nimbus.domain.model.state.internal;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 
@@ -34,6 +38,9 @@ import com.antheminc.oss.nimbus.domain.model.state.Notification;
 import com.antheminc.oss.nimbus.domain.model.state.ParamEvent;
 import com.antheminc.oss.nimbus.domain.model.state.StateEventDelegator;
 import com.antheminc.oss.nimbus.support.JustLogit;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents.Span;
+import com.antheminc.oss.nimbus.support.pojo.LockTemplate;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -49,7 +56,13 @@ public class DefaultExecutionRuntime implements ExecutionRuntime {
 
 	private final Command rootCommand;
 	private final StateEventDelegator eventDelegator;
-
+	
+	private final LockTemplate lockTemplate = new LockTemplate();
+	
+	private final String id = UUID.randomUUID().toString();
+	
+	private final AtomicLong stateVersion = new AtomicLong();
+	
 	@Setter
 	private ExecutionModel<?> rootExecution;
 	
@@ -57,13 +70,31 @@ public class DefaultExecutionRuntime implements ExecutionRuntime {
 	
 	protected JustLogit logit = new JustLogit(this.getClass());
 	
-	private static final ThreadLocal<DefaultExecutionTxnContext> txnScopeInThread = new ThreadLocal<DefaultExecutionTxnContext>() {
+	private static final ThreadLocal<TxnScope> txnScopeInThread = new ThreadLocal<TxnScope>() {
 		@Override
-		protected DefaultExecutionTxnContext initialValue() {
-			return new DefaultExecutionTxnContext();
+		protected TxnScope initialValue() {
+			return new TxnScope();
 		}
 	};
 	
+	/**
+	 * Txn contexts of a thread keyed by runtime, so that a txn on one root does not mask txns on other roots touched 
+	 * by the same thread. Events are shared across the contexts as command listeners aggregate them per root. 
+	 */
+	private static class TxnScope {
+		private final List<ParamEvent> events = new ArrayList<>();
+		private final Map<DefaultExecutionRuntime, DefaultExecutionTxnContext> contexts = new WeakHashMap<>();
+		
+		DefaultExecutionTxnContext get(DefaultExecutionRuntime runtime) {
+			return contexts.computeIfAbsent(runtime, rt->new DefaultExecutionTxnContext(events));
+		}
+		
+		void reset() {
+			events.clear();
+			contexts.values().removeIf(txnCtx->txnCtx.getId()==null);
+		}
+	}
+	
 	
 	@Override
 	public synchronized void start() {
@@ -80,9 +111,19 @@ public class DefaultExecutionRuntime implements ExecutionRuntime {
 		this.isStarted = false;
 	}
 	
+	@Override
+	public long getStateVersion() {
+		return stateVersion.get();
+	}
+	
+	@Override
+	public void incrementStateVersion() {
+		stateVersion.incrementAndGet();
+	}
+	
 	@Override
 	public DefaultExecutionTxnContext getTxnContext() {
-		return txnScopeInThread.get();
+		return txnScopeInThread.get().get(this);
 	}
 	
 	
@@ -93,8 +134,15 @@ public class DefaultExecutionRuntime implements ExecutionRuntime {
 		
 		String lockId = UUID.randomUUID().toString();
 		getTxnContext().setId(lockId);
+		getTxnContext().setRecording(FlightRecorderEvents.begin(FlightRecorderEvents.Type.TXN));
 		
-		eventDelegator.onStartTxn(getTxnContext());
+		try {
+			eventDelegator.onStartTxn(getTxnContext());
+		} catch (RuntimeException ex) {
+			endRecording(getTxnContext(), lockId);
+			getTxnContext().setId(null);
+			throw ex;
+		}
 		
 		logit.trace(()->"Started txn with lockId: "+lockId);
 	}
@@ -108,14 +156,26 @@ public class DefaultExecutionRuntime implements ExecutionRuntime {
 		if(!isTxnStarted())
 			throw new InvalidStateException("Txn not started to stop.");
 		
-		eventDelegator.onStopTxn(getTxnContext());
-		
 		String lockId = getTxnContext().getId();
-		getTxnContext().setId(null);
+		try {
+			eventDelegator.onStopTxn(getTxnContext());
+		} finally {
+			endRecording(getTxnContext(), lockId);
+			getTxnContext().setId(null);
+		}
 		
 		logit.trace(()->"Stopped txn with lockId: "+lockId);
 	}
 	
+	private void endRecording(DefaultExecutionTxnContext txnCtx, String lockId) {
+		Span recording = txnCtx.getRecording();
+		if(recording==null)
+			return;
+		
+		txnCtx.setRecording(null);
+		recording.end(rootCommand==null ? null : rootCommand.getAbsoluteUri(), lockId);
+	}
+	
 	
 	@Override
 	public boolean isLocked(String lockId) {
@@ -218,13 +278,13 @@ public class DefaultExecutionRuntime implements ExecutionRuntime {
 	@Override
 	public void onStopRootCommandExecution(Command cmd) {
 		eventDelegator.onStopRootCommandExecution(cmd, getTxnContext());
-		txnScopeInThread.set(new DefaultExecutionTxnContext());
+		txnScopeInThread.get().reset();
 	}
 	
 	@Override
 	public void onStartCommandExecution(Command cmd) {
 		// TODO change events based command lifecycle
-		txnScopeInThread.get().getEvents().clear();
+		getTxnContext().getEvents().clear();
 		
 		eventDelegator.onStartCommandExecution(cmd);	
 	}
@@ -234,6 +294,6 @@ public class DefaultExecutionRuntime implements ExecutionRuntime {
 		eventDelegator.onStopCommandExecution(cmd, getTxnContext());
 		
 		// TODO change events based command lifecycle
-		txnScopeInThread.get().getEvents().clear();
+		getTxnContext().getEvents().clear();
 	}
 }
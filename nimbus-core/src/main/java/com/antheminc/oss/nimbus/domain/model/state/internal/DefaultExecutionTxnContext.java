@@ -27,6 +27,7 @@ import com.antheminc.oss.nimbus.domain.model.state.ExecutionTxnContext;
 import com.antheminc.oss.nimbus.domain.model.state.InvalidStateException;
 import com.antheminc.oss.nimbus.domain.model.state.Notification;
 import com.antheminc.oss.nimbus.domain.model.state.ParamEvent;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents.Span;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -36,14 +37,25 @@ import lombok.ToString;
  * @author Soham Chakravarti
  *
  */
-@Getter @Setter @ToString
+@Getter @Setter @ToString(exclude="recording")
 public class DefaultExecutionTxnContext implements ExecutionTxnContext {
 	
 	private String id;
 
 	private final BlockingQueue<Notification<Object>> notifications = new LinkedBlockingQueue<>();
 	
-	private final List<ParamEvent> events = new ArrayList<>();
+	private final List<ParamEvent> events;
+	
+	/* flight recorder event spanning the txn, ended on stop of the txn */
+	private Span recording;
+	
+	public DefaultExecutionTxnContext() {
+		this(new ArrayList<>());
+	}
+	
+	public DefaultExecutionTxnContext(List<ParamEvent> events) {
+		this.events = events;
+	}
 	
 	@Override
 	public void addNotification(Notification<Object> notification) {
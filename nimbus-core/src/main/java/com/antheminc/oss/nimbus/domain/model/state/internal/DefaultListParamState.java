@@ -31,7 +31,6 @@ import com.antheminc.oss.nimbus.domain.model.state.InvalidStateException;
 import com.antheminc.oss.nimbus.domain.model.state.Notification;
 import com.antheminc.oss.nimbus.domain.model.state.Notification.ActionType;
 import com.antheminc.oss.nimbus.domain.model.state.StateType;
-import com.antheminc.oss.nimbus.support.pojo.LockTemplate;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 
@@ -132,25 +131,21 @@ public class DefaultListParamState<T> extends DefaultParamState<List<T>> impleme
 	}
 	
 	protected void clear(boolean propagateToMapsTo) {
-		final LockTemplate rLockTemplate = isMapped() ? findIfMapped().getMapsTo().getLockTemplate() : getLockTemplate();
-
-		rLockTemplate.execute(()->{
-			if(getNestedCollectionModel().templateParams().isNullOrEmpty()) 
-				return;
+		if(getNestedCollectionModel().templateParams().isNullOrEmpty()) 
+			return;
+		
+		changeStateTemplate((execRt, h, lockId) -> {
+			// change state
+			boolean result = affectClearChange(propagateToMapsTo);
 			
-			changeStateTemplate((execRt, h, lockId) -> {
-				// change state
-				boolean result = affectClearChange(propagateToMapsTo);
-				
-				// notify
-				emitNotification(new Notification<>(this, ActionType._resetModel, this));
-				
-				// emit event
-				if(getRootExecution().getExecutionRuntime().isStarted())//if(execRt.isStarted())
-					emitEvent(Action._replace, this);
-				
-				return result;
-			});
+			// notify
+			emitNotification(new Notification<>(this, ActionType._resetModel, this));
+			
+			// emit event
+			if(getRootExecution().getExecutionRuntime().isStarted())//if(execRt.isStarted())
+				emitEvent(Action._replace, this);
+			
+			return result;
 		});
 	}
 	
@@ -173,13 +168,8 @@ public class DefaultListParamState<T> extends DefaultParamState<List<T>> impleme
 	
 	@Override
 	public boolean remove(final ListElemParam<T> pElem) {
-		final LockTemplate rLockTemplate = isMapped() ? findIfMapped().getMapsTo().getLockTemplate() : getLockTemplate();
-		
-		return rLockTemplate.execute(()->{
-			
-			return changeStateTemplate((rt, h, lockId) -> {
-				return affectRemoveChange(pElem, getRootExecution().getExecutionRuntime(), true);
-			});
+		return changeStateTemplate((rt, h, lockId) -> {
+			return affectRemoveChange(pElem, getRootExecution().getExecutionRuntime(), true);
 		});
 	}
 	
@@ -280,11 +270,7 @@ public class DefaultListParamState<T> extends DefaultParamState<List<T>> impleme
 	
 	@Override
 	public ListElemParam<T> add() {
-		final LockTemplate rLockTemplate = isMapped() ? findIfMapped().getMapsTo().getLockTemplate() : getLockTemplate();
-		
-		ListElemParam<T> pColElem = rLockTemplate.execute(()->{
-			return changeStateTemplate((rt, h, lockId)->affectAddChange(rt));
-		});
+		ListElemParam<T> pColElem = changeStateTemplate((rt, h, lockId)->affectAddChange(rt));
 		
 		// initialize for created colElem
 		pColElem.initState();
@@ -339,11 +325,7 @@ public class DefaultListParamState<T> extends DefaultParamState<List<T>> impleme
 	@Override
 	public boolean add(T elem) {
 		//ListElemParam<T> pColElem = add();
-		final LockTemplate rLockTemplate = isMapped() ? findIfMapped().getMapsTo().getLockTemplate() : getLockTemplate();
-		
-		ListElemParam<T> pColElem = rLockTemplate.execute(()->{
-			return changeStateTemplate((rt, h, lockId)->affectAddChange(rt));
-		});
+		ListElemParam<T> pColElem = changeStateTemplate((rt, h, lockId)->affectAddChange(rt));
 
 		pColElem.setState(elem);		//lockTemplate.execute(()->pColElem.setState(elem));
 		
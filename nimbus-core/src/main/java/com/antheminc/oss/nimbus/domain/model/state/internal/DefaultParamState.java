@@ -53,6 +53,7 @@ import com.antheminc.oss.nimbus.domain.model.state.event.StateEventHandlers.OnSt
 import com.antheminc.oss.nimbus.domain.model.state.event.StateEventHandlers.OnStateLoadHandler;
 import com.antheminc.oss.nimbus.entity.Findable;
 import com.antheminc.oss.nimbus.support.Holder;
+import com.antheminc.oss.nimbus.support.trace.ExecutionTracer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.Getter;
@@ -280,6 +281,17 @@ public class DefaultParamState<T> extends AbstractEntityState<T> implements Para
 		return changeStateTemplate((rt, h, lockId)->affectSetStateChange(state, rt, h, lockId));
 	}
 	
+	@Override
+	public Action applyChanges(Supplier<Action> changes) {
+		return changeStateTemplate((rt, h, lockId)->{
+			Action a = changes.get();
+			if(a!=null)
+				h.setState(a);
+			
+			return a;
+		});
+	}
+	
 	protected final Action affectSetStateChange(T state, ExecutionRuntime execRt, Holder<Action> h, String localLockId) {
 		state = preSetState(state);		
 		boolean isLeaf = isLeafOrCollectionWithLeafElems();
@@ -348,7 +360,7 @@ public class DefaultParamState<T> extends AbstractEntityState<T> implements Para
 			eventHandlerConfig.getOnStateLoadAnnotations().stream()
 				.forEach(ac->{
 					OnStateLoadHandler<Annotation> handler = eventHandlerConfig.getOnStateLoadHandler(ac);
-					handler.handle(ac, p);
+					ExecutionTracer.run(ExecutionTracer.CATEGORY_EVENT, ()->ac.annotationType().getSimpleName()+" "+p.getPath(), ()->handler.handle(ac, p));
 				});
 		}
 	}
@@ -365,7 +377,7 @@ public class DefaultParamState<T> extends AbstractEntityState<T> implements Para
 			eventHandlerConfig.getOnStateChangeAnnotations().stream()
 				.forEach(ac->{
 					OnStateChangeHandler<Annotation> handler = eventHandlerConfig.getOnStateChangeHandler(ac);
-					handler.handle(ac, txnCtx, new ParamEvent(a, p));
+					ExecutionTracer.run(ExecutionTracer.CATEGORY_EVENT, ()->ac.annotationType().getSimpleName()+" "+p.getPath(), ()->handler.handle(ac, txnCtx, new ParamEvent(a, p)));
 				});
 		}
 	}
@@ -694,6 +706,7 @@ public class DefaultParamState<T> extends AbstractEntityState<T> implements Para
 	}
 	
 	private void emitParamContextEvent() {
+		resolveRuntime().incrementStateVersion();
 		resolveRuntime().emitEvent(new ParamEvent(Action._update, this));
 	}
 	
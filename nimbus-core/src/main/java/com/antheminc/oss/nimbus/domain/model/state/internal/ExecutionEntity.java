@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -265,6 +266,9 @@ public class ExecutionEntity<V, C> extends AbstractEntity.IdString implements Se
 		@JsonIgnore
 		final private DefaultExecutionRuntime executionRuntime;
 		
+		@JsonIgnore
+		private Set<String> loadedProjection;
+		
 		public ExModel(Command rootCommand, ExParam associatedParam, ModelConfig<ExecutionEntity<V, C>> modelConfig, EntityStateAspectHandlers provider) {
 			this(rootCommand, associatedParam, modelConfig, provider, new DefaultExecutionRuntime(rootCommand, new DefaultStateEventDelegator()));
 			
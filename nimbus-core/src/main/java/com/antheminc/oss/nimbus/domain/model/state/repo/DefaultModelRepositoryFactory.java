@@ -15,8 +15,23 @@
  */
 package com.antheminc.oss.nimbus.domain.model.state.repo;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.config.builder.DomainConfigBuilder;
 import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.CacheInvalidationBus;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.DefaultSearchCachePolicy;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.EntityCachingModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.RepositoryCache;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.SearchCachePolicy;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.SearchCachingModelRepository;
 
 
 /**
@@ -28,16 +43,65 @@ public class DefaultModelRepositoryFactory implements ModelRepositoryFactory {
 
 	private final BeanResolverStrategy beanResolver;
 	
+	private final Map<Repo.Database, ModelRepository> repositories = new ConcurrentHashMap<>();
+	
+	private volatile Set<String> entityCacheAliases;
+	
+	private final SearchCachePolicy searchCachePolicy;
+	
 	public DefaultModelRepositoryFactory(BeanResolverStrategy beanResolver) {
 		this.beanResolver = beanResolver;
+		this.searchCachePolicy = new DefaultSearchCachePolicy(()->beanResolver.get(DomainConfigBuilder.class).getRootDomains());
 	}
 	
 	
 	@Override
 	public ModelRepository get(Repo repo) {
-		return beanResolver.get(ModelRepository.class, repo.value().name());
+		return get(repo.value());
 	}
 	
+	/**
+	 * Resolved repositories are decorated with the entity and search caches, which only engage for aliases of domains 
+	 * configured with {@link Repo.Cache#rep_entity} and {@link Repo#cacheSearch()} respectively, and outermost with 
+	 * {@link TracingModelRepository}.
+	 */
+	@Override
+	public ModelRepository get(Repo.Database db) {
+		return repositories.computeIfAbsent(db, k->new TracingModelRepository(decorate(beanResolver.get(ModelRepository.class, k.name()))));
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected ModelRepository decorate(ModelRepository rep) {
+		CacheInvalidationBus invalidationBus = beanResolver.find(CacheInvalidationBus.class, "repo.cacheInvalidationBus");
+		if(invalidationBus==null)
+			return rep;
+		
+		ModelRepository decorated = rep;
+		
+		RepositoryCache<EntityCachingModelRepository.EntityKey, Object> entityCache = beanResolver.find(RepositoryCache.class, "repo.entityCache");
+		if(entityCache!=null)
+			decorated = new EntityCachingModelRepository(decorated, entityCache, invalidationBus, this::isEntityCacheAlias);
+		
+		RepositoryCache<SearchCachingModelRepository.SearchKey, Object> searchCache = beanResolver.find(RepositoryCache.class, "repo.searchCache");
+		if(searchCache!=null)
+			decorated = new SearchCachingModelRepository(decorated, searchCache, invalidationBus, searchCachePolicy);
+		
+		return decorated;
+	}
+	
+	protected boolean isEntityCacheAlias(String alias) {
+		if(entityCacheAliases==null) {
+			entityCacheAliases = beanResolver.get(DomainConfigBuilder.class).getRootDomains().stream()
+									.filter(m->m.getRepo()!=null && m.getRepo().cache()==Repo.Cache.rep_entity)
+									.map(DefaultModelRepositoryFactory::resolveRepoAlias)
+									.collect(Collectors.toSet());
+		}
+		return entityCacheAliases.contains(alias);
+	}
+	
+	private static String resolveRepoAlias(ModelConfig<?> mConfig) {
+		return StringUtils.isNotBlank(mConfig.getRepo().alias()) ? mConfig.getRepo().alias() : mConfig.getAlias();
+	}
 
 	@Override
 	public ModelPersistenceHandler getHandler(Repo repo) {
@@ -17,6 +17,7 @@ package com.antheminc.oss.nimbus.domain.model.state.repo;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -77,11 +78,19 @@ public interface ModelRepository {
 	default public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url) {
 		return this._get(id, referredClass, alias);
 	}
+	// loads only the given bean paths (relative to entity root), stores not supporting projections load the whole entity
+	default public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url, Set<String> projection) {
+		return this._get(id, referredClass, alias, url);
+	}
 	
 	//Action._info
 	
 	//Action._update: partial update
 	public <ID extends Serializable,T> T _update(String alias, ID id, String path, T state);
+	// partial update by store field path relative to the entity, e.g. "a.b.0.c", empty for the whole entity
+	default public <ID extends Serializable,T> T _updateField(String alias, ID id, String fieldPath, T state) {
+		return this._update(alias, id, "/"+StringUtils.replaceChars(fieldPath, '.', '/'), state);
+	}
 	
 	//Action._replace: complete update
 	public void _replace(Param<?> param);
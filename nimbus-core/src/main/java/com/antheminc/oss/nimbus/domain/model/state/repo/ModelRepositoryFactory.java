@@ -24,6 +24,8 @@ import com.antheminc.oss.nimbus.domain.defn.Repo;
 public interface ModelRepositoryFactory {
 
 	public ModelRepository get(Repo repo);
+	
+	public ModelRepository get(Repo.Database db);
 
 	public ModelPersistenceHandler getHandler(Repo repo);
 }
@@ -0,0 +1,113 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria;
+import com.antheminc.oss.nimbus.support.trace.ExecutionTracer;
+
+import lombok.Getter;
+
+/**
+ * Records each call made to the decorated {@link ModelRepository} as a {@link ExecutionTracer#CATEGORY_REPOSITORY} node of the 
+ * execution trace active on the calling thread, if any. Applied outermost, so that calls served from the repository caches are 
+ * traced as well.
+ */
+public class TracingModelRepository implements ModelRepository {
+
+	@Getter
+	private final ModelRepository delegate;
+	
+	public TracingModelRepository(ModelRepository delegate) {
+		this.delegate = Objects.requireNonNull(delegate, ()->"Delegate repository must not be null.");
+	}
+	
+	@Override
+	public <T> T _new(ModelConfig<T> mConfig) {
+		return trace("_new", mConfig.getAlias(), ()->delegate._new(mConfig));
+	}
+	
+	@Override
+	public <T> T _new(ModelConfig<T> mConfig, T newState) {
+		return trace("_new", mConfig.getAlias(), ()->delegate._new(mConfig, newState));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _save(String alias, T state) {
+		return trace("_save", alias, ()->delegate._save(alias, state));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias) {
+		return trace("_get", alias, ()->delegate._get(id, referredClass, alias));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url) {
+		return trace("_get", alias, ()->delegate._get(id, referredClass, alias, url));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url, Set<String> projection) {
+		return trace("_get", alias, ()->delegate._get(id, referredClass, alias, url, projection));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _update(String alias, ID id, String path, T state) {
+		return trace("_update", alias, ()->delegate._update(alias, id, path, state));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _updateField(String alias, ID id, String fieldPath, T state) {
+		return trace("_update", alias, ()->delegate._updateField(alias, id, fieldPath, state));
+	}
+	
+	@Override
+	public void _replace(Param<?> param) {
+		ExecutionTracer.run(ExecutionTracer.CATEGORY_REPOSITORY, "_replace", param.getPath(), ()->delegate._replace(param));
+	}
+	
+	@Override
+	public void _replace(List<Param<?>> params) {
+		ExecutionTracer.run(ExecutionTracer.CATEGORY_REPOSITORY, "_replace", null, ()->delegate._replace(params));
+	}
+	
+	@Override
+	public <T> T _replace(String alias, T state) {
+		return trace("_replace", alias, ()->delegate._replace(alias, state));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _delete(ID id, Class<T> referredClass, String alias) {
+		return trace("_delete", alias, ()->delegate._delete(id, referredClass, alias));
+	}
+	
+	@Override
+	public <T> Object _search(Class<T> referredDomainClass, String alias, Supplier<SearchCriteria<?>> criteria) {
+		return trace("_search", alias, ()->delegate._search(referredDomainClass, alias, criteria));
+	}
+	
+	private static <R> R trace(String action, String alias, Supplier<R> work) {
+		return ExecutionTracer.span(ExecutionTracer.CATEGORY_REPOSITORY, action, alias, work);
+	}
+}
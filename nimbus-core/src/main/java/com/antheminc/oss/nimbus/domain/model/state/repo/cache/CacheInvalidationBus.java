@@ -0,0 +1,30 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Propagates {@link CacheInvalidationEvent}s between repository caches, including those running on other nodes. <br>
+ * Implementations backed by a messaging infrastructure should deliver published events to subscribers of all nodes, 
+ * including the publishing node.
+ */
+public interface CacheInvalidationBus {
+
+	public void publish(CacheInvalidationEvent event);
+	
+	public void subscribe(Consumer<CacheInvalidationEvent> subscriber);
+}
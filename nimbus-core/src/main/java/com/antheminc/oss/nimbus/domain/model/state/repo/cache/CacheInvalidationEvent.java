@@ -0,0 +1,42 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Notifies repository caches that persisted state of an alias has changed. <br>
+ * A null {@link #getId()} denotes that all cached entries of the alias must be dropped.
+ */
+@Getter @RequiredArgsConstructor @ToString
+public class CacheInvalidationEvent implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String originId;
+	
+	private final String alias;
+	
+	private final Serializable id;
+	
+	public boolean isAliasWide() {
+		return id==null;
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+
+/**
+ * Derives search caching from {@link Repo#cacheSearch()} of root domains, 
+ * overridden per named query by {@link Repo.NamedNativeQuery#cacheTtlSeconds()}.
+ */
+public class DefaultSearchCachePolicy implements SearchCachePolicy {
+
+	private final Supplier<Collection<ModelConfig<?>>> rootDomains;
+	
+	private volatile Map<String, Repo> reposByAlias;
+	
+	public DefaultSearchCachePolicy(Supplier<Collection<ModelConfig<?>>> rootDomains) {
+		this.rootDomains = rootDomains;
+	}
+	
+	@Override
+	public boolean isCacheable(String alias) {
+		Repo repo = getReposByAlias().get(alias);
+		if(repo==null)
+			return false;
+		
+		return repo.cacheSearch() || Stream.of(repo.namedNativeQueries()).anyMatch(q->q.cacheTtlSeconds() > 0);
+	}
+	
+	@Override
+	public long getTtlSeconds(String alias, String where) {
+		Repo repo = getReposByAlias().get(alias);
+		if(repo==null)
+			return NO_CACHE;
+		
+		Repo.NamedNativeQuery namedQuery = StringUtils.isBlank(where) ? null : Stream.of(repo.namedNativeQueries())
+													.filter(q->StringUtils.equalsIgnoreCase(q.name(), where))
+													.findFirst()
+													.orElse(null);
+		
+		if(namedQuery!=null && namedQuery.cacheTtlSeconds() >= 0)
+			return namedQuery.cacheTtlSeconds()==0 ? NO_CACHE : namedQuery.cacheTtlSeconds();
+		
+		return repo.cacheSearch() ? DEFAULT_TTL : NO_CACHE;
+	}
+	
+	private Map<String, Repo> getReposByAlias() {
+		if(reposByAlias==null) {
+			Collection<ModelConfig<?>> domains = rootDomains.get();
+			reposByAlias = domains==null ? Collections.emptyMap() : domains.stream()
+								.filter(m->Repo.Database.exists(m.getRepo()))
+								.collect(Collectors.toMap(DefaultSearchCachePolicy::resolveRepoAlias, m->m.getRepo(), (r1, r2)->r1));
+		}
+		return reposByAlias;
+	}
+	
+	private static String resolveRepoAlias(ModelConfig<?> mConfig) {
+		return StringUtils.isNotBlank(mConfig.getRepo().alias()) ? mConfig.getRepo().alias() : mConfig.getAlias();
+	}
+}
@@ -0,0 +1,273 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.data.domain.Persistable;
+
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria;
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Read-through entity cache decorating a {@link ModelRepository}, enabled per domain via {@link Repo.Cache#rep_entity}. <br>
+ * 
+ * Entries are keyed by alias and id, and are dropped on any write against the same key ({@code _save, _update, _replace, _delete}). 
+ * Each alias carries a write generation, so that a read racing with a write never re-populates the cache with the stale state it loaded. 
+ * Invalidations are broadcast over the {@link CacheInvalidationBus} to keep caches of other nodes coherent. <br>
+ * 
+ * Cached entities are handed out as copies since callers build mutable state trees on top of them.
+ */
+public class EntityCachingModelRepository implements ModelRepository {
+
+	/**
+	 * Ids are compared by their string form, as reads resolve ids from the command uri whereas writes carry the typed id of the entity.
+	 */
+	@Getter @EqualsAndHashCode @ToString
+	public static class EntityKey {
+		private final String alias;
+		private final String id;
+		
+		public EntityKey(String alias, Serializable id) {
+			this.alias = alias;
+			this.id = String.valueOf(id);
+		}
+	}
+	
+	private final JustLogit logit = new JustLogit(getClass());
+	
+	@Getter
+	private final ModelRepository delegate;
+	
+	private final RepositoryCache<EntityKey, Object> cache;
+	
+	private final CacheInvalidationBus invalidationBus;
+	
+	private final Predicate<String> cacheableAlias;
+	
+	private final String originId = UUID.randomUUID().toString();
+	
+	private final Map<String, AtomicLong> aliasGenerations = new ConcurrentHashMap<>();
+	
+	public EntityCachingModelRepository(ModelRepository delegate, RepositoryCache<EntityKey, Object> cache, CacheInvalidationBus invalidationBus, Predicate<String> cacheableAlias) {
+		this.delegate = Objects.requireNonNull(delegate, ()->"Delegate repository must not be null.");
+		this.cache = cache;
+		this.invalidationBus = invalidationBus;
+		this.cacheableAlias = cacheableAlias;
+		
+		this.invalidationBus.subscribe(this::onInvalidationEvent);
+	}
+	
+	@Override
+	public <T> T _new(ModelConfig<T> mConfig) {
+		return delegate._new(mConfig);
+	}
+	
+	@Override
+	public <T> T _new(ModelConfig<T> mConfig, T newState) {
+		return delegate._new(mConfig, newState);
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _save(String alias, T state) {
+		try {
+			return delegate._save(alias, state);
+		} finally {
+			invalidate(alias, idOf(state));
+		}
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias) {
+		return readThrough(id, referredClass, alias, ()->delegate._get(id, referredClass, alias));
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url) {
+		return readThrough(id, referredClass, alias, ()->delegate._get(id, referredClass, alias, url));
+	}
+	
+	/**
+	 * Partially loaded entities are neither served from nor put into the cache.
+	 */
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url, Set<String> projection) {
+		return delegate._get(id, referredClass, alias, url, projection);
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _update(String alias, ID id, String path, T state) {
+		try {
+			return delegate._update(alias, id, path, state);
+		} finally {
+			invalidate(alias, id);
+		}
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _updateField(String alias, ID id, String fieldPath, T state) {
+		try {
+			return delegate._updateField(alias, id, fieldPath, state);
+		} finally {
+			invalidate(alias, id);
+		}
+	}
+	
+	@Override
+	public void _replace(Param<?> param) {
+		try {
+			delegate._replace(param);
+		} finally {
+			invalidate(rootAliasOf(param), rootIdOf(param));
+		}
+	}
+	
+	@Override
+	public void _replace(List<Param<?>> params) {
+		try {
+			delegate._replace(params);
+		} finally {
+			if(params!=null)
+				params.forEach(p->invalidate(rootAliasOf(p), rootIdOf(p)));
+		}
+	}
+	
+	@Override
+	public <T> T _replace(String alias, T state) {
+		try {
+			return delegate._replace(alias, state);
+		} finally {
+			invalidate(alias, idOf(state));
+		}
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _delete(ID id, Class<T> referredClass, String alias) {
+		try {
+			return delegate._delete(id, referredClass, alias);
+		} finally {
+			invalidate(alias, id);
+		}
+	}
+	
+	@Override
+	public <T> Object _search(Class<T> referredDomainClass, String alias, Supplier<SearchCriteria<?>> criteria) {
+		return delegate._search(referredDomainClass, alias, criteria);
+	}
+	
+	public RepositoryCache.Stats getStats() {
+		return cache.getStats();
+	}
+	
+	
+	private <ID extends Serializable, T> T readThrough(ID id, Class<T> referredClass, String alias, Supplier<T> loader) {
+		if(id==null || !cacheableAlias.test(alias))
+			return loader.get();
+		
+		EntityKey key = new EntityKey(alias, id);
+		Object cached = cache.get(key);
+		if(referredClass.isInstance(cached)) 
+			return referredClass.cast(copy(cached));
+		
+		long generation = generation(alias).get();
+		T state = loader.get();
+		
+		if(state instanceof Serializable) {
+			Serializable snapshot = copy((Serializable)state);
+			
+			// skip populating if a write on the alias happened while loading
+			if(generation(alias).get()==generation) 
+				cache.put(key, snapshot);
+		}
+		return state;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <S> S copy(Object state) {
+		return (S)SerializationUtils.clone((Serializable)state);
+	}
+	
+	static Serializable idOf(Object state) {
+		if(state instanceof Persistable) {
+			Object id = ((Persistable<?>)state).getId();
+			return id instanceof Serializable ? (Serializable)id : null;
+		}
+		return null;
+	}
+	
+	/**
+	 * @return alias of the store collection backing the root domain of the param
+	 */
+	static String rootAliasOf(Param<?> param) {
+		return param.getRootDomain().getConfig().getPersistenceTarget().getAlias();
+	}
+	
+	/**
+	 * @return id of the root domain of the param, or null if not set, in which case the whole alias is invalidated
+	 */
+	static Serializable rootIdOf(Param<?> param) {
+		Param<?> idParam = param.getRootDomain().findParamByPath("/id");
+		Object id = idParam==null ? null : idParam.getState();
+		return id instanceof Serializable ? (Serializable)id : null;
+	}
+	
+	private AtomicLong generation(String alias) {
+		return aliasGenerations.computeIfAbsent(alias, k->new AtomicLong());
+	}
+	
+	private void invalidate(String alias, Serializable id) {
+		if(!cacheableAlias.test(alias))
+			return;
+		
+		invalidateLocal(alias, id);
+		invalidationBus.publish(new CacheInvalidationEvent(originId, alias, id));
+	}
+	
+	private void invalidateLocal(String alias, Serializable id) {
+		generation(alias).incrementAndGet();
+		
+		if(id==null) 
+			cache.removeIf(k->k.getAlias().equals(alias));
+		else
+			cache.remove(new EntityKey(alias, id));
+	}
+	
+	private void onInvalidationEvent(CacheInvalidationEvent event) {
+		if(originId.equals(event.getOriginId()))
+			return;
+		
+		logit.trace(()->"Received entity cache invalidation: "+event);
+		invalidateLocal(event.getAlias(), event.getId());
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidation events synchronously to subscribers within the same JVM. <br>
+ * Sufficient for single node deployments and tests, multi-node deployments should provide a distributed implementation.
+ */
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+	private final List<Consumer<CacheInvalidationEvent>> subscribers = new CopyOnWriteArrayList<>();
+	
+	@Override
+	public void publish(CacheInvalidationEvent event) {
+		subscribers.forEach(s->s.accept(event));
+	}
+	
+	@Override
+	public void subscribe(Consumer<CacheInvalidationEvent> subscriber) {
+		subscribers.add(subscriber);
+	}
+}
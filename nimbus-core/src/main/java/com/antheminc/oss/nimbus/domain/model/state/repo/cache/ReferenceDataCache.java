@@ -0,0 +1,284 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.defn.Domain;
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.ParamValue;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria.QuerySearchCriteria;
+import com.antheminc.oss.nimbus.entity.StaticCodeValue;
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Holds the {@link StaticCodeValue} reference data as {@link ParamValue} lists shared across requests, along with the 
+ * code to label maps used by {@link com.antheminc.oss.nimbus.domain.model.state.extension.StaticCodeValueBasedCodeToLabelConverter}. 
+ * Values are handed out as immutable copies, so callers can't alter the shared ones. <br>
+ * 
+ * All sets are loaded with a single search on first use, or when the application context is refreshed with 
+ * <tt>warmOnStartup</tt>, and again lazily once the ttl elapses or a write to the alias is broadcast on the 
+ * {@link CacheInvalidationBus}. Lookups that can't be resolved to a param code are cached by their lookup uri for the same ttl. <br>
+ * 
+ * Writes made outside the repository are not broadcast, so a ttl of 0 disables caching altogether: every lookup then 
+ * reads through with a search limited to the param code or code being looked up.
+ */
+public class ReferenceDataCache implements ApplicationListener<ContextRefreshedEvent> {
+
+	public static final String ALIAS = AnnotationUtils.findAnnotation(StaticCodeValue.class, Domain.class).value();
+	
+	private static final Pattern PARAM_CODE_WHERE = Pattern.compile("^\\s*"+ALIAS+"\\.paramCode\\.eq\\(\\s*['\"]([^'\"]+)['\"]\\s*\\)\\s*$");
+	
+	private static final JustLogit logit = new JustLogit(ReferenceDataCache.class);
+	
+	private final BeanResolverStrategy beanResolver;
+	
+	private final RepositoryCache<String, List<ParamValue>> lookups;
+	
+	private final long ttlMillis;
+	
+	private final AtomicLong generation = new AtomicLong();
+	
+	private volatile CodeValueSets sets;
+	
+	@Getter @Setter
+	private boolean warmOnStartup;
+	
+	public ReferenceDataCache(BeanResolverStrategy beanResolver, RepositoryCache<String, List<ParamValue>> lookups, long ttl, TimeUnit unit) {
+		this.beanResolver = beanResolver;
+		this.lookups = lookups;
+		this.ttlMillis = unit.toMillis(ttl);
+		
+		CacheInvalidationBus invalidationBus = beanResolver.find(CacheInvalidationBus.class, "repo.cacheInvalidationBus");
+		if(invalidationBus!=null)
+			invalidationBus.subscribe(this::onInvalidationEvent);
+	}
+	
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if(!isEnabled() || !isWarmOnStartup())
+			return;
+		
+		try {
+			getSets();
+		} catch (RuntimeException ex) {
+			logit.error(()->"Failed to warm up reference data of alias: "+ALIAS+", it will be loaded on first lookup", ex);
+		}
+	}
+	
+	public boolean isEnabled() {
+		return ttlMillis > 0;
+	}
+	
+	/**
+	 * @return immutable copy of the values of the static code value set, or null if no such set exists
+	 */
+	public List<ParamValue> getByParamCode(String paramCode) {
+		return copyOf(getSets(byParamCode(paramCode)).byParamCode.get(paramCode));
+	}
+	
+	/**
+	 * @return label of the code, compared case insensitively, in the first static code value set containing it, or null if none does
+	 */
+	public String findLabel(String code) {
+		return code==null ? null : getSets(byCode(code)).labels.get(StringUtils.lowerCase(code));
+	}
+	
+	/**
+	 * @return label of the code, compared case insensitively, in the static code value set of the param code, or null if not found
+	 */
+	public String findLabel(String paramCode, String code) {
+		if(code==null)
+			return null;
+		
+		Map<String, String> labels = getSets(byParamCode(paramCode)).labelsByParamCode.get(paramCode);
+		return labels==null ? null : labels.get(StringUtils.lowerCase(code));
+	}
+	
+	/**
+	 * Resolves a static code value lookup, served from the preloaded sets when the where clause only filters by 
+	 * param code and from the lookup uri cache otherwise.
+	 * 
+	 * @param lookupUri uri of the lookup command, used as the cache key
+	 * @param where resolved where clause of the lookup
+	 * @param loader searches the values on a cache miss, or always when caching is disabled; null results aren't cached
+	 * @return immutable copy of the values
+	 */
+	public List<ParamValue> get(String lookupUri, String where, Supplier<List<ParamValue>> loader) {
+		if(!isEnabled())
+			return loader.get();
+		
+		String paramCode = findParamCode(where);
+		if(paramCode!=null)
+			return getByParamCode(paramCode);
+		
+		List<ParamValue> cached = lookups.get(lookupUri);
+		if(cached!=null)
+			return copyOf(cached);
+		
+		long gen = generation.get();
+		List<ParamValue> loaded = loader.get();
+		if(loaded==null)
+			return null;
+		
+		// skip populating if a write on the alias happened while searching
+		if(generation.get()==gen)
+			lookups.put(lookupUri, copyOf(loaded), ttlMillis, TimeUnit.MILLISECONDS);
+		
+		return copyOf(loaded);
+	}
+	
+	public void invalidate() {
+		synchronized(generation) {
+			generation.incrementAndGet();
+			sets = null;
+		}
+		lookups.clear();
+	}
+	
+	public RepositoryCache.Stats getStats() {
+		return lookups.getStats();
+	}
+	
+	protected static String findParamCode(String where) {
+		if(where==null)
+			return null;
+		
+		Matcher m = PARAM_CODE_WHERE.matcher(where);
+		return m.matches() ? m.group(1) : null;
+	}
+	
+	private static List<ParamValue> copyOf(List<ParamValue> values) {
+		if(values==null)
+			return null;
+		
+		List<ParamValue> copies = new ArrayList<>(values.size());
+		for(ParamValue pv : values)
+			copies.add(pv==null ? null : new ParamValue(pv.getCode(), pv.getLabel(), pv.getDesc()));
+		
+		return Collections.unmodifiableList(copies);
+	}
+	
+	private static String byParamCode(String paramCode) {
+		return ALIAS+".paramCode.eq('"+paramCode+"')";
+	}
+	
+	private static String byCode(String code) {
+		return ALIAS+".paramValues.any().code.eq('"+code+"')";
+	}
+	
+	/**
+	 * @param where limits the search to the sets being looked up when caching is disabled, all sets are loaded otherwise
+	 */
+	protected CodeValueSets getSets(String where) {
+		return isEnabled() ? getSets() : new CodeValueSets(load(where));
+	}
+	
+	protected CodeValueSets getSets() {
+		CodeValueSets current = sets;
+		if(current!=null && !current.isExpired(ttlMillis))
+			return current;
+		
+		long gen = generation.get();
+		CodeValueSets loaded = new CodeValueSets(load(null));
+		
+		synchronized(generation) {
+			if(generation.get()==gen)
+				sets = loaded;
+		}
+		return loaded;
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected List<StaticCodeValue> load(String where) {
+		Repo repo = AnnotationUtils.findAnnotation(StaticCodeValue.class, Repo.class);
+		
+		return (List<StaticCodeValue>)beanResolver.get(ModelRepositoryFactory.class).get(repo)
+					._search(StaticCodeValue.class, ALIAS, ()->{
+						QuerySearchCriteria criteria = new QuerySearchCriteria();
+						criteria.setWhere(where);
+						return criteria;
+					});
+	}
+	
+	private void onInvalidationEvent(CacheInvalidationEvent event) {
+		if(!ALIAS.equals(event.getAlias()))
+			return;
+		
+		logit.trace(()->"Received reference data invalidation: "+event);
+		invalidate();
+	}
+	
+	
+	protected static class CodeValueSets {
+		
+		private final Map<String, List<ParamValue>> byParamCode = new HashMap<>();
+		
+		private final Map<String, Map<String, String>> labelsByParamCode = new HashMap<>();
+		
+		private final Map<String, String> labels = new HashMap<>();
+		
+		private final long loadedAt = System.currentTimeMillis();
+		
+		CodeValueSets(List<StaticCodeValue> codeValues) {
+			if(CollectionUtils.isEmpty(codeValues))
+				return;
+			
+			for(StaticCodeValue codeValue : codeValues) {
+				List<ParamValue> values = codeValue.getParamValues()==null ? Collections.emptyList() : new ArrayList<>(codeValue.getParamValues());
+				
+				if(byParamCode.putIfAbsent(codeValue.getParamCode(), Collections.unmodifiableList(values))!=null)
+					logit.warn(()->"Found more than one "+ALIAS+" for paramCode: "+codeValue.getParamCode()+", using the first one");
+				
+				Map<String, String> setLabels = new HashMap<>();
+				for(ParamValue pv : values) {
+					if(pv.getCode()==null || pv.getLabel()==null)
+						continue;
+					
+					// first match wins, in line with the lookup order of the static code value sets
+					String code = StringUtils.lowerCase(String.valueOf(pv.getCode()));
+					setLabels.putIfAbsent(code, pv.getLabel());
+					labels.putIfAbsent(code, pv.getLabel());
+				}
+				labelsByParamCode.putIfAbsent(codeValue.getParamCode(), setLabels);
+			}
+		}
+		
+		boolean isExpired(long ttlMillis) {
+			return System.currentTimeMillis() - loadedAt > ttlMillis;
+		}
+	}
+}
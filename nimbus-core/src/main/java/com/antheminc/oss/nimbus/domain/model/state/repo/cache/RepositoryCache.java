@@ -0,0 +1,148 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Size bounded, least-recently-used cache whose entries expire after a time-to-live. <br>
+ * Used by the repository level caches to hold entities and search results between commands.
+ */
+public class RepositoryCache<K, V> {
+
+	@Getter @RequiredArgsConstructor @ToString
+	public static class Stats {
+		private final long hits;
+		private final long misses;
+		private final long evictions;
+		private final int size;
+	}
+	
+	@RequiredArgsConstructor
+	private static class Entry<V> {
+		private final V value;
+		private final long expiresAtNanos;
+		
+		boolean isExpired(long now) {
+			return now - expiresAtNanos >= 0;
+		}
+	}
+	
+	private final int maxSize;
+	private final long defaultTtlNanos;
+	
+	private final LinkedHashMap<K, Entry<V>> entries;
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	
+	public RepositoryCache(int maxSize, long ttl, TimeUnit unit) {
+		this.maxSize = maxSize;
+		this.defaultTtlNanos = unit.toNanos(ttl);
+		
+		this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				boolean evict = size() > RepositoryCache.this.maxSize;
+				if(evict)
+					evictions.increment();
+				
+				return evict;
+			}
+		};
+	}
+	
+	public V get(K key) {
+		long now = System.nanoTime();
+		synchronized (entries) {
+			Entry<V> e = entries.get(key);
+			if(e==null) {
+				misses.increment();
+				return null;
+			}
+			
+			if(e.isExpired(now)) {
+				entries.remove(key);
+				evictions.increment();
+				misses.increment();
+				return null;
+			}
+			
+			hits.increment();
+			return e.value;
+		}
+	}
+	
+	public void put(K key, V value) {
+		put(key, value, defaultTtlNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public void put(K key, V value, long ttl, TimeUnit unit) {
+		if(maxSize <= 0 || value==null)
+			return;
+		
+		Entry<V> e = new Entry<>(value, System.nanoTime() + unit.toNanos(ttl));
+		synchronized (entries) {
+			entries.put(key, e);
+		}
+	}
+	
+	public V remove(K key) {
+		synchronized (entries) {
+			Entry<V> e = entries.remove(key);
+			return e==null ? null : e.value;
+		}
+	}
+	
+	public int removeIf(Predicate<K> keyFilter) {
+		int removed = 0;
+		synchronized (entries) {
+			for(Iterator<K> it = entries.keySet().iterator(); it.hasNext();) {
+				if(keyFilter.test(it.next())) {
+					it.remove();
+					removed++;
+				}
+			}
+		}
+		return removed;
+	}
+	
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+	
+	public Stats getStats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+		return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+	}
+}
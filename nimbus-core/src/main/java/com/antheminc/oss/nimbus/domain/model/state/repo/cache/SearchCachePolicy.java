@@ -0,0 +1,37 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+/**
+ * Decides whether {@code _search} results of an alias may be cached, and for how long.
+ */
+public interface SearchCachePolicy {
+
+	/* results must not be cached */
+	public static final long NO_CACHE = -1;
+	
+	/* results are cached for the default ttl of the search cache */
+	public static final long DEFAULT_TTL = 0;
+	
+	public boolean isCacheable(String alias);
+	
+	/**
+	 * @param alias repository alias being searched
+	 * @param where raw where request parameter, which may refer to a named query
+	 * @return ttl in seconds, or one of {@link #NO_CACHE}, {@link #DEFAULT_TTL}
+	 */
+	public long getTtlSeconds(String alias, String where);
+}
@@ -0,0 +1,329 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Pageable;
+
+import com.antheminc.oss.nimbus.domain.defn.Constants;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria.ProjectCriteria;
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Caches {@code _search} results of a {@link ModelRepository}, for aliases enabled by the {@link SearchCachePolicy}. <br>
+ * 
+ * Entries are keyed by referred class, alias and the normalized {@link SearchCriteria}, and all entries of an alias are dropped 
+ * on any write to it, locally or as broadcast over the {@link CacheInvalidationBus}. 
+ * Criteria with non-textual where clauses (search by example) are not cached. <br>
+ * 
+ * Hits and misses are tracked overall via {@link #getStats()} and per alias and shape of the where clause (named query) via {@link #getQueryStats()}, 
+ * where literals are masked so that the same query with different values is tracked once.
+ */
+public class SearchCachingModelRepository implements ModelRepository {
+
+	@Getter @EqualsAndHashCode @ToString
+	public static class SearchKey {
+		private final String referredClass;
+		private final String alias;
+		private final String criteriaType;
+		private final String where;
+		private final String orderby;
+		private final String fetch;
+		private final String aggregate;
+		private final String projection;
+		private final String page;
+		
+		public SearchKey(Class<?> referredClass, String alias, SearchCriteria<?> sc) {
+			this.referredClass = referredClass==null ? null : referredClass.getName();
+			this.alias = alias;
+			this.criteriaType = sc.getClass().getName();
+			this.where = (String)sc.getWhere();
+			this.orderby = Objects.toString(sc.getOrderby(), null);
+			this.fetch = sc.getFetch();
+			this.aggregate = sc.getAggregateCriteria();
+			this.projection = normalize(sc.getProjectCriteria());
+			this.page = normalize(sc.getPageRequest());
+		}
+		
+		private static String normalize(ProjectCriteria pc) {
+			if(pc==null)
+				return null;
+			
+			return pc.getAlias() + "|" + (pc.getMapsTo()==null ? null : new TreeMap<>(pc.getMapsTo()));
+		}
+		
+		private static String normalize(Pageable p) {
+			if(p==null)
+				return null;
+			
+			return p.getPageNumber() + "|" + p.getPageSize() + "|" + p.getSort();
+		}
+	}
+	
+	@ToString
+	public static class QueryStats {
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		
+		public long getHits() {
+			return hits.sum();
+		}
+		
+		public long getMisses() {
+			return misses.sum();
+		}
+	}
+	
+	/* upper bound of tracked query shapes, beyond which stats are folded into one entry per alias */
+	public static final int MAX_QUERY_STATS = 1000;
+	
+	private static final Pattern QUERY_LITERALS = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"|\\b\\d+(?:\\.\\d+)?[lLdDfF]?\\b");
+	
+	private final JustLogit logit = new JustLogit(getClass());
+	
+	@Getter
+	private final ModelRepository delegate;
+	
+	private final RepositoryCache<SearchKey, Object> cache;
+	
+	private final CacheInvalidationBus invalidationBus;
+	
+	private final SearchCachePolicy policy;
+	
+	private final String originId = UUID.randomUUID().toString();
+	
+	private final Map<String, AtomicLong> aliasGenerations = new ConcurrentHashMap<>();
+	
+	private final Map<String, QueryStats> queryStats = new ConcurrentHashMap<>();
+	
+	public SearchCachingModelRepository(ModelRepository delegate, RepositoryCache<SearchKey, Object> cache, CacheInvalidationBus invalidationBus, SearchCachePolicy policy) {
+		this.delegate = Objects.requireNonNull(delegate, ()->"Delegate repository must not be null.");
+		this.cache = cache;
+		this.invalidationBus = invalidationBus;
+		this.policy = policy;
+		
+		this.invalidationBus.subscribe(this::onInvalidationEvent);
+	}
+	
+	@Override
+	public <T> T _new(ModelConfig<T> mConfig) {
+		return delegate._new(mConfig);
+	}
+	
+	@Override
+	public <T> T _new(ModelConfig<T> mConfig, T newState) {
+		return delegate._new(mConfig, newState);
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _save(String alias, T state) {
+		try {
+			return delegate._save(alias, state);
+		} finally {
+			invalidate(alias, EntityCachingModelRepository.idOf(state));
+		}
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias) {
+		return delegate._get(id, referredClass, alias);
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url) {
+		return delegate._get(id, referredClass, alias, url);
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url, Set<String> projection) {
+		return delegate._get(id, referredClass, alias, url, projection);
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _update(String alias, ID id, String path, T state) {
+		try {
+			return delegate._update(alias, id, path, state);
+		} finally {
+			invalidate(alias, id);
+		}
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _updateField(String alias, ID id, String fieldPath, T state) {
+		try {
+			return delegate._updateField(alias, id, fieldPath, state);
+		} finally {
+			invalidate(alias, id);
+		}
+	}
+	
+	@Override
+	public void _replace(Param<?> param) {
+		try {
+			delegate._replace(param);
+		} finally {
+			invalidate(EntityCachingModelRepository.rootAliasOf(param), EntityCachingModelRepository.rootIdOf(param));
+		}
+	}
+	
+	@Override
+	public void _replace(List<Param<?>> params) {
+		try {
+			delegate._replace(params);
+		} finally {
+			if(params!=null)
+				params.forEach(p->invalidate(EntityCachingModelRepository.rootAliasOf(p), EntityCachingModelRepository.rootIdOf(p)));
+		}
+	}
+	
+	@Override
+	public <T> T _replace(String alias, T state) {
+		try {
+			return delegate._replace(alias, state);
+		} finally {
+			invalidate(alias, EntityCachingModelRepository.idOf(state));
+		}
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _delete(ID id, Class<T> referredClass, String alias) {
+		try {
+			return delegate._delete(id, referredClass, alias);
+		} finally {
+			invalidate(alias, id);
+		}
+	}
+	
+	@Override
+	public <T> Object _search(Class<T> referredDomainClass, String alias, Supplier<SearchCriteria<?>> criteria) {
+		if(!policy.isCacheable(alias))
+			return delegate._search(referredDomainClass, alias, criteria);
+		
+		final SearchCriteria<?> sc = criteria.get();
+		if(sc==null || (sc.getWhere()!=null && !(sc.getWhere() instanceof String)))
+			return delegate._search(referredDomainClass, alias, ()->sc);
+		
+		String rawWhere = sc.getCmd()==null ? null : sc.getCmd().getFirstParameterValue(Constants.SEARCH_REQ_WHERE_MARKER.code);
+		long ttl = policy.getTtlSeconds(alias, rawWhere);
+		if(ttl==SearchCachePolicy.NO_CACHE)
+			return delegate._search(referredDomainClass, alias, ()->sc);
+		
+		QueryStats stats = queryStats(alias, rawWhere);
+		
+		SearchKey key = new SearchKey(referredDomainClass, alias, sc);
+		Object cached = cache.get(key);
+		if(cached!=null) {
+			stats.hits.increment();
+			return copy(cached);
+		}
+		stats.misses.increment();
+		
+		long generation = generation(alias).get();
+		Object result = delegate._search(referredDomainClass, alias, ()->sc);
+		
+		// skip populating if a write on the alias happened while searching
+		if(result instanceof Serializable && generation(alias).get()==generation) {
+			Object snapshot = copy(result);
+			
+			if(ttl==SearchCachePolicy.DEFAULT_TTL)
+				cache.put(key, snapshot);
+			else
+				cache.put(key, snapshot, ttl, TimeUnit.SECONDS);
+		}
+		return result;
+	}
+	
+	public RepositoryCache.Stats getStats() {
+		return cache.getStats();
+	}
+	
+	public Map<String, QueryStats> getQueryStats() {
+		return Collections.unmodifiableMap(queryStats);
+	}
+	
+	
+	private QueryStats queryStats(String alias, String rawWhere) {
+		String key = alias + "|" + toQueryShape(rawWhere);
+		QueryStats stats = queryStats.get(key);
+		if(stats!=null)
+			return stats;
+		
+		if(queryStats.size() >= MAX_QUERY_STATS)
+			key = alias + "|*";
+		
+		return queryStats.computeIfAbsent(key, k->new QueryStats());
+	}
+	
+	static String toQueryShape(String rawWhere) {
+		return QUERY_LITERALS.matcher(StringUtils.defaultString(rawWhere)).replaceAll("?");
+	}
+	
+	private static Object copy(Object result) {
+		return SerializationUtils.clone((Serializable)result);
+	}
+	
+	private AtomicLong generation(String alias) {
+		return aliasGenerations.computeIfAbsent(alias, k->new AtomicLong());
+	}
+	
+	/**
+	 * Search results are dropped alias-wide, the id is still broadcast so that entity caches on other nodes drop only the affected entry.
+	 */
+	private void invalidate(String alias, Serializable id) {
+		if(!policy.isCacheable(alias))
+			return;
+		
+		invalidateLocal(alias);
+		invalidationBus.publish(new CacheInvalidationEvent(originId, alias, id));
+	}
+	
+	private void invalidateLocal(String alias) {
+		generation(alias).incrementAndGet();
+		cache.removeIf(k->k.getAlias().equals(alias));
+	}
+	
+	private void onInvalidationEvent(CacheInvalidationEvent event) {
+		if(originId.equals(event.getOriginId()) || !policy.isCacheable(event.getAlias()))
+			return;
+		
+		logit.trace(()->"Received search cache invalidation: "+event);
+		invalidateLocal(event.getAlias());
+	}
+}
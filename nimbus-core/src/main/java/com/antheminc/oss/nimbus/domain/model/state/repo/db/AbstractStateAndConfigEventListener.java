@@ -15,13 +15,8 @@
  */
 package com.antheminc.oss.nimbus.domain.model.state.repo.db;
 
-import java.util.Arrays;
-
-import org.springframework.core.annotation.AnnotationUtils;
-
-import com.antheminc.oss.nimbus.domain.defn.Domain;
 import com.antheminc.oss.nimbus.domain.defn.Domain.ListenerType;
-import com.antheminc.oss.nimbus.domain.defn.Model;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
@@ -39,27 +34,18 @@ public abstract class AbstractStateAndConfigEventListener implements StateAndCon
 	@Override
 	public boolean shouldAllow(EntityState<?> p) {
 		
-		Domain currentDomain = AnnotationUtils.findAnnotation(p.getConfig().getReferredClass(), Domain.class);
-		
-		if(currentDomain == null)
-			currentDomain = AnnotationUtils.findAnnotation(p.getRootDomain().getConfig().getReferredClass(), Domain.class);
-		
-		if(currentDomain == null)
-			return false;
-		
-		Model pModel = AnnotationUtils.findAnnotation(p.getRootDomain().getConfig().getReferredClass(), Model.class);
+		PersistenceTarget rootTarget = p.getRootDomain().getConfig().getPersistenceTarget();
 		
-		ListenerType includeListener = Arrays.asList(currentDomain.includeListeners())
-				.stream()
-				.filter((listener) -> !Arrays.asList(pModel.excludeListeners()).contains(listener))
-				.filter((listenerType) -> containsListener(listenerType))
-				.findFirst()
-				.orElse(null);
+		PersistenceTarget currentTarget = PersistenceTarget.of(p.getConfig());
+		if(currentTarget == null || !currentTarget.isDomain())
+			currentTarget = rootTarget;
 		
-		if(includeListener == null)
+		if(!currentTarget.isDomain())
 			return false;
 		
-		return true;
+		return currentTarget.getIncludeListeners().stream()
+				.filter((listener) -> !rootTarget.getExcludeListeners().contains(listener))
+				.anyMatch((listenerType) -> containsListener(listenerType));
 	}
 	
 	@Override
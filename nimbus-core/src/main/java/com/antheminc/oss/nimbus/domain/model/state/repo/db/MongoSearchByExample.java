@@ -17,12 +17,23 @@ package com.antheminc.oss.nimbus.domain.model.state.repo.db;
 
 import static org.springframework.data.domain.ExampleMatcher.GenericPropertyMatchers.startsWith;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Pageable;
@@ -33,6 +44,7 @@ import org.springframework.data.repository.support.PageableExecutionUtils;
 import com.antheminc.oss.nimbus.FrameworkRuntimeException;
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
 import com.antheminc.oss.nimbus.domain.defn.Constants;
+import com.antheminc.oss.nimbus.domain.defn.Repo;
 import com.antheminc.oss.nimbus.domain.defn.SearchNature.StartsWith;
 
 /**
@@ -41,6 +53,10 @@ import com.antheminc.oss.nimbus.domain.defn.SearchNature.StartsWith;
  */ 
 public class MongoSearchByExample extends MongoDBSearch {
 
+	private static final String IGNORE_PATH_VERSION = "version";
+	
+	private final Map<Class<?>, ExampleMetadata> exampleMetadata = new ConcurrentHashMap<>();
+	
 	public MongoSearchByExample(BeanResolverStrategy beanResolver) {
 		super(beanResolver);
 	}
@@ -69,13 +85,16 @@ public class MongoSearchByExample extends MongoDBSearch {
 		if(criteria == null) 
 			return new Query();
 		
-		ExampleMatcher matcher = ExampleMatcher.matching().withIgnoreCase().withIgnoreNullValues().withIgnorePaths("version");
+		ExampleMetadata metadata = exampleMetadata.computeIfAbsent(referredClass, ExampleMetadata::new);
 		
-		matcher = recurseAllFieldsAndBuildMatcher(referredClass, criteria, matcher);
-		
-		Example<T> example =  Example.of(criteria, matcher);
+		Example<T> example =  Example.of(criteria, metadata.buildMatcher(criteria));
 		Criteria c = Criteria.byExample(example);
 		Query query = new Query(c);
+		
+		String hint = metadata.findIndexHint(criteria);
+		if(hint != null)
+			query.withHint(hint);
+		
 		return query;
 	}
 	
@@ -91,34 +110,96 @@ public class MongoSearchByExample extends MongoDBSearch {
 		
 	}
 
-	// TODO - recursive matcher is not building correctly - the fieldName should be "." seperated not just the current field name. 
-	// e.g. CMCase > Patient > firstName ==> should be built as "patientReferred.firstName", the commented code only gets the fieldName as "firstName" with recursion into patient-- need to fix
-	private <T> ExampleMatcher recurseAllFieldsAndBuildMatcher(Class<?> referredClass, T criteria, ExampleMatcher matcher) {
-		for (Field field : FieldUtils.getAllFieldsList(referredClass)) {
-			field.setAccessible(true);
-			if (field.getType().isAssignableFrom(String.class)) {
+	/**
+	 * Field accessors, base {@link ExampleMatcher} and index hints of a criteria class, resolved once so that building an
+	 * example only reads the populated values.
+	 */
+	static class ExampleMetadata {
+		
+		private final ExampleMatcher baseMatcher;
+		
+		private final List<FieldAccessor> accessors = new ArrayList<>();
+		
+		private final List<FieldAccessor> stringAccessors = new ArrayList<>();
+		
+		private final Repo.IndexHint[] indexHints;
+		
+		// TODO - recursive matcher is not building correctly - the fieldName should be "." seperated not just the current field name. 
+		// e.g. CMCase > Patient > firstName ==> should be built as "patientReferred.firstName", only top level fields are considered here
+		ExampleMetadata(Class<?> referredClass) {
+			ExampleMatcher matcher = ExampleMatcher.matching().withIgnoreCase().withIgnoreNullValues().withIgnorePaths(IGNORE_PATH_VERSION);
+			
+			for (Field field : FieldUtils.getAllFieldsList(referredClass)) {
+				if(Modifier.isStatic(field.getModifiers()))
+					continue;
+				
+				FieldAccessor accessor = new FieldAccessor(field);
+				if(!IGNORE_PATH_VERSION.equals(field.getName()))
+					accessors.add(accessor);
 				
-				try {
-					String checkString = (String) FieldUtils.readField(field, criteria);
-					if (checkString != null && checkString.isEmpty())
-						matcher = matcher.withIgnorePaths(field.getName());
-				} catch (IllegalAccessException e) {
-					throw new FrameworkRuntimeException(e);
-				}
+				if (field.getType().isAssignableFrom(String.class))
+					stringAccessors.add(accessor);
+				
+				if (field.isAnnotationPresent(StartsWith.class))
+					matcher = matcher.withMatcher(field.getName(), startsWith());
+			}
+			this.baseMatcher = matcher;
+			
+			Repo repo = AnnotationUtils.findAnnotation(referredClass, Repo.class);
+			this.indexHints = repo == null ? new Repo.IndexHint[0] : repo.indexHints();
+		}
+		
+		<T> ExampleMatcher buildMatcher(T criteria) {
+			ExampleMatcher matcher = baseMatcher;
+			for(FieldAccessor accessor : stringAccessors) {
+				if("".equals(accessor.read(criteria)))
+					matcher = matcher.withIgnorePaths(accessor.name);
 			}
+			return matcher;
+		}
+		
+		<T> String findIndexHint(T criteria) {
+			if(ArrayUtils.isEmpty(indexHints))
+				return null;
 			
-//			if(!field.getType().isPrimitive() && criteria != null) {
-//				try {
-//					recurseAllFieldsAndBuildMatcher(field.getType(), FieldUtils.readField(field, criteria), matcher);
-//				} catch (Exception e) {
-//					throw new FrameworkRuntimeException("Could not read value of field: "+field+" on object: "+criteria, e);
-//				}
-//			}
+			Set<String> populated = new HashSet<>();
+			for(FieldAccessor accessor : accessors) {
+				Object value = accessor.read(criteria);
+				if(value != null && !"".equals(value))
+					populated.add(accessor.name);
+			}
 			
-			if (field.isAnnotationPresent(StartsWith.class))
-				matcher = matcher.withMatcher(field.getName(), startsWith());
+			for(Repo.IndexHint hint : indexHints) {
+				if(populated.containsAll(Arrays.asList(hint.fields())))
+					return hint.index();
+			}
+			return null;
+		}
+	}
+	
+	static class FieldAccessor {
+		
+		private final String name;
+		
+		private final MethodHandle getter;
+		
+		FieldAccessor(Field field) {
+			this.name = field.getName();
+			try {
+				field.setAccessible(true);
+				this.getter = MethodHandles.lookup().unreflectGetter(field);
+			} catch (IllegalAccessException e) {
+				throw new FrameworkRuntimeException("Could not access field: "+field, e);
+			}
+		}
+		
+		Object read(Object criteria) {
+			try {
+				return getter.invoke(criteria);
+			} catch (Throwable e) {
+				throw new FrameworkRuntimeException("Could not read value of field: "+name+" on object: "+criteria, e);
+			}
 		}
-		return matcher;
 	}
 	
 }
@@ -37,6 +37,8 @@ import com.antheminc.oss.nimbus.FrameworkRuntimeException;
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
 import com.antheminc.oss.nimbus.domain.defn.Constants;
 import com.antheminc.oss.nimbus.support.JustLogit;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents.Span;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.CommandResult;
@@ -136,10 +138,15 @@ public class MongoSearchByQuery extends MongoDBSearch {
 	
 	@Override
 	public <T> Object search(Class<T> referredClass, String alias, SearchCriteria<?> criteria) {
-		if(StringUtils.contains((String)criteria.getWhere(),Constants.SEARCH_REQ_AGGREGATE_MARKER.code)) {
-			return searchByAggregation(referredClass, alias, criteria);
+		Span jfr = FlightRecorderEvents.begin(FlightRecorderEvents.Type.QUERY);
+		try {
+			if(StringUtils.contains((String)criteria.getWhere(),Constants.SEARCH_REQ_AGGREGATE_MARKER.code)) {
+				return searchByAggregation(referredClass, alias, criteria);
+			}
+			return searchByQuery(referredClass, alias, criteria);
+		} finally {
+			jfr.end(alias, (String)criteria.getWhere());
 		}
-		return searchByQuery(referredClass, alias, criteria);
 	}
 	
 	
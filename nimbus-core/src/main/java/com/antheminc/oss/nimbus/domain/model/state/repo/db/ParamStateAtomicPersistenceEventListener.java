@@ -19,19 +19,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.core.annotation.AnnotationUtils;
 
 import com.antheminc.oss.nimbus.InvalidConfigException;
 import com.antheminc.oss.nimbus.domain.cmd.Action;
-import com.antheminc.oss.nimbus.domain.defn.Domain;
 import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState;
-import com.antheminc.oss.nimbus.domain.model.state.EntityState.Model;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
 import com.antheminc.oss.nimbus.domain.model.state.internal.AbstractEvent.PersistenceMode;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ModelPersistenceHandler;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents.Span;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -86,8 +86,12 @@ public class ParamStateAtomicPersistenceEventListener extends ParamStatePersiste
 		ModelEvent<Param<?>> modelEvent = new ModelEvent<>(Action.getByName(event.getType()), paramToPersist.getPath(), paramToPersist);
 		events.add(modelEvent);
 		
-		return handler.handle(events);
-		
+		Span jfr = FlightRecorderEvents.begin(FlightRecorderEvents.Type.PERSIST);
+		try {
+			return handler.handle(events);
+		} finally {
+			jfr.end(paramToPersist.getRootDomain().getConfig().getPersistenceTarget().getAlias(), p.getPath());
+		}
 	}
 	
 	private Repo getParamRepo(Param<?> param) {
@@ -97,16 +101,11 @@ public class ParamStateAtomicPersistenceEventListener extends ParamStatePersiste
 	}
 	
 	private Param<?> returnNestedOrSelf(Param<?> param) {
-		if(param.isNested() ) {
-			Model<Object> model = (Model<Object>)param.findIfNested();
-			Class<Object> modelClass = (Class<Object>)model.getConfig().getReferredClass();
-			
-			Repo repo = AnnotationUtils.findAnnotation(modelClass, Repo.class);
-			Domain domain = AnnotationUtils.findAnnotation(modelClass, Domain.class);
+		if(param.isNested()) {
+			PersistenceTarget target = param.findIfNested().getConfig().getPersistenceTarget();
 			
-			if(repo != null && domain != null) {
+			if(target.isDocumentRoot()) 
 				return param;
-			}
 		}
 		return param.getRootDomain().getAssociatedParam();
 	}
@@ -16,19 +16,20 @@
 package com.antheminc.oss.nimbus.domain.model.state.repo.db;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.annotation.AnnotationUtils;
 
 import com.antheminc.oss.nimbus.domain.cmd.Action;
-import com.antheminc.oss.nimbus.domain.defn.Domain;
 import com.antheminc.oss.nimbus.domain.defn.Domain.ListenerType;
-import com.antheminc.oss.nimbus.domain.defn.Model;
 import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Model;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
 import com.antheminc.oss.nimbus.domain.model.state.event.listener.BulkEventListener;
@@ -60,12 +61,13 @@ public class ParamStateBulkPersistenceEventListener implements BulkEventListener
 		
 		if(CollectionUtils.isEmpty(events))
 			return true;
-		List<String> domainRootsHandled = new ArrayList<>();
+		// persist each root domain once, regardless of how many of its params changed
+		Set<Model<?>> domainRootsHandled = Collections.newSetFromMap(new IdentityHashMap<>());
 		
 		events.stream()
 			.filter((event) -> shouldAllow(event.getPayload()))
 			.forEach((event) ->  {
-				if(!domainRootsHandled.contains(event.getPayload().getRootDomain().getConfig().getAlias())) {
+				if(domainRootsHandled.add(event.getPayload().getRootDomain())) {
 					Repo repo = event.getPayload().getRootDomain().getConfig().getRepo();
 					
 					if(repo != null) {
@@ -84,22 +86,11 @@ public class ParamStateBulkPersistenceEventListener implements BulkEventListener
 	}
 	
 	private boolean shouldAllow(EntityState<?> p) {
-		Domain rootDomain = AnnotationUtils.findAnnotation(p.getRootDomain().getConfig().getReferredClass(), Domain.class);
-		if(rootDomain == null) 
-			return false;
+		PersistenceTarget rootTarget = p.getRootDomain().getConfig().getPersistenceTarget();
 		
-		Model pModel = AnnotationUtils.findAnnotation(p.getRootDomain().getConfig().getReferredClass(), Model.class);
-		
-		ListenerType includeListener = Arrays.asList(rootDomain.includeListeners()).stream()
-											.filter((listener) -> !Arrays.asList(pModel.excludeListeners()).contains(listener))
-											.filter((listenerType) -> listenerType == ListenerType.persistence)
-											.findFirst()
-											.orElse(null);
-		
-		if(includeListener == null)
-			return false;
-		
-		return true;
+		return rootTarget.isDomain() 
+				&& rootTarget.getIncludeListeners().contains(ListenerType.persistence) 
+				&& !rootTarget.getExcludeListeners().contains(ListenerType.persistence);
 	}
 
 }
@@ -56,6 +56,9 @@ public abstract class SearchCriteria<T> implements Serializable {
 		private String alias;
 		private Map<String, String> mapsTo;
 		
+		/* lookup rows with a code already seen are dropped */
+		private boolean distinct;
+		
 	}
 	
 	@Getter @Setter
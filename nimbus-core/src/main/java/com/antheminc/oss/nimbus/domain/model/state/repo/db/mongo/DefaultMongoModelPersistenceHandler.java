@@ -16,19 +16,23 @@
 package com.antheminc.oss.nimbus.domain.model.state.repo.db.mongo;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.core.annotation.AnnotationUtils;
 
-import com.antheminc.oss.nimbus.domain.defn.Domain;
 import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.ExecutionModel;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Model;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ModelPersistenceHandler;
 import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
 import com.antheminc.oss.nimbus.support.JustLogit;
 
 /**
@@ -39,10 +43,10 @@ public class DefaultMongoModelPersistenceHandler implements ModelPersistenceHand
 
 	JustLogit logit = new JustLogit(getClass());
 	
-	ModelRepository rep;
+	ModelRepositoryFactory repoFactory;
 	
-	public DefaultMongoModelPersistenceHandler(ModelRepository rep) {
-		this.rep = rep;
+	public DefaultMongoModelPersistenceHandler(ModelRepositoryFactory repoFactory) {
+		this.repoFactory = repoFactory;
 	}
 
 	@Override
@@ -58,12 +62,10 @@ public class DefaultMongoModelPersistenceHandler implements ModelPersistenceHand
 			Param<?> param = event.getPayload();
 			
 			Model<Object> model = findIfNestedAndHasDomain(param);
-			Class<Object> modelClass = (Class<Object>)model.getConfig().getReferredClass();
-			
-			Repo repo = AnnotationUtils.findAnnotation(modelClass, Repo.class);
-			
-			String alias = repo != null && StringUtils.isNotBlank(repo.alias()) ? repo.alias() : model.getConfig().getAlias();
+			String alias = model.getConfig().getPersistenceTarget().getAlias();
 			
+			// resolve via factory, so that writes are observed by repository caches
+			ModelRepository rep = repoFactory.get(Repo.Database.rep_mongodb);
 			
 			Object coreState = model.getState();
 			Object coreStateId = model.findParamByPath("/id").getState();
@@ -76,9 +78,21 @@ public class DefaultMongoModelPersistenceHandler implements ModelPersistenceHand
 			
 			coreId = (Serializable)coreStateId; 
 			
-			String pPath = param.getBeanPath();
+			String fieldPath = resolveFieldPath(param, model);
+			
+			// core loaded partially for a mapped view is never replaced whole: write back only the fetched fields, leaving the others untouched
+			Set<String> projection = StringUtils.isEmpty(fieldPath) ? findLoadedProjection(model) : null;
+			if(projection!=null) {
+				projection.forEach(path->rep._update(alias, coreId, path, model.findParamByPath(path).getState()));
+				return true;
+			}
+			
 			Object pState = param.getState();
-			rep._update(alias, coreId, pPath, pState);
+			if(fieldPath==null)
+				rep._update(alias, coreId, param.getBeanPath(), pState);
+			else
+				rep._updateField(alias, coreId, fieldPath, pState);
+			
 			return true;
 			
 		}
@@ -87,20 +101,85 @@ public class DefaultMongoModelPersistenceHandler implements ModelPersistenceHand
 	}
 
 	
+	/**
+	 * Resolves the store field path of the param relative to the document owned by the given model, e.g. "addresses.0.city", 
+	 * from the template indexed for its config at config build time. Only ids of list elements are read from the param state.
+	 * 
+	 * @return empty if the param is the owner itself, null if the param does not sit under the owner
+	 */
+	static String resolveFieldPath(Param<?> param, Model<?> owner) {
+		Param<?> ownerParam = owner.getAssociatedParam();
+		if(param == ownerParam)
+			return "";
+		
+		String template = owner.getConfig().getPersistenceTarget().findFieldPath(param.getConfig());
+		if(template == null)
+			return buildFieldPath(param, ownerParam);
+		
+		String[] segments = StringUtils.split(template, '.');
+		int elemIndex = segments.length;
+		
+		// fill list element ids, innermost first
+		Param<?> p = param;
+		while((elemIndex = lastIndexOfElemId(segments, elemIndex)) >= 0) {
+			while(p != null && p != ownerParam && !p.isCollectionElem())
+				p = parentOf(p);
+			
+			if(p == null || p == ownerParam)
+				return buildFieldPath(param, ownerParam);
+			
+			segments[elemIndex] = p.findIfCollectionElem().getElemId();
+			p = parentOf(p);
+		}
+		return String.join(".", segments);
+	}
+	
+	private static int lastIndexOfElemId(String[] segments, int before) {
+		for(int i=before-1; i>=0; i--)
+			if(PersistenceTarget.ELEM_ID_SEGMENT.equals(segments[i]))
+				return i;
+		
+		return -1;
+	}
+	
+	private static Param<?> parentOf(Param<?> p) {
+		return p.getParentModel()==null ? null : p.getParentModel().getAssociatedParam();
+	}
+	
+	/**
+	 * Builds the field path by walking up from the param, for configs without an unambiguous template.
+	 */
+	static String buildFieldPath(Param<?> param, Param<?> ownerParam) {
+		Deque<String> segments = new ArrayDeque<>();
+		Param<?> p = param;
+		while(p != ownerParam) {
+			if(p == null || p.getParentModel() == null)
+				return null;
+			
+			segments.addFirst(p.isCollectionElem() ? p.findIfCollectionElem().getElemId() : p.getConfig().getBeanName());
+			p = p.getParentModel().getAssociatedParam();
+		}
+		return String.join(".", segments);
+	}
+	
+	/**
+	 * @return projection the document owned by the model was loaded with, as recorded on its root execution, or null if loaded whole
+	 */
+	static Set<String> findLoadedProjection(Model<?> model) {
+		ExecutionModel<?> rootExecution = model.getRootExecution();
+		if(rootExecution==null || model.getRootDomain()!=model)
+			return null;
+		
+		return rootExecution.getLoadedProjection();
+	}
+	
 	private Model<Object> findIfNestedAndHasDomain(Param<?> param) {
-		if(param.isNested() ) {
+		if(param.isNested()) {
 			Model<Object> model = (Model<Object>)param.findIfNested();
-			Class<Object> modelClass = (Class<Object>)model.getConfig().getReferredClass();
-			
-			Repo repo = AnnotationUtils.findAnnotation(modelClass, Repo.class);
+			PersistenceTarget target = model.getConfig().getPersistenceTarget();
 			
-			if(Repo.Database.isPersistable(repo)) {
-				Domain domain = AnnotationUtils.findAnnotation(modelClass, Domain.class);
-				
-				if(repo != null && domain != null) {
-					return model;
-				}
-			}
+			if(target.isPersistable() && target.isDocumentRoot()) 
+				return model;
 		}
 		return (Model<Object>)param.getRootDomain();
 	}
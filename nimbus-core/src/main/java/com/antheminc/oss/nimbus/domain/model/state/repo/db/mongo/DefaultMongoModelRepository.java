@@ -19,8 +19,10 @@ import java.beans.PropertyDescriptor;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -102,6 +104,24 @@ public class DefaultMongoModelRepository implements ModelRepository {
 		return state;
 	}
 	
+	/**
+	 * Fetches only the given fields, as used when a core is loaded on behalf of a mapped view. <br>
+	 * Unfetched fields stay untouched in the store as long as the entity is written back via partial updates.
+	 */
+	@Override
+	public <ID extends Serializable, T> T _get(ID id, Class<T> referredClass, String alias, String url, Set<String> projection) {
+		if(CollectionUtils.isEmpty(projection))
+			return _get(id, referredClass, alias, url);
+		
+		Query query = new Query(Criteria.where("_id").is(id));
+		projection.stream()
+			.map(p->StringUtils.replaceChars(StringUtils.removeStart(p, "/"), '/', '.'))
+			.forEach(query.fields()::include);
+		
+		T state = mongoOps.findOne(query, referredClass, alias);
+		return state;
+	}
+	
 	private String resolvePath(String path) {
 		String p = StringUtils.replace(path, "/c/", "/");
 		p = StringUtils.replace(p, "/v/", "/");
@@ -112,33 +132,46 @@ public class DefaultMongoModelRepository implements ModelRepository {
 	public <ID extends Serializable, T> T _update(String alias, ID id, String path, T state) {
 		// TODO Soham: Refactor
 		path = resolvePath(path);
-	  
-	  Query query = new Query(Criteria.where("_id").is(id));
-	  Update update = new Update();
-	  if(StringUtils.isBlank(path) || StringUtils.equalsIgnoreCase(path, "/c")) {
-		  mongoOps.save(state, alias);
-	  }
-	  else{
-		  if(StringUtils.equals(path, "/id") || StringUtils.equals(path, "id")) { 
-		  	// if we updated the  document with path "/id", MongoDB is upserting with a new document with same _id but property field as "/id". e.g. if patient document already exist with
-		  	// all the fields populated, it would insert a new patient document with same _id like:
-		  	//	{"_id": NumberLong(1), "/id":NumberLong(1)}
-		  	// whereas there is already a correct patient document as:
-		  	//	{"_id": NumberLong(1), "firstName":"Rakesh"}
-		  	// I think this is because the "id" property gets saved in the monog as "_id" key and so when the next update comes with path="/id", for MongoDB, it would be a new field (non id),
-		  	// hence, ends up creating a new document. for now just returning from this mehtod without going to MongoDB.
-		  		return state;
-		  	}
-		   path = StringUtils.substringAfter(path, "/");
-		   path = path.replaceAll("/", "\\.");
-		   if(state == null)
-			   update.unset(path);
-		   else
-			   update.set(path, state);
-		   mongoOps.upsert(query, update, alias);
-	  } 
-	  return state;
-	 }
+		
+		final String fieldPath;
+		if(StringUtils.isBlank(path) || StringUtils.equalsIgnoreCase(path, "/c")) 
+			fieldPath = "";
+		else if(StringUtils.equals(path, "/id") || StringUtils.equals(path, "id"))
+			fieldPath = "id";
+		else
+			fieldPath = StringUtils.replaceChars(StringUtils.substringAfter(path, "/"), '/', '.');
+		
+		return _updateField(alias, id, fieldPath, state);
+	}
+	
+	@Override
+	public <ID extends Serializable, T> T _updateField(String alias, ID id, String fieldPath, T state) {
+		if(StringUtils.isEmpty(fieldPath)) {
+			mongoOps.save(state, alias);
+			return state;
+		}
+		
+		if(StringUtils.equals(fieldPath, "id")) { 
+			// if we updated the  document with path "/id", MongoDB is upserting with a new document with same _id but property field as "/id". e.g. if patient document already exist with
+			// all the fields populated, it would insert a new patient document with same _id like:
+			//	{"_id": NumberLong(1), "/id":NumberLong(1)}
+			// whereas there is already a correct patient document as:
+			//	{"_id": NumberLong(1), "firstName":"Rakesh"}
+			// I think this is because the "id" property gets saved in the monog as "_id" key and so when the next update comes with path="/id", for MongoDB, it would be a new field (non id),
+			// hence, ends up creating a new document. for now just returning from this mehtod without going to MongoDB.
+			return state;
+		}
+		
+		Query query = new Query(Criteria.where("_id").is(id));
+		Update update = new Update();
+		if(state == null)
+			update.unset(fieldPath);
+		else
+			update.set(fieldPath, state);
+		
+		mongoOps.upsert(query, update, alias);
+		return state;
+	}
 	 
 
 	
@@ -25,6 +25,7 @@ import org.drools.runtime.StatelessKnowledgeSession;
 import com.antheminc.oss.nimbus.domain.model.config.RulesConfig;
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
 import com.antheminc.oss.nimbus.domain.model.state.RulesRuntime;
+import com.antheminc.oss.nimbus.support.trace.ExecutionTracer;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -49,6 +50,11 @@ public class DroolsRulesRuntime implements RulesRuntime {
 	@Override
 	public void fireRules(Param<?>... params) {
 		if(getKnowledgeBase()==null) return;
+		
+		ExecutionTracer.run(ExecutionTracer.CATEGORY_RULES, "fireRules", params.length > 0 ? params[0].getPath() : null, ()->execute(params));
+	}
+	
+	private void execute(Param<?>... params) {
 		StatelessKnowledgeSession session = getKnowledgeBase().newStatelessKnowledgeSession();
 		List<Object> facts = new ArrayList<Object>();
 		if(params.length > 0) {
@@ -15,6 +15,9 @@
  */
 package com.antheminc.oss.nimbus.support.expr;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.BiFunction;
 
 import org.springframework.expression.Expression;
@@ -23,10 +26,35 @@ import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 /**
+ * Parsed expressions are cached and reused, as most expressions come from static config (annotations, process definitions) 
+ * and are evaluated many times. At most <tt>maxCached</tt> distinct expressions are kept; the least recently used one is 
+ * evicted to make room, so expressions built per command cannot crowd out ones seen later.
+ * 
  * @author Soham Chakravarti
  *
  */
 public class SpelExpressionEvaluator implements ExpressionEvaluator {
+	
+	public static final int DEFAULT_MAX_CACHED = 2048;
+	
+	private final ExpressionParser expressionParser = new SpelExpressionParser();
+	
+	private final Map<String, Expression> parsed;
+	
+	public SpelExpressionEvaluator() {
+		this(DEFAULT_MAX_CACHED);
+	}
+	
+	public SpelExpressionEvaluator(int maxCached) {
+		this.parsed = Collections.synchronizedMap(new LinkedHashMap<String, Expression>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+				return size() > maxCached;
+			}
+		});
+	}
 
 	@Override
 	public Object getValue(String exprValue, Object rootObject) {
@@ -41,11 +69,25 @@ public class SpelExpressionEvaluator implements ExpressionEvaluator {
 	private <R> R getValue(String exprValue, Object rootObject, BiFunction<Expression, StandardEvaluationContext, R> fn) {
 		StandardEvaluationContext context = new StandardEvaluationContext(rootObject);
 		//==SpelParserConfiguration config = new SpelParserConfiguration(true, true);
-		ExpressionParser expressionParser = new SpelExpressionParser();
 		
-		Expression expression = expressionParser.parseExpression(exprValue);
+		Expression expression = parse(exprValue);
 		R response = fn.apply(expression, context);
 		
 		return response;
 	}
+	
+	public Expression parse(String exprValue) {
+		Expression expression = parsed.get(exprValue);
+		if(expression!=null)
+			return expression;
+		
+		expression = expressionParser.parseExpression(exprValue);
+		parsed.put(exprValue, expression);
+		
+		return expression;
+	}
+	
+	int getCachedCount() {
+		return parsed.size();
+	}
 }
@@ -0,0 +1,197 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.jfr;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.antheminc.oss.nimbus.support.JustLogit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Emits framework events into Java Flight Recorder recordings, so that latency seen in a recording can be attributed to the 
+ * domain command, transaction, persistence write or query it was spent in. <br>
+ * 
+ * The event types are defined at runtime through <tt>jdk.jfr.EventFactory</tt>, looked up reflectively as the framework is 
+ * compiled for Java 8. On a JVM without the JFR API, or while no recording has the event enabled, {@link #begin(Type)} returns 
+ * a shared no-op {@link Span} after a single enablement check. <br>
+ * 
+ * Usage: 
+ * <pre>
+ * Span jfr = FlightRecorderEvents.begin(Type.COMMAND);
+ * try {
+ *     ...
+ * } finally {
+ *     jfr.end(uri, action);
+ * }
+ * </pre>
+ */
+public final class FlightRecorderEvents {
+
+	private static final JustLogit logit = new JustLogit(FlightRecorderEvents.class);
+	
+	private static final String CATEGORY = "Nimbus";
+	
+	@Getter @RequiredArgsConstructor
+	public enum Type {
+		COMMAND("com.antheminc.oss.nimbus.Command", "Command", "uri", "action"),
+		TXN("com.antheminc.oss.nimbus.Transaction", "Transaction", "rootCommand", "txnId"),
+		PERSIST("com.antheminc.oss.nimbus.Persist", "Persistence Write", "alias", "path"),
+		QUERY("com.antheminc.oss.nimbus.Query", "Query", "alias", "criteria");
+		
+		private final String eventName;
+		private final String label;
+		private final String subjectField;
+		private final String detailField;
+	}
+	
+	@FunctionalInterface
+	public interface Span {
+		public void end(String subject, String detail);
+	}
+	
+	private static final Span NOOP = (subject, detail)->{};
+	
+	private static final Jfr jfr = Jfr.load();
+	
+	private FlightRecorderEvents() {}
+	
+	public static boolean isAvailable() {
+		return jfr!=null;
+	}
+	
+	/**
+	 * @return a span timing the work until {@link Span#end(String, String)}, committed if the event type is enabled in a recording
+	 */
+	public static Span begin(Type type) {
+		if(jfr==null)
+			return NOOP;
+		
+		return jfr.begin(type);
+	}
+	
+	
+	private static final class Jfr {
+		
+		private final Map<Type, Object> factories;
+		private final Map<Type, Object> eventTypes;
+		
+		private final Method newEvent;
+		private final Method isEnabled;
+		private final Method beginEvent;
+		private final Method endEvent;
+		private final Method shouldCommit;
+		private final Method set;
+		private final Method commit;
+		
+		private volatile boolean failed;
+		
+		private Jfr() throws ReflectiveOperationException {
+			Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+			Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+			Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+			Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+			Class<?> eventClass = Class.forName("jdk.jfr.Event");
+			
+			Constructor<?> annotationElement = annotationElementClass.getConstructor(Class.class, Object.class);
+			Constructor<?> valueDescriptor = valueDescriptorClass.getConstructor(Class.class, String.class);
+			Method create = eventFactoryClass.getMethod("create", List.class, List.class);
+			Method getEventType = eventFactoryClass.getMethod("getEventType");
+			
+			this.newEvent = eventFactoryClass.getMethod("newEvent");
+			this.isEnabled = eventTypeClass.getMethod("isEnabled");
+			this.beginEvent = eventClass.getMethod("begin");
+			this.endEvent = eventClass.getMethod("end");
+			this.shouldCommit = eventClass.getMethod("shouldCommit");
+			this.set = eventClass.getMethod("set", int.class, Object.class);
+			this.commit = eventClass.getMethod("commit");
+			
+			String[] category = { CATEGORY };
+			
+			this.factories = new EnumMap<>(Type.class);
+			this.eventTypes = new EnumMap<>(Type.class);
+			for(Type t : Type.values()) {
+				List<Object> annotations = Arrays.asList(
+						annotationElement.newInstance(annotation("jdk.jfr.Name"), t.getEventName()),
+						annotationElement.newInstance(annotation("jdk.jfr.Label"), t.getLabel()),
+						annotationElement.newInstance(annotation("jdk.jfr.Category"), category));
+				
+				List<Object> fields = Arrays.asList(
+						valueDescriptor.newInstance(String.class, t.getSubjectField()),
+						valueDescriptor.newInstance(String.class, t.getDetailField()));
+				
+				Object factory = create.invoke(null, annotations, fields);
+				factories.put(t, factory);
+				eventTypes.put(t, getEventType.invoke(factory));
+			}
+		}
+		
+		private static Class<?> annotation(String name) throws ClassNotFoundException {
+			return Class.forName(name);
+		}
+		
+		static Jfr load() {
+			try {
+				return new Jfr();
+			} catch (ReflectiveOperationException | LinkageError | RuntimeException ex) {
+				logit.debug(()->"JFR event API not available, framework flight recorder events are disabled: "+ex);
+				return null;
+			}
+		}
+		
+		Span begin(Type type) {
+			if(failed)
+				return NOOP;
+			
+			try {
+				if(!(Boolean)isEnabled.invoke(eventTypes.get(type)))
+					return NOOP;
+				
+				Object event = newEvent.invoke(factories.get(type));
+				beginEvent.invoke(event);
+				return (subject, detail)->end(event, subject, detail);
+				
+			} catch (ReflectiveOperationException | RuntimeException ex) {
+				return disable(ex);
+			}
+		}
+		
+		private void end(Object event, String subject, String detail) {
+			try {
+				endEvent.invoke(event);
+				if((Boolean)shouldCommit.invoke(event)) {
+					set.invoke(event, 0, subject);
+					set.invoke(event, 1, detail);
+					commit.invoke(event);
+				}
+			} catch (ReflectiveOperationException | RuntimeException ex) {
+				disable(ex);
+			}
+		}
+		
+		private Span disable(Exception ex) {
+			failed = true;
+			logit.warn(()->"Failed to emit flight recorder event, framework flight recorder events are disabled.", ex);
+			return NOOP;
+		}
+	}
+}
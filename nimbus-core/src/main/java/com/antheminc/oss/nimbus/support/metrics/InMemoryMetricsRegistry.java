@@ -0,0 +1,121 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps metrics in memory of this JVM: timers as count, total and max duration, counters as running totals. 
+ * <br>
+ * Serves as default registry and in tests; values can be read through {@link #findTimer(String, String...)}, 
+ * {@link #getCount(String, String...)} and {@link #getGaugeValue(String, String...)}.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+	private final Map<MetricId, TimerStats> timers = new ConcurrentHashMap<>();
+	
+	private final Map<MetricId, LongAdder> counters = new ConcurrentHashMap<>();
+	
+	private final Map<MetricId, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+	
+	public static class TimerStats {
+		
+		private final LongAdder count = new LongAdder();
+		
+		private final LongAdder totalNanos = new LongAdder();
+		
+		private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+		
+		void record(long durationNanos) {
+			count.increment();
+			totalNanos.add(durationNanos);
+			maxNanos.accumulate(durationNanos);
+		}
+		
+		public long getCount() {
+			return count.sum();
+		}
+		
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+		
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+		
+		public long getMeanNanos() {
+			long c = getCount();
+			return c == 0 ? 0 : getTotalNanos() / c;
+		}
+		
+		@Override
+		public String toString() {
+			return "count="+getCount()+", mean="+getMeanNanos()+"ns, max="+getMaxNanos()+"ns";
+		}
+	}
+	
+	@Override
+	public void recordTime(String name, long durationNanos, String... tags) {
+		timers.computeIfAbsent(new MetricId(name, tags), k->new TimerStats()).record(durationNanos);
+	}
+	
+	@Override
+	public void increment(String name, String... tags) {
+		counters.computeIfAbsent(new MetricId(name, tags), k->new LongAdder()).increment();
+	}
+	
+	@Override
+	public void gauge(String name, Supplier<? extends Number> value, String... tags) {
+		gauges.put(new MetricId(name, tags), value);
+	}
+	
+	public TimerStats findTimer(String name, String... tags) {
+		return timers.get(new MetricId(name, tags));
+	}
+	
+	public long getCount(String name, String... tags) {
+		LongAdder counter = counters.get(new MetricId(name, tags));
+		return counter == null ? 0 : counter.sum();
+	}
+	
+	public Number getGaugeValue(String name, String... tags) {
+		Supplier<? extends Number> gauge = gauges.get(new MetricId(name, tags));
+		return gauge == null ? null : gauge.get();
+	}
+	
+	public Map<MetricId, TimerStats> getTimers() {
+		return Collections.unmodifiableMap(timers);
+	}
+	
+	public Map<MetricId, LongAdder> getCounters() {
+		return Collections.unmodifiableMap(counters);
+	}
+	
+	public Map<MetricId, Supplier<? extends Number>> getGauges() {
+		return Collections.unmodifiableMap(gauges);
+	}
+	
+	public void clear() {
+		timers.clear();
+		counters.clear();
+	}
+}
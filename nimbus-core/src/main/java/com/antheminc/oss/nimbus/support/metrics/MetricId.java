@@ -0,0 +1,59 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.antheminc.oss.nimbus.InvalidArgumentException;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Metric name with its tags, independent of the order tags were passed in.
+ */
+@Getter @EqualsAndHashCode
+public final class MetricId {
+
+	private final String name;
+	
+	private final Map<String, String> tags;
+	
+	public MetricId(String name, String... tags) {
+		if(tags.length % 2 != 0)
+			throw new InvalidArgumentException("Metric tags must be key value pairs, found: "+Arrays.toString(tags)+" for metric: "+name);
+		
+		this.name = name;
+		
+		if(tags.length == 0) {
+			this.tags = Collections.emptyMap();
+		} else {
+			Map<String, String> sorted = new TreeMap<>();
+			for(int i=0; i<tags.length; i+=2)
+				sorted.put(tags[i], tags[i+1]);
+			
+			this.tags = Collections.unmodifiableMap(sorted);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return tags.isEmpty() ? name : name + tags;
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Sink for framework metrics. Tags are passed as alternating key and value pairs, e.g. 
+ * <tt>recordTime("nimbus.command", nanos, TAG_DOMAIN, "sample_view", TAG_ACTION, "_get")</tt>. <br>
+ * Implementations bridging to a monitoring system can be plugged in by declaring a bean named 
+ * <tt>{prefix}.metricsRegistry</tt>, see {@link InMemoryMetricsRegistry} for the default.
+ */
+public interface MetricsRegistry {
+
+	public static final String TAG_DOMAIN = "domain";
+	public static final String TAG_ACTION = "action";
+	public static final String TAG_BEHAVIOR = "behavior";
+	public static final String TAG_OUTCOME = "outcome";
+	public static final String TAG_EXCEPTION = "exception";
+	
+	public static final String OUTCOME_SUCCESS = "success";
+	public static final String OUTCOME_FAILURE = "failure";
+	
+	public void recordTime(String name, long durationNanos, String... tags);
+	
+	public void increment(String name, String... tags);
+	
+	/**
+	 * Registers a value read on demand, replacing any gauge previously registered with the same name and tags.
+	 */
+	public void gauge(String name, Supplier<? extends Number> value, String... tags);
+	
+}
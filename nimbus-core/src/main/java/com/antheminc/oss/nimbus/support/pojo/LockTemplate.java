@@ -15,16 +15,23 @@
  */
 package com.antheminc.oss.nimbus.support.pojo;
 
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 
 /**
+ * Executes callbacks while holding the underlying {@link Lock}. <br>
+ * Acquisitions that could not be granted immediately are counted as contended and the time spent waiting on them
+ * is accumulated along with the time the lock is held, so that hot locks can be identified via {@link #getMetrics()}.
+ * 
  * @author Soham Chakravarti
  *
  */
-@Getter
 public class LockTemplate {
 
 	@FunctionalInterface
@@ -38,7 +45,26 @@ public class LockTemplate {
 		public void execute();
 	}
 	
+	@Getter @RequiredArgsConstructor @ToString
+	public static class Metrics {
+		private final long acquisitions;
+		private final long contentions;
+		private final long waitTimeNanos;
+		private final long holdTimeNanos;
+		private final long maxHoldTimeNanos;
+	}
+	
+	@Getter
 	final private Lock lock;
+	
+	final private LongAdder acquisitions = new LongAdder();
+	final private LongAdder contentions = new LongAdder();
+	final private LongAdder waitTimeNanos = new LongAdder();
+	final private LongAdder holdTimeNanos = new LongAdder();
+	final private LongAccumulator maxHoldTimeNanos = new LongAccumulator(Math::max, 0);
+	
+	/* start of the outermost hold, only read and written by the thread owning the lock */
+	private long heldSinceNanos;
 
 	public LockTemplate() {
 		this.lock = new ReentrantLock();
@@ -49,20 +75,61 @@ public class LockTemplate {
 	}
 	
 	final public <L> L execute(CallbackReturn<L> cb) {
-		lock.lock();
+		acquire();
 		try{
 			return cb.execute();
 		} finally {
-			lock.unlock();
+			release();
 		}
 	}
 	
 	final public void execute(CallbackVoid cb) {
-		lock.lock();
+		acquire();
 		try{
 			cb.execute();
 		} finally {
-			lock.unlock();
+			release();
 		}
 	}
+	
+	/**
+	 * Acquires the lock, recording contention if it is currently held by another thread. <br>
+	 * Callers must pair each invocation with {@link #release()} in a finally block.
+	 */
+	final public void acquire() {
+		acquisitions.increment();
+		if(lock.tryLock()) {
+			onHoldStart();
+			return;
+		}
+		
+		contentions.increment();
+		long start = System.nanoTime();
+		lock.lock();
+		waitTimeNanos.add(System.nanoTime() - start);
+		onHoldStart();
+	}
+	
+	final public void release() {
+		if(isOutermostHold()) {
+			long held = System.nanoTime() - heldSinceNanos;
+			holdTimeNanos.add(held);
+			maxHoldTimeNanos.accumulate(held);
+		}
+		lock.unlock();
+	}
+	
+	public Metrics getMetrics() {
+		return new Metrics(acquisitions.sum(), contentions.sum(), waitTimeNanos.sum(), holdTimeNanos.sum(), maxHoldTimeNanos.get());
+	}
+	
+	private void onHoldStart() {
+		if(isOutermostHold())
+			heldSinceNanos = System.nanoTime();
+	}
+	
+	/* reentrant acquisitions are accounted as part of the outermost hold */
+	private boolean isOutermostHold() {
+		return !(lock instanceof ReentrantLock) || ((ReentrantLock)lock).getHoldCount()==1;
+	}
 }
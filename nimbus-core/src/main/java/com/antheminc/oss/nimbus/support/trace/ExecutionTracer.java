@@ -0,0 +1,132 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.trace;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Records a {@link TraceNode} tree for the command being executed on the current thread. <br>
+ * 
+ * Tracing is opt-in per top level command via {@link #start(String, String, String)}; while no trace is active on the thread, 
+ * {@link #span(String, String, String, Supplier)} runs the work directly without building names or reading the clock. 
+ * Work handed off to another thread carries the active trace along when submitted through {@link #propagate(Callable)}.
+ */
+public final class ExecutionTracer {
+
+	public static final String CATEGORY_COMMAND = "command";
+	public static final String CATEGORY_EXECUTOR = "executor";
+	public static final String CATEGORY_REPOSITORY = "repository";
+	public static final String CATEGORY_RULES = "rules";
+	public static final String CATEGORY_EVENT = "event";
+	
+	private static final ThreadLocal<TraceNode> current = new ThreadLocal<>();
+	
+	private ExecutionTracer() {}
+	
+	public static boolean isActive() {
+		return current.get()!=null;
+	}
+	
+	/**
+	 * Starts a new trace on the current thread, replacing any trace already active on it.
+	 * 
+	 * @return the root node, to be passed to {@link #stop(TraceNode, Throwable)} once the traced work completes
+	 */
+	public static TraceNode start(String category, String action, String target) {
+		TraceNode root = new TraceNode(category, nameOf(action, target));
+		current.set(root);
+		return root;
+	}
+	
+	public static void stop(TraceNode root, Throwable failure) {
+		root.stop(failure);
+		current.remove();
+	}
+	
+	public static <R> R span(String category, String action, String target, Supplier<R> work) {
+		TraceNode parent = current.get();
+		if(parent==null)
+			return work.get();
+		
+		return span(parent, new TraceNode(category, nameOf(action, target)), work);
+	}
+	
+	public static void run(String category, String action, String target, Runnable work) {
+		span(category, action, target, ()->{
+			work.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * Variant for call sites where building the node name is not free, <tt>name</tt> is only evaluated while a trace is active.
+	 */
+	public static void run(String category, Supplier<String> name, Runnable work) {
+		TraceNode parent = current.get();
+		if(parent==null) {
+			work.run();
+			return;
+		}
+		
+		span(parent, new TraceNode(category, name.get()), ()->{
+			work.run();
+			return null;
+		});
+	}
+	
+	private static <R> R span(TraceNode parent, TraceNode node, Supplier<R> work) {
+		parent.addChild(node);
+		current.set(node);
+		
+		Throwable failure = null;
+		try {
+			return work.get();
+		} catch (RuntimeException | Error ex) {
+			failure = ex;
+			throw ex;
+		} finally {
+			node.stop(failure);
+			current.set(parent);
+		}
+	}
+	
+	/**
+	 * @return <tt>task</tt> bound to the trace active on the calling thread, or <tt>task</tt> itself if none is active
+	 */
+	public static <R> Callable<R> propagate(Callable<R> task) {
+		TraceNode captured = current.get();
+		if(captured==null)
+			return task;
+		
+		return ()->{
+			TraceNode previous = current.get();
+			current.set(captured);
+			try {
+				return task.call();
+			} finally {
+				if(previous==null)
+					current.remove();
+				else
+					current.set(previous);
+			}
+		};
+	}
+	
+	private static String nameOf(String action, String target) {
+		return target==null ? action : action + " " + target;
+	}
+}
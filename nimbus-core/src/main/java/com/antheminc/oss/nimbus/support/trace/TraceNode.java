@@ -0,0 +1,89 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A timed unit of work within a command execution, e.g. a nested command, a repository call, a rule fire or a state event handler, 
+ * along with the units of work it triggered. <br>
+ * 
+ * {@link #getCounts()} totals the nodes of the subtree by category and name, so repeated calls of the same kind (N+1 loads, rules 
+ * fired once per element) stand out without walking the tree.
+ */
+@Getter @ToString(exclude="children")
+@JsonInclude(Include.NON_EMPTY)
+public class TraceNode {
+
+	private final String category;
+	
+	private final String name;
+	
+	@JsonIgnore
+	private final long startNanos;
+	
+	private long elapsedMicros;
+	
+	private String error;
+	
+	private final List<TraceNode> children = Collections.synchronizedList(new ArrayList<>());
+	
+	public TraceNode(String category, String name) {
+		this.category = category;
+		this.name = name;
+		this.startNanos = System.nanoTime();
+	}
+	
+	void addChild(TraceNode child) {
+		children.add(child);
+	}
+	
+	void stop(Throwable failure) {
+		this.elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+		if(failure!=null)
+			this.error = failure.getClass().getSimpleName();
+	}
+	
+	/**
+	 * @return number of nodes below this one keyed by <tt>category:name</tt>, sorted by key
+	 */
+	public Map<String, Integer> getCounts() {
+		Map<String, Integer> counts = new TreeMap<>();
+		collectCounts(counts);
+		return counts;
+	}
+	
+	private void collectCounts(Map<String, Integer> counts) {
+		synchronized(children) {
+			for(TraceNode child : children) {
+				counts.merge(child.getCategory()+":"+child.getName(), 1, Integer::sum);
+				child.collectCounts(counts);
+			}
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.app.extension.config;
+
+import java.util.Arrays;
+
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.ExtensionElement;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.UserTask;
+import org.activiti.engine.impl.persistence.deploy.ProcessDefinitionCacheEntry;
+import org.activiti.engine.repository.ProcessDefinition;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ActivitiProcessDefinitionCacheTest {
+
+	private static ProcessDefinitionCacheEntry entry(String key, int version, String exitCondition) {
+		ProcessDefinition definition = Mockito.mock(ProcessDefinition.class);
+		Mockito.when(definition.getId()).thenReturn(key+":"+version+":"+(100+version));
+		Mockito.when(definition.getKey()).thenReturn(key);
+		Mockito.when(definition.getVersion()).thenReturn(version);
+		
+		UserTask review = new UserTask();
+		review.setId("review");
+		if(exitCondition!=null) {
+			ExtensionElement element = new ExtensionElement();
+			element.setName(ActivitiProcessDefinitionCache.EXTENSION_EXIT_CONDITION);
+			element.setElementText(exitCondition);
+			review.getExtensionElements().put(ActivitiProcessDefinitionCache.EXTENSION_EXIT_CONDITION, Arrays.asList(element));
+		}
+		
+		UserTask approve = new UserTask();
+		approve.setId("approve");
+		approve.setSkipExpression("state == 'approved'");
+		
+		Process process = new Process();
+		process.setId(key);
+		process.addFlowElement(review);
+		process.addFlowElement(approve);
+		
+		return new ProcessDefinitionCacheEntry(definition, new BpmnModel(), process);
+	}
+	
+	private static void add(ActivitiProcessDefinitionCache cache, ProcessDefinitionCacheEntry entry) {
+		cache.add(entry.getProcessDefinition().getId(), entry);
+	}
+	
+	@Test
+	public void t00_latestVersionByKey() {
+		ActivitiProcessDefinitionCache cache = new ActivitiProcessDefinitionCache();
+		ProcessDefinitionCacheEntry v2 = entry("order", 2, "state != null");
+		ProcessDefinitionCacheEntry v1 = entry("order", 1, null);
+		
+		add(cache, v2);
+		add(cache, v1);
+		add(cache, entry("orderline", 5, null));
+		
+		Assert.assertSame(v2, cache.findByKey("order"));
+		Assert.assertNull(cache.findByKey("ord"));
+	}
+	
+	@Test
+	public void t01_removeAndClear() {
+		ActivitiProcessDefinitionCache cache = new ActivitiProcessDefinitionCache();
+		ProcessDefinitionCacheEntry v1 = entry("order", 1, null);
+		ProcessDefinitionCacheEntry v2 = entry("order", 2, "state != null");
+		add(cache, v1);
+		add(cache, v2);
+		
+		cache.remove(v2.getProcessDefinition().getId());
+		Assert.assertSame(v1, cache.findByKey("order"));
+		Assert.assertNull(cache.findExitCondition(v2.getProcessDefinition().getId(), "review"));
+		
+		cache.clear();
+		Assert.assertNull(cache.findByKey("order"));
+		Assert.assertEquals(0, cache.size());
+	}
+	
+	@Test
+	public void t02_asyncContinuation() {
+		ActivitiProcessDefinitionCache cache = new ActivitiProcessDefinitionCache();
+		ProcessDefinitionCacheEntry v1 = entry("order", 1, null);
+		
+		ExtensionElement element = new ExtensionElement();
+		element.setName(ActivitiProcessDefinitionCache.EXTENSION_ASYNC_CONTINUATION);
+		element.setElementText("true");
+		v1.getProcess().getFlowElement("review").getExtensionElements()
+			.put(ActivitiProcessDefinitionCache.EXTENSION_ASYNC_CONTINUATION, Arrays.asList(element));
+		add(cache, v1);
+		
+		String v1Id = v1.getProcessDefinition().getId();
+		Assert.assertTrue(cache.isAsyncContinuation(v1Id, "review"));
+		Assert.assertFalse(cache.isAsyncContinuation(v1Id, "approve"));
+		Assert.assertFalse(cache.isAsyncContinuation("orderline:1:101", "review"));
+		
+		// marking the process applies to all of its user tasks
+		ProcessDefinitionCacheEntry v2 = entry("order", 2, null);
+		v2.getProcess().getExtensionElements().put(ActivitiProcessDefinitionCache.EXTENSION_ASYNC_CONTINUATION, Arrays.asList(element));
+		add(cache, v2);
+		
+		Assert.assertTrue(cache.isAsyncContinuation(v2.getProcessDefinition().getId(), "approve"));
+		Assert.assertFalse(cache.isAsyncContinuation(v1Id, "approve"));
+	}
+	
+	@Test
+	public void t03_exitConditionsByDefinitionId() {
+		ActivitiProcessDefinitionCache cache = new ActivitiProcessDefinitionCache();
+		ProcessDefinitionCacheEntry v1 = entry("order", 1, null);
+		ProcessDefinitionCacheEntry v2 = entry("order", 2, "state != null");
+		add(cache, v1);
+		add(cache, v2);
+		
+		String v1Id = v1.getProcessDefinition().getId();
+		String v2Id = v2.getProcessDefinition().getId();
+		
+		// instances started on an older version keep its exit conditions
+		Assert.assertNull(cache.findExitCondition(v1Id, "review"));
+		Assert.assertEquals("state != null", cache.findExitCondition(v2Id, "review"));
+		Assert.assertEquals("state == 'approved'", cache.findExitCondition(v1Id, "approve"));
+		Assert.assertNull(cache.findExitCondition(v2Id, "unknown"));
+		Assert.assertNull(cache.findExitCondition("order:3:103", "review"));
+	}
+}
@@ -28,6 +28,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
@@ -61,6 +62,9 @@ public class WebActionControllerAdviceTest {
 	@Mock
 	private CommandTransactionInterceptor interceptor;
 	
+	@Mock
+	private WebResponseETagResolver etagResolver;
+	
 	@Test
 	public void testSupports() {
 		Assert.assertTrue(this.testee.supports(null, null));
@@ -84,6 +88,27 @@ public class WebActionControllerAdviceTest {
 		Assert.assertEquals(expected, actual);
 	}
 	
+	@Test
+	public void testBeforeBodyWriteNotModified() throws Exception {
+		final Object body = new Object();
+		final MockHttpServletRequest httpReq = new MockHttpServletRequest("GET", "/Acme/abc/def/p/home/_config");
+		httpReq.addHeader("If-None-Match", "\"abc-1\"");
+		final MockHttpServletResponse httpRes = new MockHttpServletResponse();
+		final ServerHttpResponse res = new ServletServerHttpResponse(httpRes);
+		
+		Mockito.when(this.etagResolver.resolve(body)).thenReturn("\"abc-1\"");
+		Mockito.when(this.etagResolver.matches(Mockito.anyListOf(String.class), Mockito.eq("\"abc-1\""))).thenCallRealMethod();
+		
+		final Object actual = this.testee.beforeBodyWrite(body, Mockito.mock(MethodParameter.class), MediaType.APPLICATION_JSON, null, 
+				new ServletServerHttpRequest(httpReq), res);
+		res.flush();
+		
+		Assert.assertNull(actual);
+		Assert.assertEquals(HttpStatus.NOT_MODIFIED.value(), httpRes.getStatus());
+		Assert.assertEquals("\"abc-1\"", httpRes.getHeader("ETag"));
+		Mockito.verifyZeroInteractions(this.interceptor);
+	}
+	
 	@Test
 	public void testFrameworkRuntimeExceptionHandler() {
 		final FrameworkRuntimeException ex = new FrameworkRuntimeException();
@@ -20,6 +20,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -28,8 +29,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.antheminc.oss.nimbus.InvalidArgumentException;
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.cmd.Behavior;
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.cmd.CommandElement.Type;
+import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
+import com.antheminc.oss.nimbus.domain.cmd.exec.ExecutionContext;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
+import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
 import com.antheminc.oss.nimbus.support.Holder;
 
 /**
@@ -46,6 +58,9 @@ public class WebActionControllerTest {
 	@Mock
 	private WebCommandDispatcher dispatcher;
 	
+	@Mock
+	private WebEventStreamRegistry eventStreams;
+	
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testHandleGet() {
@@ -158,4 +173,39 @@ public class WebActionControllerTest {
 		Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
 		Assert.assertEquals(null, response.getBody());
 	}
+	
+	@Test
+	public void testHandleEventStream() {
+		final MockHttpServletRequest req = new MockHttpServletRequest("GET", "/hooli/thebox/p/event/stream");
+		final SseEmitter emitter = new SseEmitter();
+		
+		final QuadModel<?, ?> q = Mockito.mock(QuadModel.class, Mockito.RETURNS_DEEP_STUBS);
+		Mockito.when(q.getRoot().getExecutionRuntime().getId()).thenReturn("runtime-1");
+		
+		final Command getCmd = CommandBuilder.withUri("/hooli/thebox/p/sample_view:1/_get").getCommand();
+		final MultiOutput output = new MultiOutput(getCmd.getAbsoluteUri(), new ExecutionContext(new CommandMessage(getCmd, null), q), Action._get, Behavior.$execute);
+		
+		Mockito.when(this.dispatcher.getBuilder()).thenReturn(new WebCommandBuilder());
+		Mockito.when(this.dispatcher.handle(Mockito.any(Command.class), (String)Mockito.isNull())).thenReturn(output);
+		Mockito.when(this.eventStreams.subscribe("runtime-1")).thenReturn(emitter);
+		
+		final SseEmitter response = this.testee.handleEventStream(req, "sample_view:1");
+		
+		// subscription is authorized by reading the root
+		final ArgumentCaptor<Command> captor = ArgumentCaptor.forClass(Command.class);
+		Mockito.verify(this.dispatcher).handle(captor.capture(), (String)Mockito.isNull());
+		Assert.assertEquals(Action._get, captor.getValue().getAction());
+		Assert.assertEquals("/hooli/thebox/p/sample_view:1", captor.getValue().buildUri(Type.DomainAlias));
+		
+		Mockito.verify(this.eventStreams, Mockito.only()).subscribe("runtime-1");
+		Assert.assertSame(emitter, response);
+	}
+	
+	@Test(expected=InvalidArgumentException.class)
+	public void testHandleEventStreamOnNestedParam() {
+		final MockHttpServletRequest req = new MockHttpServletRequest("GET", "/hooli/thebox/p/event/stream");
+		Mockito.when(this.dispatcher.getBuilder()).thenReturn(new WebCommandBuilder());
+		
+		this.testee.handleEventStream(req, "sample_view:1/page_a");
+	}
 }
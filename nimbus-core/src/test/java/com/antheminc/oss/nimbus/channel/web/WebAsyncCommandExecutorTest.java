@@ -0,0 +1,148 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.antheminc.oss.nimbus.FrameworkRuntimeException;
+
+public class WebAsyncCommandExecutorTest {
+
+	private static final String ROOT_1 = "/hooli/thebox/p/sample_view:1";
+	private static final String ROOT_2 = "/hooli/thebox/p/sample_view:2";
+	
+	private WebAsyncCommandExecutor testee;
+	
+	private MockHttpServletRequest request;
+	
+	@Before
+	public void before() {
+		this.testee = new WebAsyncCommandExecutor(2, 10);
+		this.request = new MockHttpServletRequest();
+	}
+	
+	@After
+	public void after() {
+		this.testee.shutdown();
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static boolean awaitResult(DeferredResult<?> result) throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(1);
+		result.setResultHandler(r->done.countDown());
+		return done.await(5, TimeUnit.SECONDS);
+	}
+	
+	@Test
+	public void t00_sameRootInOrder() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> executed = new CopyOnWriteArrayList<>();
+		
+		testee.submit(request, ROOT_1, ()->{
+			started.countDown();
+			await(release);
+			return executed.add("first");
+		});
+		await(started);
+		DeferredResult<Boolean> second = testee.submit(request, ROOT_1, ()->executed.add("second"));
+		
+		// other roots are not held up by the blocked one
+		DeferredResult<Boolean> other = testee.submit(request, ROOT_2, ()->executed.add("other"));
+		Assert.assertTrue(awaitResult(other));
+		Assert.assertEquals(1, testee.getWaitingCount());
+		
+		release.countDown();
+		Assert.assertTrue(awaitResult(second));
+		Assert.assertEquals(3, executed.size());
+		Assert.assertTrue(executed.indexOf("first") < executed.indexOf("second"));
+	}
+	
+	@Test
+	public void t01_rejectedWhenFull() throws Exception {
+		testee.shutdown();
+		this.testee = new WebAsyncCommandExecutor(1, 1);
+		
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		DeferredResult<String> running = testee.submit(request, ROOT_1, ()->{
+			started.countDown();
+			await(release);
+			return "running";
+		});
+		await(started);
+		
+		DeferredResult<String> waiting = testee.submit(request, ROOT_1, ()->"waiting");
+		DeferredResult<String> rejected = testee.submit(request, ROOT_1, ()->"rejected");
+		
+		Assert.assertTrue(rejected.getResult() instanceof FrameworkRuntimeException);
+		Assert.assertEquals(1, testee.getRejected());
+		
+		release.countDown();
+		Assert.assertTrue(awaitResult(running));
+		Assert.assertTrue(awaitResult(waiting));
+		Assert.assertEquals("waiting", waiting.getResult());
+	}
+	
+	@Test
+	public void t02_requestCompletedBeforeResult() throws Exception {
+		AtomicBoolean completed = new AtomicBoolean();
+		DeferredResult<String> result = testee.submit(request, ROOT_1, ()->{
+			RequestContextHolder.currentRequestAttributes().registerDestructionCallback("t02", ()->completed.set(true), RequestAttributes.SCOPE_REQUEST);
+			return "done";
+		});
+		
+		AtomicBoolean completedOnResult = new AtomicBoolean();
+		CountDownLatch done = new CountDownLatch(1);
+		result.setResultHandler(r->{
+			completedOnResult.set(completed.get());
+			done.countDown();
+		});
+		
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Assert.assertTrue(completedOnResult.get());
+	}
+	
+	@Test
+	public void t03_failedWhenShutDown() {
+		testee.shutdown();
+		
+		DeferredResult<String> result = testee.submit(request, ROOT_1, ()->"never");
+		Assert.assertTrue(result.getResult() instanceof FrameworkRuntimeException);
+		Assert.assertEquals(0, testee.getWaitingCount());
+		Assert.assertEquals(1, testee.getRejected());
+	}
+}
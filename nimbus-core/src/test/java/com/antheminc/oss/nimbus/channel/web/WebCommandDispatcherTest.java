@@ -15,25 +15,36 @@
  */
 package com.antheminc.oss.nimbus.channel.web;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
 import com.antheminc.oss.nimbus.domain.cmd.Action;
 import com.antheminc.oss.nimbus.domain.cmd.Behavior;
 import com.antheminc.oss.nimbus.domain.cmd.Command;
 import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
 import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
 import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecutorGateway;
 import com.antheminc.oss.nimbus.domain.cmd.exec.ExecutionContext;
 import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
+import com.fasterxml.jackson.databind.node.TextNode;
 
 /**
  * 
@@ -117,4 +128,75 @@ public class WebCommandDispatcherTest {
 		
 		Assert.assertEquals(expected, actual);
 	}
+	
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testHandleBatch() {
+		final MockHttpServletRequest request = new MockHttpServletRequest();
+		
+		final WebBatchCommand update = new WebBatchCommand();
+		update.setUri("/home/page/field/_update");
+		update.setPayload(new TextNode("abc"));
+		
+		final WebBatchCommand get = new WebBatchCommand();
+		get.setUri("/home/_get");
+		
+		final Command updateCommand = CommandBuilder.withUri("/Acme/abc/def/p/home/page/field/_update").getCommand();
+		final Command getCommand = CommandBuilder.withUri("/Acme/abc/def/p/home/_get").getCommand();
+		final MultiOutput expected = new MultiOutput(updateCommand.getAbsoluteUri(), new ExecutionContext(updateCommand), Action._update, Behavior.$execute);
+		
+		Mockito.when(this.builder.build(request, update)).thenReturn(updateCommand);
+		Mockito.when(this.builder.build(request, get)).thenReturn(getCommand);
+		Mockito.when(this.gateway.execute(Mockito.anyListOf(CommandMessage.class))).thenReturn(expected);
+		
+		final Object actual = this.testee.handle(request, Arrays.asList(update, get));
+		
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(this.gateway, Mockito.times(1)).execute(captor.capture());
+		
+		List<CommandMessage> cmdMsgs = captor.getValue();
+		Assert.assertEquals(2, cmdMsgs.size());
+		Assert.assertSame(updateCommand, cmdMsgs.get(0).getCommand());
+		Assert.assertEquals("\"abc\"", cmdMsgs.get(0).getRawPayload());
+		Assert.assertSame(getCommand, cmdMsgs.get(1).getCommand());
+		Assert.assertNull(cmdMsgs.get(1).getRawPayload());
+		
+		Assert.assertEquals(expected, actual);
+	}
+	
+	@Test
+	public void testHandleAsync() throws Exception {
+		final WebAsyncCommandExecutor asyncExecutor = new WebAsyncCommandExecutor(1, 1);
+		final BeanResolverStrategy beanResolver = Mockito.mock(BeanResolverStrategy.class);
+		Mockito.when(beanResolver.get(WebCommandBuilder.class)).thenReturn(this.builder);
+		Mockito.when(beanResolver.get(CommandExecutorGateway.class)).thenReturn(this.gateway);
+		Mockito.when(beanResolver.find(WebAsyncCommandExecutor.class)).thenReturn(asyncExecutor);
+		this.testee = new WebCommandDispatcher(beanResolver);
+		
+		final MockHttpServletRequest request = new MockHttpServletRequest();
+		final String payload = "{}";
+		final String commandUri = "/Acme/abc/def/p/home/_new&execute";
+		final Command expectedCommand = CommandBuilder.withUri(commandUri).getCommand();
+		final MultiOutput expected = new MultiOutput(commandUri, new ExecutionContext(expectedCommand), Action._new, Behavior.$execute);
+		
+		final String[] sessionIdInWorker = new String[1];
+		Mockito.when(this.builder.build(request)).thenReturn(expectedCommand);
+		Mockito.when(this.gateway.execute(expectedCommand, payload)).then(inv->{
+			sessionIdInWorker[0] = RequestContextHolder.getRequestAttributes().getSessionId();
+			return expected;
+		});
+		
+		try {
+			final CountDownLatch done = new CountDownLatch(1);
+			final DeferredResult<Object> result = this.testee.handleAsync(request, RequestMethod.POST, null, payload, Function.identity());
+			result.setResultHandler(r->done.countDown());
+			
+			Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+			Assert.assertEquals(expected, result.getResult());
+			Assert.assertEquals(request.getSession().getId(), sessionIdInWorker[0]);
+			Assert.assertNull(RequestContextHolder.getRequestAttributes());
+		} finally {
+			asyncExecutor.shutdown();
+		}
+	}
 }
@@ -0,0 +1,64 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class WebEventStreamRegistryTest {
+
+	private WebEventStreamRegistry testee;
+	
+	@Before
+	public void before() {
+		this.testee = new WebEventStreamRegistry(1, 10, 1000);
+	}
+	
+	@After
+	public void after() {
+		this.testee.shutdown();
+	}
+	
+	@Test
+	public void t00_subscribe() {
+		Assert.assertTrue(testee.isEmpty());
+		
+		SseEmitter emitter1 = testee.subscribe("runtime-1");
+		SseEmitter emitter2 = testee.subscribe("runtime-1");
+		
+		Assert.assertNotSame(emitter1, emitter2);
+		Assert.assertFalse(testee.isEmpty());
+		Assert.assertTrue(testee.hasSubscribers("runtime-1"));
+		Assert.assertFalse(testee.hasSubscribers("runtime-2"));
+		
+		testee.unsubscribe("runtime-1", emitter1);
+		Assert.assertTrue(testee.hasSubscribers("runtime-1"));
+		
+		testee.unsubscribe("runtime-1", emitter2);
+		Assert.assertFalse(testee.hasSubscribers("runtime-1"));
+		Assert.assertTrue(testee.isEmpty());
+	}
+	
+	@Test
+	public void t01_publishWithoutSubscribers() {
+		testee.publish("runtime-1", "{}");
+		
+		Assert.assertEquals(0, testee.getDropped());
+	}
+}
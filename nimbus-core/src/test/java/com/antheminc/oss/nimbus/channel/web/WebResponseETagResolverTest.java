@@ -0,0 +1,99 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.channel.web;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.cmd.Behavior;
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.Output;
+import com.antheminc.oss.nimbus.domain.cmd.exec.ExecutionContext;
+import com.antheminc.oss.nimbus.domain.model.config.ParamConfig;
+import com.antheminc.oss.nimbus.support.Holder;
+
+public class WebResponseETagResolverTest {
+
+	private static Holder<MultiOutput> response(Action action, Object value) {
+		return response("/Acme/abc/def/p/home", action, value);
+	}
+	
+	private static Holder<MultiOutput> response(String uri, Action action, Object value) {
+		Command cmd = CommandBuilder.withUri(uri+"/"+action.name()).getCommand();
+		ExecutionContext eCtx = new ExecutionContext(cmd);
+		
+		Output<Object> output = new Output<>(cmd.getAbsoluteUri(), eCtx, action, Behavior.$execute);
+		output.setValue(value);
+		
+		MultiOutput mOutput = new MultiOutput(cmd.getAbsoluteUri(), eCtx, action, Behavior.$execute);
+		mOutput.template().add(output);
+		return new Holder<>(mOutput);
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ParamConfig<?> mockConfig(Class<?> referredClass) {
+		ParamConfig config = Mockito.mock(ParamConfig.class);
+		Mockito.when(config.getReferredClass()).thenReturn(referredClass);
+		return config;
+	}
+	
+	@Test
+	public void t00_config() {
+		WebResponseETagResolver resolver = new WebResponseETagResolver(true, false);
+		ParamConfig<?> home = mockConfig(String.class);
+		ParamConfig<?> homeOfOtherSession = mockConfig(String.class);
+		
+		String etag = resolver.resolve(response(Action._config, home));
+		
+		Assert.assertNotNull(etag);
+		Assert.assertTrue(etag.startsWith("\""));
+		Assert.assertEquals(etag, resolver.resolve(response(Action._config, home)));
+		Assert.assertEquals(etag, resolver.resolve(response(Action._config, homeOfOtherSession)));
+		Assert.assertEquals(etag, resolver.resolve(response("/Acme/abc/def/p/home:2", Action._config, homeOfOtherSession)));
+		Assert.assertNotEquals(etag, resolver.resolve(response(Action._config, mockConfig(Integer.class))));
+		Assert.assertNotEquals(etag, resolver.resolve(response("/Acme/abc/def/p/home/page", Action._config, home)));
+		Assert.assertNotEquals(etag, new WebResponseETagResolver(true, false).resolve(response(Action._config, home)));
+	}
+	
+	@Test
+	public void t01_notApplicable() {
+		WebResponseETagResolver resolver = new WebResponseETagResolver(false, true);
+		
+		Assert.assertNull(resolver.resolve(response(Action._config, Mockito.mock(ParamConfig.class))));
+		Assert.assertNull(resolver.resolve(response(Action._get, "not a param")));
+		Assert.assertNull(resolver.resolve(response(Action._update, Boolean.TRUE)));
+		Assert.assertNull(resolver.resolve(new Holder<>("not an output")));
+	}
+	
+	@Test
+	public void t02_matches() {
+		WebResponseETagResolver resolver = new WebResponseETagResolver(true, true);
+		
+		Assert.assertTrue(resolver.matches(Arrays.asList("\"a\"", "W/\"b-1\""), "W/\"b-1\""));
+		Assert.assertTrue(resolver.matches(Arrays.asList("\"b-1\""), "W/\"b-1\""));
+		Assert.assertTrue(resolver.matches(Arrays.asList("*"), "\"a\""));
+		Assert.assertFalse(resolver.matches(Arrays.asList("W/\"b-1\""), "W/\"b-2\""));
+		Assert.assertFalse(resolver.matches(Collections.emptyList(), "\"a\""));
+		Assert.assertFalse(resolver.matches(null, "\"a\""));
+	}
+}
@@ -0,0 +1,198 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.bpm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
+
+public class BPMContinuationExecutorTest {
+
+	private BPMContinuationExecutor executor;
+	
+	@Before
+	public void before() {
+		executor = new BPMContinuationExecutor(2, 1);
+	}
+	
+	@After
+	public void after() {
+		executor.shutdown();
+	}
+	
+	@Test
+	public void t00_drainInCompletionOrder() throws Exception {
+		MultiOutput first = Mockito.mock(MultiOutput.class);
+		MultiOutput second = Mockito.mock(MultiOutput.class);
+		List<Boolean> inContinuation = new CopyOnWriteArrayList<>();
+		
+		Assert.assertTrue(executor.submit("root", ()->{
+			inContinuation.add(executor.isInContinuation());
+			return first;
+		}));
+		List<MultiOutput> outputs = new ArrayList<>(awaitDrain("root"));
+		
+		Assert.assertTrue(executor.submit("root", ()->second));
+		outputs.addAll(awaitDrain("root"));
+		
+		Assert.assertEquals(2, outputs.size());
+		Assert.assertSame(first, outputs.get(0));
+		Assert.assertSame(second, outputs.get(1));
+		Assert.assertTrue(executor.drain("root").isEmpty());
+		
+		Assert.assertEquals(Boolean.TRUE, inContinuation.get(0));
+		Assert.assertFalse(executor.isInContinuation());
+	}
+	
+	@Test
+	public void t01_coalescePendingPerRoot() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch queuedDone = new CountDownLatch(1);
+		List<String> runs = new CopyOnWriteArrayList<>();
+		
+		executor.submit("root", ()->{
+			runs.add("running");
+			started.countDown();
+			await(release);
+			return null;
+		});
+		Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+		
+		// one continuation may wait behind the running one, further ones are folded into it
+		Assert.assertTrue(executor.submit("root", ()->{ runs.add("queued"); queuedDone.countDown(); return null; }));
+		Assert.assertTrue(executor.submit("root", ()->{ runs.add("coalesced"); return null; }));
+		release.countDown();
+		
+		Assert.assertTrue(queuedDone.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList("running", "queued"), runs);
+	}
+	
+	@Test
+	public void t02_rejectedWhenSaturated() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(2);
+		
+		executor.submit("a", ()->{ started.countDown(); await(release); return null; });
+		executor.submit("b", ()->{ started.countDown(); await(release); return null; });
+		Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+		
+		Assert.assertTrue(executor.submit("c", ()->null));
+		Assert.assertFalse(executor.submit("d", ()->null));
+		Assert.assertEquals(1, executor.getRejected());
+		
+		release.countDown();
+	}
+	
+	@Test
+	public void t03_undrainedOutputsExpire() throws Exception {
+		BPMContinuationExecutor expiring = new BPMContinuationExecutor(1, 1, 0, TimeUnit.MILLISECONDS, 10);
+		try {
+			expiring.submit("root", ()->Mockito.mock(MultiOutput.class));
+			
+			for(int i=0; i<500 && expiring.getDropped()==0; i++) {
+				Assert.assertTrue(expiring.drain("root").isEmpty());
+				Thread.sleep(10);
+			}
+			Assert.assertEquals(1, expiring.getDropped());
+		} finally {
+			expiring.shutdown();
+		}
+	}
+	
+	@Test
+	public void t04_outputsBoundedPerRoot() throws Exception {
+		BPMContinuationExecutor bounded = new BPMContinuationExecutor(1, 1, 1, TimeUnit.MINUTES, 1);
+		try {
+			CountDownLatch release = new CountDownLatch(1);
+			MultiOutput second = Mockito.mock(MultiOutput.class);
+			
+			bounded.submit("root", ()->{ await(release); return Mockito.mock(MultiOutput.class); });
+			bounded.submit("root", ()->second);
+			release.countDown();
+			
+			for(int i=0; i<500 && bounded.getDropped()==0; i++)
+				Thread.sleep(10);
+			
+			Assert.assertEquals(1, bounded.getDropped());
+			Assert.assertEquals(Arrays.asList(second), bounded.drain("root"));
+		} finally {
+			bounded.shutdown();
+		}
+	}
+	
+	@Test
+	public void t05_sessionCarriedRequestNotShared() throws Exception {
+		MockHttpServletRequest httpReq = new MockHttpServletRequest();
+		httpReq.setAttribute("inRequest", "submitter");
+		httpReq.getSession().setAttribute("inSession", "user");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpReq));
+		
+		List<Object> seen = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(1);
+		try {
+			executor.submit("root", ()->{
+				RequestAttributes reqAttributes = RequestContextHolder.getRequestAttributes();
+				seen.add(reqAttributes.getSessionId());
+				seen.add(reqAttributes.getAttribute("inSession", RequestAttributes.SCOPE_SESSION));
+				seen.add(String.valueOf(reqAttributes.getAttribute("inRequest", RequestAttributes.SCOPE_REQUEST)));
+				reqAttributes.setAttribute("fromContinuation", "worker", RequestAttributes.SCOPE_SESSION);
+				done.countDown();
+				return null;
+			});
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+		
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList(httpReq.getSession().getId(), "user", "null"), seen);
+		Assert.assertEquals("worker", httpReq.getSession().getAttribute("fromContinuation"));
+	}
+	
+	private List<MultiOutput> awaitDrain(String rootKey) throws InterruptedException {
+		for(int i=0; i<500; i++) {
+			List<MultiOutput> drained = executor.drain(rootKey);
+			if(!drained.isEmpty())
+				return drained;
+			
+			Thread.sleep(10);
+		}
+		throw new AssertionError("No continuation output drained for: "+rootKey);
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
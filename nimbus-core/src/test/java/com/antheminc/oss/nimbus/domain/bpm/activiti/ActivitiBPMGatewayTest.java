@@ -0,0 +1,189 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.bpm.activiti;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.UserTask;
+import org.activiti.engine.RuntimeService;
+import org.activiti.engine.TaskService;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.impl.persistence.deploy.DeploymentManager;
+import org.activiti.engine.impl.persistence.deploy.ProcessDefinitionCacheEntry;
+import org.activiti.engine.impl.persistence.entity.TaskEntity;
+import org.activiti.engine.repository.ProcessDefinition;
+import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.task.Task;
+import org.activiti.engine.task.TaskQuery;
+import org.activiti.spring.SpringProcessEngineConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.bpm.ProcessEngineContext;
+import com.antheminc.oss.nimbus.domain.defn.Constants;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.ExecutionModel;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.internal.ExecutionEntity;
+
+public class ActivitiBPMGatewayTest {
+
+	private static final String DEFINITION_ID = "order:1:101";
+	
+	private static final String INSTANCE_ID = "5001";
+	
+	ActivitiBPMGateway gateway;
+	
+	TaskService taskService;
+	
+	TaskQuery taskQuery;
+	
+	CommandExecutor commandExecutor;
+	
+	CommandContext commandContext;
+	
+	ActivitiProcessFlow processFlow;
+	
+	Param<?> param;
+	
+	@Before
+	public void setUp() {
+		gateway = new ActivitiBPMGateway(mock(BeanResolverStrategy.class));
+		
+		taskService = mock(TaskService.class);
+		taskQuery = mock(TaskQuery.class);
+		when(taskService.createTaskQuery()).thenReturn(taskQuery);
+		when(taskQuery.processInstanceId(anyString())).thenReturn(taskQuery);
+		gateway.taskService = taskService;
+		gateway.runtimeService = mock(RuntimeService.class);
+		
+		commandContext = mock(CommandContext.class, Mockito.RETURNS_DEEP_STUBS);
+		commandExecutor = mock(CommandExecutor.class);
+		when(commandExecutor.execute(any(Command.class))).thenAnswer(invocation->
+			invocation.getArgumentAt(0, Command.class).execute(commandContext));
+		
+		ActivitiProcessDefinitionCache cache = new ActivitiProcessDefinitionCache();
+		cache.add(DEFINITION_ID, definition());
+		DeploymentManager deploymentManager = mock(DeploymentManager.class);
+		when(deploymentManager.getProcessDefinitionCache()).thenReturn(cache);
+		
+		SpringProcessEngineConfiguration processEngineConfiguration = mock(SpringProcessEngineConfiguration.class);
+		when(processEngineConfiguration.getDeploymentManager()).thenReturn(deploymentManager);
+		when(processEngineConfiguration.getCommandExecutor()).thenReturn(commandExecutor);
+		gateway.processEngineConfiguration = processEngineConfiguration;
+		
+		processFlow = new ActivitiProcessFlow();
+		processFlow.setProcessDefinitionId(DEFINITION_ID);
+		
+		ExecutionEntity<?, ?> entity = mock(ExecutionEntity.class);
+		when(entity.getFlow()).thenReturn(processFlow);
+		ExecutionModel<?> rootExecution = mock(ExecutionModel.class);
+		doReturn(entity).when(rootExecution).getState();
+		param = mock(Param.class);
+		doReturn(rootExecution).when(param).getRootExecution();
+	}
+	
+	private static ProcessDefinitionCacheEntry definition() {
+		ProcessDefinition definition = mock(ProcessDefinition.class);
+		when(definition.getId()).thenReturn(DEFINITION_ID);
+		when(definition.getKey()).thenReturn("order");
+		when(definition.getVersion()).thenReturn(1);
+		
+		Process process = new Process();
+		process.setId("order");
+		for(String taskKey : Arrays.asList("review", "approve")) {
+			UserTask userTask = new UserTask();
+			userTask.setId(taskKey);
+			process.addFlowElement(userTask);
+		}
+		return new ProcessDefinitionCacheEntry(definition, new BpmnModel(), process);
+	}
+	
+	private static Task task(String id, String taskKey) {
+		Task task = mock(Task.class);
+		when(task.getId()).thenReturn(id);
+		when(task.getTaskDefinitionKey()).thenReturn(taskKey);
+		return task;
+	}
+	
+	@Test
+	public void t00_startTakesActiveTasksFromContext() {
+		ProcessInstance pi = mock(ProcessInstance.class);
+		when(pi.getId()).thenReturn(INSTANCE_ID);
+		when(pi.getProcessDefinitionId()).thenReturn(DEFINITION_ID);
+		when(gateway.runtimeService.startProcessInstanceByKey(eq("order"), anyMapOf(String.class, Object.class))).thenAnswer(invocation->{
+			// as recorded by the user task behavior when the engine enters a task
+			Map<?, ?> variables = invocation.getArgumentAt(1, Map.class);
+			((ProcessEngineContext)variables.get(Constants.KEY_EXECUTE_PROCESS_CTX.code)).getActiveTasks().add("review");
+			return pi;
+		});
+		
+		ActivitiProcessFlow started = gateway.startBusinessProcess(param, "order");
+		
+		assertEquals(Collections.singletonList("review"), started.getActiveTasks());
+		assertEquals(DEFINITION_ID, started.getProcessDefinitionId());
+		verifyZeroInteractions(taskService);
+	}
+	
+	@Test
+	public void t01_continueWithOneQueryAndOneCommand() {
+		processFlow.setActiveTasks(new ArrayList<>(Arrays.asList("review", "approve")));
+		List<Task> openTasks = Arrays.asList(task("t1", "review"), task("t2", "review"), task("t3", "approve"));
+		when(taskQuery.list()).thenReturn(openTasks);
+		TaskEntity taskEntity = mock(TaskEntity.class);
+		when(commandContext.getTaskEntityManager().findById(anyString())).thenReturn(taskEntity);
+		
+		gateway.continueBusinessProcessExecution(param, INSTANCE_ID);
+		
+		verify(taskService, times(1)).createTaskQuery();
+		verify(taskQuery).processInstanceId(INSTANCE_ID);
+		verify(taskQuery, never()).taskDefinitionKey(anyString());
+		verify(commandExecutor, times(1)).execute(any(Command.class));
+		for(String taskId : Arrays.asList("t1", "t2", "t3"))
+			verify(taskService).complete(eq(taskId), anyMapOf(String.class, Object.class));
+	}
+	
+	@Test
+	public void t02_continueWithoutActiveTasks() {
+		processFlow.setActiveTasks(new ArrayList<>());
+		
+		gateway.continueBusinessProcessExecution(param, INSTANCE_ID);
+		
+		verifyZeroInteractions(taskService, commandExecutor);
+	}
+}
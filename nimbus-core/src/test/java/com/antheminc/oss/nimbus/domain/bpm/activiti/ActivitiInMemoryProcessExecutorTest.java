@@ -0,0 +1,136 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.bpm.activiti;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.activiti.bpmn.model.EndEvent;
+import org.activiti.bpmn.model.ExclusiveGateway;
+import org.activiti.bpmn.model.FlowNode;
+import org.activiti.bpmn.model.ImplementationType;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SequenceFlow;
+import org.activiti.bpmn.model.ServiceTask;
+import org.activiti.bpmn.model.StartEvent;
+import org.activiti.bpmn.model.UserTask;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+
+import com.antheminc.oss.nimbus.FrameworkRuntimeException;
+import com.antheminc.oss.nimbus.domain.bpm.ProcessEngineContext;
+
+public class ActivitiInMemoryProcessExecutorTest {
+	
+	ActivitiInMemoryProcessExecutor executor;
+	
+	@Before
+	public void setUp() {
+		ActivitiExpressionManager expMgr = new ActivitiExpressionManager();
+		expMgr.setApplicationContext(mock(ApplicationContext.class));
+		executor = new ActivitiInMemoryProcessExecutor(expMgr);
+	}
+	
+	@Test
+	public void t01_conditionalFlow() {
+		Process process = createProcess();
+		assertTrue(executor.supports("p:1:1", process));
+		
+		ProcessEngineContext context = new ProcessEngineContext(null);
+		context.setInput("a");
+		executor.execute(process, context);
+		assertEquals("A", context.getOutput());
+	}
+	
+	@Test
+	public void t02_defaultFlow() {
+		ProcessEngineContext context = new ProcessEngineContext(null);
+		context.setInput("z");
+		executor.execute(createProcess(), context);
+		assertEquals("B", context.getOutput());
+	}
+	
+	@Test
+	public void t03_unsupported() {
+		Process process = createProcess();
+		UserTask userTask = new UserTask();
+		userTask.setId("userTask");
+		process.addFlowElement(userTask);
+		
+		assertFalse(executor.supports("p:2:1", process));
+	}
+	
+	@Test(expected=FrameworkRuntimeException.class)
+	public void t04_unsatisfiedSingleFlowFails() {
+		Process process = new Process();
+		process.setId("p");
+		
+		StartEvent start = node(new StartEvent(), "start", process);
+		ServiceTask task = serviceTask("task", "${processContext.setOutput('A')}", process);
+		EndEvent end = node(new EndEvent(), "end", process);
+		
+		flow(start, task, "${processContext.input == 'a'}", process);
+		flow(task, end, null, process);
+		
+		ProcessEngineContext context = new ProcessEngineContext(null);
+		context.setInput("z");
+		executor.execute(process, context);
+	}
+	
+	private Process createProcess() {
+		Process process = new Process();
+		process.setId("p");
+		
+		StartEvent start = node(new StartEvent(), "start", process);
+		ExclusiveGateway gateway = node(new ExclusiveGateway(), "gateway", process);
+		ServiceTask taskA = serviceTask("taskA", "${processContext.setOutput('A')}", process);
+		ServiceTask taskB = serviceTask("taskB", "${processContext.setOutput('B')}", process);
+		EndEvent end = node(new EndEvent(), "end", process);
+		
+		flow(start, gateway, null, process);
+		flow(gateway, taskA, "${processContext.input == 'a'}", process);
+		gateway.setDefaultFlow(flow(gateway, taskB, null, process).getId());
+		flow(taskA, end, null, process);
+		flow(taskB, end, null, process);
+		return process;
+	}
+	
+	private ServiceTask serviceTask(String id, String expression, Process process) {
+		ServiceTask serviceTask = node(new ServiceTask(), id, process);
+		serviceTask.setImplementationType(ImplementationType.IMPLEMENTATION_TYPE_EXPRESSION);
+		serviceTask.setImplementation(expression);
+		return serviceTask;
+	}
+	
+	private <N extends FlowNode> N node(N node, String id, Process process) {
+		node.setId(id);
+		process.addFlowElement(node);
+		return node;
+	}
+	
+	private SequenceFlow flow(FlowNode source, FlowNode target, String condition, Process process) {
+		SequenceFlow flow = new SequenceFlow(source.getId(), target.getId());
+		flow.setId(source.getId()+"-"+target.getId());
+		flow.setConditionExpression(condition);
+		process.addFlowElement(flow);
+		
+		source.getOutgoingFlows().add(flow);
+		return flow;
+	}
+}
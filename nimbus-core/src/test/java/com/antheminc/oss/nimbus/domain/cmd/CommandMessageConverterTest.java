@@ -0,0 +1,149 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.cmd;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.model.config.ParamConfig;
+import com.antheminc.oss.nimbus.domain.model.config.ParamConfigType;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Model;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.support.pojo.CollectionsTemplate;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.Setter;
+
+public class CommandMessageConverterTest {
+
+	private CommandMessageConverter converter;
+	
+	@Getter @Setter
+	public static class SampleCore {
+		private String name;
+		private int count;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> Param<T> mockLeaf(String code, Class<T> referredClass) {
+		ParamConfig<T> config = Mockito.mock(ParamConfig.class);
+		Mockito.when(config.getCode()).thenReturn(code);
+		Mockito.when(config.getType()).thenReturn(new ParamConfigType.Field(false, code, referredClass));
+		Mockito.when(config.getReferredClass()).thenReturn(referredClass);
+		
+		Param<T> p = Mockito.mock(Param.class);
+		Mockito.when(p.getConfig()).thenReturn(config);
+		Mockito.when(p.isLeaf()).thenReturn(true);
+		Mockito.when(p.setState(Mockito.any())).thenReturn(Action._update);
+		return p;
+	}
+	
+	@Before
+	public void before() {
+		BeanResolverStrategy beanResolver = Mockito.mock(BeanResolverStrategy.class);
+		Mockito.when(beanResolver.get(ObjectMapper.class)).thenReturn(new ObjectMapper());
+		converter = new CommandMessageConverter(beanResolver);
+	}
+	
+	@Test
+	public void t00_emptyJsonObject() {
+		List<String> samples = Arrays.asList("{}", "{ }", "{\n\t \r}", " {}", "{} ", "{a}", "{", "}", "[]", "{\"a\":1}", "{{}}");
+		for(String json : samples)
+			Assert.assertEquals(json, Pattern.matches(CommandMessageConverter.EMPTY_JSON_REGEX, json), CommandMessage.isEmptyJsonObject(json));
+		
+		Assert.assertFalse(new CommandMessage(null, "{ }").hasPayload());
+		Assert.assertTrue(new CommandMessage(null, "{\"a\":1}").hasPayload());
+	}
+	
+	@Test
+	public void t01_readEmpty() {
+		Assert.assertNull(converter.read(SampleCore.class, null));
+		Assert.assertNull(converter.read(SampleCore.class, ""));
+		Assert.assertNull(converter.read(SampleCore.class, "{  }"));
+	}
+	
+	@Test
+	public void t02_readWithCachedReader() {
+		SampleCore first = converter.read(SampleCore.class, "{\"name\":\"a\",\"count\":1}");
+		SampleCore second = converter.read(SampleCore.class, "{\"name\":\"b\",\"count\":2}");
+		
+		Assert.assertEquals("a", first.getName());
+		Assert.assertEquals(1, first.getCount());
+		Assert.assertEquals("b", second.getName());
+		Assert.assertEquals(2, second.getCount());
+		Assert.assertSame(converter.readerFor(SampleCore.class), converter.readerFor(SampleCore.class));
+	}
+
+	@Test
+	public void t03_readersKeyedByType() {
+		// configs are built per quad, so equal types must not add readers
+		Param<String> p1 = mockLeaf("name", String.class);
+		Param<String> p2 = mockLeaf("name", String.class);
+		
+		Assert.assertNotSame(p1.getConfig(), p2.getConfig());
+		Assert.assertSame(converter.readerFor(p1.getConfig()), converter.readerFor(p2.getConfig()));
+		Assert.assertSame(converter.readerFor(String.class), converter.readerFor(p1.getConfig()));
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Test
+	public void t04_applyUpdateStreamed() {
+		Param<String> name = mockLeaf("name", String.class);
+		Param<Integer> count = mockLeaf("count", Integer.class);
+		
+		CollectionsTemplate<List<Param<?>>, Param<?>> children = Mockito.mock(CollectionsTemplate.class);
+		Mockito.when(children.find("name")).thenReturn(name);
+		Mockito.when(children.find("count")).thenReturn(count);
+		
+		Model<Object> model = Mockito.mock(Model.class);
+		Mockito.when(model.templateParams()).thenReturn(children);
+		
+		Param<Object> root = Mockito.mock(Param.class);
+		Mockito.when(root.isNested()).thenReturn(true);
+		Mockito.when(root.findIfNested()).thenReturn(model);
+		Mockito.when(root.applyChanges(Mockito.any())).thenAnswer(inv->((Supplier<Action>)inv.getArguments()[0]).get());
+		
+		Action action = converter.apply(root, "{\"name\":\"a\",\"unknown\":{\"x\":[1,2]},\"count\":2}");
+		
+		Assert.assertEquals(Action._update, action);
+		Mockito.verify(root).applyChanges(Mockito.any());
+		Mockito.verify(root, Mockito.never()).setState(Mockito.any());
+		Mockito.verify(name).setState("a");
+		Mockito.verify(count).setState(2);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Test
+	public void t05_applyValueOnLeaf() throws Exception {
+		Param<String> name = mockLeaf("name", String.class);
+		
+		try (JsonParser jp = new ObjectMapper().getFactory().createParser("\"b\"")) {
+			jp.nextToken();
+			Assert.assertEquals(Action._update, converter.applyValue(jp, (Param<Object>)(Param<?>)name, "\"b\""));
+		}
+		Mockito.verify(name).setState("b");
+	}
+}
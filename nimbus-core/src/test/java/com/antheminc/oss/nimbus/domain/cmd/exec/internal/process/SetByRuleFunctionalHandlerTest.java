@@ -0,0 +1,125 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.cmd.exec.internal.process;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecution.MultiOutput;
+import com.antheminc.oss.nimbus.domain.cmd.exec.CommandExecutorGateway;
+import com.antheminc.oss.nimbus.domain.cmd.exec.ExecutionContext;
+import com.antheminc.oss.nimbus.domain.config.builder.DomainConfigBuilder;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.config.RulesConfig;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.QuadModel;
+import com.antheminc.oss.nimbus.domain.model.state.RulesRuntime;
+import com.antheminc.oss.nimbus.domain.rules.RulesEngineFactory;
+import com.antheminc.oss.nimbus.domain.rules.RulesEngineFactoryProducer;
+
+public class SetByRuleFunctionalHandlerTest {
+
+	@Test
+	public void t00_runtimeCachedPerRule() {
+		RulesConfig rConfig = Mockito.mock(RulesConfig.class);
+		RulesRuntime rRuntime = Mockito.mock(RulesRuntime.class);
+		RulesEngineFactory reFactory = Mockito.mock(RulesEngineFactory.class);
+		Mockito.when(reFactory.createConfig("assignment")).thenReturn(rConfig);
+		Mockito.when(reFactory.createRuntime(rConfig)).thenReturn(rRuntime);
+		
+		SetByRuleFunctionalHandler<Object, Object> handler = new SetByRuleFunctionalHandler<>();
+		
+		Assert.assertSame(rRuntime, handler.getOrCreateRuntime(reFactory, "assignment"));
+		Assert.assertSame(rRuntime, handler.getOrCreateRuntime(reFactory, "assignment"));
+		
+		Mockito.verify(reFactory, Mockito.times(1)).createConfig("assignment");
+		Mockito.verify(rRuntime, Mockito.times(1)).start();
+	}
+	
+	@Test
+	public void t01_missingRuleNotCached() {
+		RulesEngineFactory reFactory = Mockito.mock(RulesEngineFactory.class);
+		SetByRuleFunctionalHandler<Object, Object> handler = new SetByRuleFunctionalHandler<>();
+		
+		Assert.assertNull(handler.getOrCreateRuntime(reFactory, "missing"));
+		Assert.assertNull(handler.getOrCreateRuntime(reFactory, "missing"));
+		
+		Mockito.verify(reFactory, Mockito.times(2)).createConfig("missing");
+	}
+	
+	@Test
+	public void t02_shutdownReleasesRuntimes() {
+		RulesConfig rConfig = Mockito.mock(RulesConfig.class);
+		RulesRuntime rRuntime = Mockito.mock(RulesRuntime.class);
+		RulesEngineFactory reFactory = Mockito.mock(RulesEngineFactory.class);
+		Mockito.when(reFactory.createConfig("assignment")).thenReturn(rConfig);
+		Mockito.when(reFactory.createRuntime(rConfig)).thenReturn(rRuntime);
+		
+		SetByRuleFunctionalHandler<Object, Object> handler = new SetByRuleFunctionalHandler<>();
+		handler.getOrCreateRuntime(reFactory, "assignment");
+		handler.shutdown();
+		
+		Mockito.verify(rRuntime, Mockito.times(1)).shutdown();
+		
+		// created afresh once released
+		handler.getOrCreateRuntime(reFactory, "assignment");
+		Mockito.verify(rRuntime, Mockito.times(2)).start();
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void t03_associatedParamsOfSameRootResolvedLocally() {
+		RulesConfig rConfig = Mockito.mock(RulesConfig.class);
+		RulesRuntime rRuntime = Mockito.mock(RulesRuntime.class);
+		RulesEngineFactory reFactory = Mockito.mock(RulesEngineFactory.class);
+		Mockito.when(reFactory.createConfig("assignment")).thenReturn(rConfig);
+		Mockito.when(reFactory.createRuntime(rConfig)).thenReturn(rRuntime);
+		
+		SetByRuleFunctionalHandler<Object, Object> handler = new SetByRuleFunctionalHandler<>();
+		handler.rulesEngineFactoryProducer = Mockito.mock(RulesEngineFactoryProducer.class);
+		Mockito.when(handler.rulesEngineFactoryProducer.getFactory(Matchers.any())).thenReturn(reFactory);
+		handler.executorGateway = Mockito.mock(CommandExecutorGateway.class);
+		handler.setDomainConfigBuilder(Mockito.mock(DomainConfigBuilder.class));
+		Mockito.doReturn(Mockito.mock(ModelConfig.class)).when(handler.getDomainConfigBuilder()).getRootDomainOrThrowEx("sample_view");
+		
+		Command cmd = CommandBuilder.withUri("/hooli/thebox/p/sample_view:1/page/_process?fn=_setByRule&rule=assignment"
+				+ "&associatedParam=/page/field/_get&associatedParam=/p/sample_core:2/_get").getCommand();
+		ExecutionContext eCtx = new ExecutionContext(cmd);
+		eCtx.setQuadModel(Mockito.mock(QuadModel.class, Mockito.RETURNS_DEEP_STUBS));
+		
+		Param<Object> actionParam = Mockito.mock(Param.class);
+		Param<Object> localParam = Mockito.mock(Param.class);
+		Param<Object> remoteParam = Mockito.mock(Param.class);
+		Mockito.doReturn(localParam).when(eCtx.getQuadModel().getView()).findParamByPath("/page/field");
+		
+		MultiOutput remoteOutput = Mockito.mock(MultiOutput.class);
+		Mockito.doReturn(remoteParam).when(remoteOutput).getSingleResult();
+		Mockito.when(handler.executorGateway.execute(Matchers.any(CommandMessage.class))).thenReturn(remoteOutput);
+		
+		handler.execute(eCtx, actionParam);
+		
+		Mockito.verify(rRuntime).fireRules(actionParam, localParam, remoteParam);
+		ArgumentCaptor<CommandMessage> executed = ArgumentCaptor.forClass(CommandMessage.class);
+		Mockito.verify(handler.executorGateway, Mockito.times(1)).execute(executed.capture());
+		Assert.assertEquals("sample_core", executed.getValue().getCommand().getRootDomainAlias());
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.cmd.exec.internal.process;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.cmd.Command;
+import com.antheminc.oss.nimbus.domain.cmd.CommandBuilder;
+import com.antheminc.oss.nimbus.domain.cmd.CommandMessage;
+
+public class URLBasedAssignmentFunctionHandlerTest {
+
+	private static final String URI = "/hooli/thebox/p/sample_view/page/tile/section/patients/_process?fn=_set"
+			+ "&url=/p/patient/_search?fn=query&where=patient.status.eq('Active')&pageSize=5";
+	
+	private static final String URI_WITH_REF_ID = "/hooli/thebox/p/sample_view:%d/page/tile/section/patients/_process?fn=_set"
+			+ "&url=/p/patient/_search?fn=query&where=patient.status.eq('Active')&pageSize=5";
+	
+	@Test
+	public void t00_externalCommandResolvedOnce() {
+		SetFunctionHandler<Object, Object> handler = new SetFunctionHandler<>();
+		CommandMessage cmdMsg = new CommandMessage(CommandBuilder.withUri(URI).getCommand(), null);
+		
+		Command first = handler.resolveExternalCommand(cmdMsg);
+		Command second = handler.resolveExternalCommand(cmdMsg);
+		
+		Assert.assertNotSame(first, second);
+		Assert.assertSame(Action._search, second.getAction());
+		Assert.assertEquals("/hooli/thebox/p/patient/_search", second.getAbsoluteAliasWithAction());
+		Assert.assertEquals("query", second.getFirstParameterValue("fn"));
+		Assert.assertEquals("patient.status.eq('Active')", second.getFirstParameterValue("where"));
+		Assert.assertEquals("5", second.getFirstParameterValue("pageSize"));
+	}
+	
+	@Test
+	public void t01_sameConfigurationAcrossRefIds() {
+		SetFunctionHandler<Object, Object> handler = new SetFunctionHandler<>();
+		
+		Command first = handler.resolveExternalCommand(new CommandMessage(CommandBuilder.withUri(String.format(URI_WITH_REF_ID, 1)).getCommand(), null));
+		first.getRequestParams().put("where", new String[] {"patient.status.eq('Inactive')"});
+		first.getRequestParams().get("pageSize")[0] = "50";
+		
+		Command second = handler.resolveExternalCommand(new CommandMessage(CommandBuilder.withUri(String.format(URI_WITH_REF_ID, 2)).getCommand(), null));
+		
+		Assert.assertEquals("/hooli/thebox/p/patient/_search", second.getAbsoluteAliasWithAction());
+		Assert.assertEquals(first.getAbsoluteUri(), second.getAbsoluteUri());
+		Assert.assertNotSame(first.getRequestParams(), second.getRequestParams());
+		
+		// changes to the params of one execution do not leak into the next
+		Assert.assertEquals("patient.status.eq('Active')", second.getFirstParameterValue("where"));
+		Assert.assertEquals("5", second.getFirstParameterValue("pageSize"));
+	}
+	
+	@Test
+	public void t02_leastRecentlyUsedEvicted() {
+		SetFunctionHandler<Object, Object> handler = new SetFunctionHandler<>();
+		CommandMessage staticCmdMsg = new CommandMessage(CommandBuilder.withUri(URI).getCommand(), null);
+		handler.resolveExternalCommand(staticCmdMsg);
+		
+		// urls with per request values keep being cached, evicting the least recently used ones
+		for(int i=0; i<URLBasedAssignmentFunctionHandler.MAX_CACHED_COMMANDS + 10; i++) {
+			handler.resolveExternalCommand(staticCmdMsg);
+			handler.resolveExternalCommand(new CommandMessage(CommandBuilder.withUri("/hooli/thebox/p/sample_view/page/tile/section/patients/_process?fn=_set"
+					+ "&url=/p/patient/_search?fn=query&where=patient.id.eq('"+i+"')").getCommand(), null));
+		}
+		Assert.assertEquals(URLBasedAssignmentFunctionHandler.MAX_CACHED_COMMANDS, handler.getCachedCommandCount());
+	}
+}
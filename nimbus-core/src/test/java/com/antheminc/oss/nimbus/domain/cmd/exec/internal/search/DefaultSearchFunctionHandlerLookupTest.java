@@ -0,0 +1,80 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.cmd.exec.internal.search;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.antheminc.oss.nimbus.domain.cmd.exec.internal.search.DefaultSearchFunctionHandlerLookup.ParamValueAccessor;
+import com.antheminc.oss.nimbus.domain.model.config.ParamValue;
+
+public class DefaultSearchFunctionHandlerLookupTest {
+
+	@Test
+	public void t00_namedMappings() {
+		Map<String, String> mapsTo = new LinkedHashMap<>();
+		mapsTo.put("label", "desc");
+		mapsTo.put("code", "label");
+		
+		ParamValue pv = ParamValueAccessor.of(ParamValue.class, mapsTo).toParamValue(new ParamValue("c", "l", "d"));
+		
+		Assert.assertEquals("l", pv.getCode());
+		Assert.assertEquals("d", pv.getLabel());
+		Assert.assertSame(ParamValueAccessor.of(ParamValue.class, mapsTo), ParamValueAccessor.of(ParamValue.class, mapsTo));
+	}
+	
+	@Test
+	public void t01_orderedMappings() {
+		Map<String, String> mapsTo = new LinkedHashMap<>();
+		mapsTo.put("a", "label");
+		mapsTo.put("b", "code");
+		
+		ParamValue pv = ParamValueAccessor.of(ParamValue.class, mapsTo).toParamValue(new ParamValue("c", "l"));
+		
+		Assert.assertEquals("l", pv.getCode());
+		Assert.assertEquals("c", pv.getLabel());
+	}
+	
+	@Test
+	public void t02_aggregationRows() {
+		Map<String, String> mapsTo = new LinkedHashMap<>();
+		mapsTo.put("code", "_id");
+		mapsTo.put("label", "name");
+		
+		Map<String, Object> row = new HashMap<>();
+		row.put("_id", 1L);
+		row.put("name", "first");
+		
+		ParamValue pv = ParamValueAccessor.of(ParamValue.class, mapsTo).toParamValue(row);
+		
+		Assert.assertEquals(1L, pv.getCode());
+		Assert.assertEquals("first", pv.getLabel());
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void t03_tooManyMappings() {
+		Map<String, String> mapsTo = new LinkedHashMap<>();
+		mapsTo.put("code", "code");
+		mapsTo.put("label", "label");
+		mapsTo.put("desc", "desc");
+		
+		ParamValueAccessor.of(ParamValue.class, mapsTo);
+	}
+}
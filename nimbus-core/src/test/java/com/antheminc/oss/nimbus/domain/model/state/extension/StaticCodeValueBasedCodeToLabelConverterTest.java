@@ -0,0 +1,134 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.extension;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.ParamValue;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.CacheInvalidationBus;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.CacheInvalidationEvent;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.InMemoryCacheInvalidationBus;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.ReferenceDataCache;
+import com.antheminc.oss.nimbus.domain.model.state.repo.cache.RepositoryCache;
+import com.antheminc.oss.nimbus.entity.StaticCodeValue;
+
+@SuppressWarnings("unchecked")
+public class StaticCodeValueBasedCodeToLabelConverterTest {
+
+	private ModelRepository rep;
+	private InMemoryCacheInvalidationBus bus;
+	private BeanResolverStrategy beanResolver;
+	private StaticCodeValueBasedCodeToLabelConverter converter;
+	
+	@Before
+	public void before() {
+		rep = Mockito.mock(ModelRepository.class);
+		bus = new InMemoryCacheInvalidationBus();
+		
+		ModelRepositoryFactory repFactory = Mockito.mock(ModelRepositoryFactory.class);
+		Mockito.when(repFactory.get(Mockito.any(Repo.class))).thenReturn(rep);
+		
+		beanResolver = Mockito.mock(BeanResolverStrategy.class);
+		Mockito.when(beanResolver.find(Mockito.eq(CacheInvalidationBus.class), Mockito.eq("repo.cacheInvalidationBus"))).thenReturn(bus);
+		Mockito.when(beanResolver.get(ModelRepositoryFactory.class)).thenReturn(repFactory);
+		
+		Mockito.when(rep._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class)))
+			.thenReturn(Arrays.asList(
+					new StaticCodeValue("/gender", Arrays.asList(new ParamValue("M", "Male"), new ParamValue("F", "Female"))),
+					new StaticCodeValue("/status", Arrays.asList(new ParamValue("A", "Active"), new ParamValue("F", "Final")))));
+		
+		converter = converter(1);
+	}
+	
+	@After
+	public void after() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+	
+	private StaticCodeValueBasedCodeToLabelConverter converter(long ttlMinutes) {
+		ReferenceDataCache cache = new ReferenceDataCache(beanResolver, new RepositoryCache<>(10, ttlMinutes, TimeUnit.MINUTES), ttlMinutes, TimeUnit.MINUTES);
+		Mockito.when(beanResolver.get(ReferenceDataCache.class, "referenceDataCache")).thenReturn(cache);
+		
+		return new StaticCodeValueBasedCodeToLabelConverter(beanResolver);
+	}
+	
+	@Test
+	public void t00_loadedOnce() {
+		Assert.assertEquals("Male", converter.serialize("M"));
+		Assert.assertEquals("Male", converter.serialize("m"));
+		Assert.assertEquals("Female", converter.serialize("F"));
+		Assert.assertEquals("X", converter.serialize("X"));
+		Assert.assertEquals("Final", converter.serialize("/status", "F"));
+		Assert.assertEquals("F", converter.serialize("/missing", "F"));
+		
+		Mockito.verify(rep, Mockito.times(1))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+	}
+	
+	@Test
+	public void t01_reloadedOnWrite() {
+		Assert.assertEquals("Male", converter.serialize("M"));
+		
+		bus.publish(new CacheInvalidationEvent("other", "patient", null));
+		Assert.assertEquals("Male", converter.serialize("M"));
+		
+		bus.publish(new CacheInvalidationEvent("other", "staticCodeValue", "1"));
+		Assert.assertEquals("Male", converter.serialize("M"));
+		
+		Mockito.verify(rep, Mockito.times(2))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+	}
+	
+	@Test
+	public void t02_disabledSearchesEachCodeOncePerRequest() {
+		converter = converter(0);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		
+		for(int row=0; row<10; row++) {
+			Assert.assertEquals("Male", converter.serialize("M"));
+			Assert.assertEquals("X", converter.serialize("X"));
+			Assert.assertEquals("Final", converter.serialize("/status", "F"));
+		}
+		Mockito.verify(rep, Mockito.times(3))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+		
+		// a new request searches again
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		Assert.assertEquals("Male", converter.serialize("M"));
+		Mockito.verify(rep, Mockito.times(4))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+	}
+	
+	@Test
+	public void t03_disabledWithoutRequest() {
+		converter = converter(0);
+		
+		Assert.assertEquals("Male", converter.serialize("M"));
+		Assert.assertEquals("Male", converter.serialize("M"));
+		Mockito.verify(rep, Mockito.times(2))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Model;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+
+import lombok.Getter;
+import lombok.Setter;
+
+public class EntityCachingModelRepositoryTest {
+
+	@Getter @Setter
+	public static class SampleEntity implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private Long id;
+		private String name;
+	}
+	
+	private ModelRepository delegate;
+	private CacheInvalidationBus bus;
+	
+	private EntityCachingModelRepository node1;
+	private EntityCachingModelRepository node2;
+	
+	@Before
+	public void before() {
+		delegate = mock(ModelRepository.class);
+		bus = new InMemoryCacheInvalidationBus();
+		
+		node1 = new EntityCachingModelRepository(delegate, new RepositoryCache<>(10, 1, TimeUnit.MINUTES), bus, "sample"::equals);
+		node2 = new EntityCachingModelRepository(delegate, new RepositoryCache<>(10, 1, TimeUnit.MINUTES), bus, "sample"::equals);
+		
+		SampleEntity e = new SampleEntity();
+		e.setId(1L);
+		e.setName("a");
+		when(delegate._get("1", SampleEntity.class, "sample")).thenReturn(e);
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	static Param<?> rootParam(String alias, Object id) {
+		PersistenceTarget target = mock(PersistenceTarget.class);
+		when(target.getAlias()).thenReturn(alias);
+		
+		ModelConfig config = mock(ModelConfig.class);
+		when(config.getPersistenceTarget()).thenReturn(target);
+		
+		Param idParam = mock(Param.class);
+		when(idParam.getState()).thenReturn(id);
+		
+		Model rootDomain = mock(Model.class);
+		when(rootDomain.getConfig()).thenReturn(config);
+		doReturn(idParam).when(rootDomain).findParamByPath("/id");
+		
+		Param param = mock(Param.class);
+		when(param.getRootDomain()).thenReturn(rootDomain);
+		return param;
+	}
+	
+	@Test
+	public void t00_readThrough() {
+		SampleEntity r1 = node1._get("1", SampleEntity.class, "sample");
+		SampleEntity r2 = node1._get("1", SampleEntity.class, "sample");
+		
+		Assert.assertEquals("a", r2.getName());
+		Assert.assertNotSame(r1, r2);
+		verify(delegate, times(1))._get("1", SampleEntity.class, "sample");
+		Assert.assertEquals(1, node1.getStats().getHits());
+	}
+	
+	@Test
+	public void t01_nonCacheableAlias() {
+		node1._get("1", SampleEntity.class, "other");
+		node1._get("1", SampleEntity.class, "other");
+		
+		verify(delegate, times(2))._get("1", SampleEntity.class, "other");
+	}
+	
+	@Test
+	public void t02_updateInvalidatesAcrossNodes() {
+		node1._get("1", SampleEntity.class, "sample");
+		node2._get("1", SampleEntity.class, "sample");
+		
+		// typed id on write must match the string id used on read
+		node1._update("sample", 1L, "/name", "b");
+		
+		node1._get("1", SampleEntity.class, "sample");
+		node2._get("1", SampleEntity.class, "sample");
+		
+		verify(delegate, times(4))._get("1", SampleEntity.class, "sample");
+	}
+	
+	@Test
+	public void t03_replaceParamInvalidates() {
+		node1._get("1", SampleEntity.class, "sample");
+		node2._get("1", SampleEntity.class, "sample");
+		
+		node1._replace(rootParam("sample", 1L));
+		
+		node1._get("1", SampleEntity.class, "sample");
+		node2._get("1", SampleEntity.class, "sample");
+		
+		verify(delegate, times(4))._get("1", SampleEntity.class, "sample");
+	}
+	
+	@Test
+	public void t04_replaceParamsInvalidates() {
+		node1._get("1", SampleEntity.class, "sample");
+		
+		node1._replace(Arrays.asList(rootParam("other", 1L), rootParam("sample", 1L)));
+		node1._get("1", SampleEntity.class, "sample");
+		
+		verify(delegate, times(2))._get("1", SampleEntity.class, "sample");
+	}
+	
+	@Test
+	public void t05_expiresAfterTtl() throws InterruptedException {
+		EntityCachingModelRepository node = new EntityCachingModelRepository(delegate, new RepositoryCache<>(10, 50, TimeUnit.MILLISECONDS), bus, "sample"::equals);
+		
+		node._get("1", SampleEntity.class, "sample");
+		node._get("1", SampleEntity.class, "sample");
+		verify(delegate, times(1))._get("1", SampleEntity.class, "sample");
+		
+		Thread.sleep(100);
+		node._get("1", SampleEntity.class, "sample");
+		verify(delegate, times(2))._get("1", SampleEntity.class, "sample");
+	}
+}
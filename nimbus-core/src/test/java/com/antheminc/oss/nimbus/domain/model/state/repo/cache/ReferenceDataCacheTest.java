@@ -0,0 +1,167 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.antheminc.oss.nimbus.context.BeanResolverStrategy;
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.ParamValue;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria;
+import com.antheminc.oss.nimbus.entity.StaticCodeValue;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ReferenceDataCacheTest {
+
+	private ModelRepository rep;
+	private InMemoryCacheInvalidationBus bus;
+	private BeanResolverStrategy beanResolver;
+	private ReferenceDataCache cache;
+	
+	@Before
+	public void before() {
+		rep = Mockito.mock(ModelRepository.class);
+		bus = new InMemoryCacheInvalidationBus();
+		
+		ModelRepositoryFactory repFactory = Mockito.mock(ModelRepositoryFactory.class);
+		Mockito.when(repFactory.get(Mockito.any(Repo.class))).thenReturn(rep);
+		
+		beanResolver = Mockito.mock(BeanResolverStrategy.class);
+		Mockito.when(beanResolver.find(CacheInvalidationBus.class, "repo.cacheInvalidationBus")).thenReturn(bus);
+		Mockito.when(beanResolver.get(ModelRepositoryFactory.class)).thenReturn(repFactory);
+		
+		Mockito.when(rep._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class)))
+			.thenReturn(Arrays.asList(new StaticCodeValue("/gender", Arrays.asList(new ParamValue("M", "Male"), new ParamValue("F", "Female")))));
+		
+		cache = new ReferenceDataCache(beanResolver, new RepositoryCache<>(10, 1, TimeUnit.MINUTES), 1, TimeUnit.MINUTES);
+	}
+	
+	@Test
+	public void t00_warmedOnStartup() {
+		cache.setWarmOnStartup(true);
+		cache.onApplicationEvent(null);
+		
+		List<ParamValue> values = cache.getByParamCode("/gender");
+		Assert.assertEquals(2, values.size());
+		
+		List<ParamValue> lookedUp = cache.get("/p/staticCodeValue/_search?fn=lookup", "staticCodeValue.paramCode.eq('/gender')", ()->null);
+		Assert.assertEquals("M", lookedUp.get(0).getCode());
+		Assert.assertEquals("Female", lookedUp.get(1).getLabel());
+		Assert.assertNull(cache.getByParamCode("/missing"));
+		
+		Mockito.verify(rep, Mockito.times(1))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void t01_immutable() {
+		cache.getByParamCode("/gender").add(new ParamValue("U", "Unknown"));
+	}
+	
+	@Test
+	public void t02_cachedByLookupUri() {
+		AtomicInteger searches = new AtomicInteger();
+		Supplier<List<ParamValue>> loader = ()->{
+			searches.incrementAndGet();
+			return Arrays.asList(new ParamValue("M", "Male"));
+		};
+		String uri = "/p/staticCodeValue/_search?fn=lookup&where=staticCodeValue.paramValues.any().code.eq('M')";
+		String where = "staticCodeValue.paramValues.any().code.eq('M')";
+		
+		cache.get(uri, where, loader);
+		Assert.assertEquals("Male", cache.get(uri, where, loader).get(0).getLabel());
+		Assert.assertEquals(1, searches.get());
+		
+		bus.publish(new CacheInvalidationEvent("other", "staticCodeValue", "1"));
+		cache.get(uri, where, loader);
+		Assert.assertEquals(2, searches.get());
+	}
+	
+	@Test
+	public void t03_reloadedOnWrite() {
+		cache.getByParamCode("/gender");
+		
+		bus.publish(new CacheInvalidationEvent("other", "patient", null));
+		cache.getByParamCode("/gender");
+		
+		bus.publish(new CacheInvalidationEvent("other", "staticCodeValue", null));
+		cache.getByParamCode("/gender");
+		
+		Mockito.verify(rep, Mockito.times(2))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+	}
+	
+	@Test
+	public void t04_paramCodeWhere() {
+		Assert.assertEquals("/gender", ReferenceDataCache.findParamCode("staticCodeValue.paramCode.eq('/gender')"));
+		Assert.assertEquals("/gender", ReferenceDataCache.findParamCode(" staticCodeValue.paramCode.eq(\"/gender\") "));
+		Assert.assertNull(ReferenceDataCache.findParamCode("staticCodeValue.paramCode.eq('/gender').and(staticCodeValue.id.eq('1'))"));
+		Assert.assertNull(ReferenceDataCache.findParamCode(null));
+	}
+	
+	@Test
+	public void t05_copiesNotShared() {
+		cache.getByParamCode("/gender").get(0).setLabel("changed");
+		Assert.assertEquals("Male", cache.getByParamCode("/gender").get(0).getLabel());
+		Assert.assertNotSame(cache.getByParamCode("/gender").get(0), cache.getByParamCode("/gender").get(0));
+		
+		String uri = "/p/staticCodeValue/_search?fn=lookup&where=staticCodeValue.paramValues.any().code.eq('M')";
+		String where = "staticCodeValue.paramValues.any().code.eq('M')";
+		Supplier<List<ParamValue>> loader = ()->Arrays.asList(new ParamValue("M", "Male"));
+		
+		cache.get(uri, where, loader).get(0).setLabel("changed");
+		Assert.assertEquals("Male", cache.get(uri, where, loader).get(0).getLabel());
+	}
+	
+	@Test
+	public void t06_disabledReadsThrough() {
+		ReferenceDataCache disabled = new ReferenceDataCache(beanResolver, new RepositoryCache<>(10, 0, TimeUnit.SECONDS), 0, TimeUnit.SECONDS);
+		Assert.assertFalse(disabled.isEnabled());
+		
+		disabled.setWarmOnStartup(true);
+		disabled.onApplicationEvent(null);
+		Mockito.verify(rep, Mockito.never())._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), Mockito.any(Supplier.class));
+		
+		Assert.assertEquals(2, disabled.getByParamCode("/gender").size());
+		Assert.assertEquals("Male", disabled.findLabel("m"));
+		Assert.assertEquals("Female", disabled.findLabel("/gender", "F"));
+		
+		ArgumentCaptor<Supplier> criteria = ArgumentCaptor.forClass(Supplier.class);
+		Mockito.verify(rep, Mockito.times(3))._search(Mockito.eq(StaticCodeValue.class), Mockito.eq("staticCodeValue"), criteria.capture());
+		Assert.assertEquals("staticCodeValue.paramCode.eq('/gender')", ((SearchCriteria<?>)criteria.getAllValues().get(0).get()).getWhere());
+		Assert.assertEquals("staticCodeValue.paramValues.any().code.eq('m')", ((SearchCriteria<?>)criteria.getAllValues().get(1).get()).getWhere());
+		Assert.assertEquals("staticCodeValue.paramCode.eq('/gender')", ((SearchCriteria<?>)criteria.getAllValues().get(2).get()).getWhere());
+		
+		AtomicInteger searches = new AtomicInteger();
+		Supplier<List<ParamValue>> loader = ()->{
+			searches.incrementAndGet();
+			return Arrays.asList(new ParamValue("M", "Male"));
+		};
+		disabled.get("/p/staticCodeValue/_search?fn=lookup", "staticCodeValue.paramCode.eq('/gender')", loader);
+		disabled.get("/p/staticCodeValue/_search?fn=lookup", "staticCodeValue.paramCode.eq('/gender')", loader);
+		Assert.assertEquals(2, searches.get());
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.cache;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.SearchCriteria.QuerySearchCriteria;
+
+public class SearchCachingModelRepositoryTest {
+
+	private ModelRepository delegate;
+	private SearchCachingModelRepository node1;
+	private SearchCachingModelRepository node2;
+	
+	@Before
+	public void before() {
+		delegate = mock(ModelRepository.class);
+		when(delegate._search(eq(String.class), eq("sample"), any())).thenReturn(new ArrayList<>(Arrays.asList("a", "b")));
+		when(delegate._search(eq(String.class), eq("other"), any())).thenReturn(new ArrayList<>(Arrays.asList("c")));
+		
+		SearchCachePolicy policy = new SearchCachePolicy() {
+			@Override
+			public boolean isCacheable(String alias) {
+				return "sample".equals(alias);
+			}
+			
+			@Override
+			public long getTtlSeconds(String alias, String where) {
+				return isCacheable(alias) ? DEFAULT_TTL : NO_CACHE;
+			}
+		};
+		
+		CacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+		node1 = new SearchCachingModelRepository(delegate, new RepositoryCache<>(10, 1, TimeUnit.MINUTES), bus, policy);
+		node2 = new SearchCachingModelRepository(delegate, new RepositoryCache<>(10, 1, TimeUnit.MINUTES), bus, policy);
+	}
+	
+	private static QuerySearchCriteria criteria(String where) {
+		QuerySearchCriteria sc = new QuerySearchCriteria();
+		sc.setWhere(where);
+		return sc;
+	}
+	
+	@Test
+	public void t00_cachedByCriteria() {
+		Object r1 = node1._search(String.class, "sample", ()->criteria("sample.name.eq('a')"));
+		Object r2 = node1._search(String.class, "sample", ()->criteria("sample.name.eq('a')"));
+		node1._search(String.class, "sample", ()->criteria("sample.name.eq('b')"));
+		
+		Assert.assertEquals(r1, r2);
+		Assert.assertNotSame(r1, r2);
+		verify(delegate, times(2))._search(eq(String.class), eq("sample"), any());
+		Assert.assertEquals(1, node1.getStats().getHits());
+		Assert.assertEquals(2, node1.getStats().getMisses());
+	}
+	
+	@Test
+	public void t01_nonCacheableAlias() {
+		node1._search(String.class, "other", ()->criteria(null));
+		node1._search(String.class, "other", ()->criteria(null));
+		
+		verify(delegate, times(2))._search(eq(String.class), eq("other"), any());
+	}
+	
+	@Test
+	public void t02_writeInvalidatesAcrossNodes() {
+		node1._search(String.class, "sample", ()->criteria(null));
+		node2._search(String.class, "sample", ()->criteria(null));
+		
+		node1._delete(1L, String.class, "sample");
+		
+		node1._search(String.class, "sample", ()->criteria(null));
+		node2._search(String.class, "sample", ()->criteria(null));
+		
+		verify(delegate, times(4))._search(eq(String.class), eq("sample"), any());
+	}
+
+	@Test
+	public void t03_queryStatsByShape() {
+		Assert.assertEquals("sample.name.eq(?).and(sample.age.gt(?))", 
+				SearchCachingModelRepository.toQueryShape("sample.name.eq('a').and(sample.age.gt(42))"));
+		Assert.assertEquals(SearchCachingModelRepository.toQueryShape("sample.name.eq(\"a\")"), 
+				SearchCachingModelRepository.toQueryShape("sample.name.eq(\"b\")"));
+		Assert.assertEquals("sample.field1.eq(?)", SearchCachingModelRepository.toQueryShape("sample.field1.eq(7L)"));
+	}
+	
+	@Test
+	public void t04_replaceParamInvalidates() {
+		node1._search(String.class, "sample", ()->criteria(null));
+		node2._search(String.class, "sample", ()->criteria(null));
+		
+		node1._replace(EntityCachingModelRepositoryTest.rootParam("sample", 1L));
+		
+		node1._search(String.class, "sample", ()->criteria(null));
+		node2._search(String.class, "sample", ()->criteria(null));
+		verify(delegate, times(4))._search(eq(String.class), eq("sample"), any());
+	}
+	
+	@Test
+	public void t05_replaceParamsInvalidates() {
+		node1._search(String.class, "sample", ()->criteria(null));
+		
+		node1._replace(Arrays.asList(EntityCachingModelRepositoryTest.rootParam("sample", null)));
+		
+		node1._search(String.class, "sample", ()->criteria(null));
+		verify(delegate, times(2))._search(eq(String.class), eq("sample"), any());
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.db;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.domain.ExampleMatcher;
+
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.defn.Repo.Database;
+import com.antheminc.oss.nimbus.domain.defn.Repo.IndexHint;
+import com.antheminc.oss.nimbus.domain.defn.SearchNature.StartsWith;
+import com.antheminc.oss.nimbus.domain.model.state.repo.db.MongoSearchByExample.ExampleMetadata;
+
+public class MongoSearchByExampleTest {
+
+	@Repo(value=Database.rep_mongodb, indexHints={
+			@IndexHint(index="lastName_firstName", fields={"lastName", "firstName"}),
+			@IndexHint(index="lastName", fields="lastName")
+	})
+	public static class Person {
+		@StartsWith String firstName;
+		String lastName;
+		String city;
+		long version;
+	}
+	
+	public static class Address {
+		String city;
+	}
+	
+	@Test
+	public void t00_matcher() {
+		ExampleMetadata metadata = new ExampleMetadata(Person.class);
+		
+		Person p = new Person();
+		p.firstName = "Jo";
+		p.city = "";
+		
+		ExampleMatcher matcher = metadata.buildMatcher(p);
+		
+		Assert.assertTrue(matcher.getIgnoredPaths().contains("version"));
+		Assert.assertTrue(matcher.getIgnoredPaths().contains("city"));
+		Assert.assertFalse(matcher.getIgnoredPaths().contains("lastName"));
+		Assert.assertTrue(matcher.getPropertySpecifiers().hasSpecifierForPath("firstName"));
+		Assert.assertFalse(metadata.buildMatcher(new Person()).getIgnoredPaths().contains("city"));
+	}
+	
+	@Test
+	public void t01_indexHint() {
+		ExampleMetadata metadata = new ExampleMetadata(Person.class);
+		
+		Person p = new Person();
+		p.lastName = "Doe";
+		Assert.assertEquals("lastName", metadata.findIndexHint(p));
+		
+		p.firstName = "John";
+		Assert.assertEquals("lastName_firstName", metadata.findIndexHint(p));
+		
+		p.lastName = "";
+		Assert.assertNull(metadata.findIndexHint(p));
+		
+		Address a = new Address();
+		a.city = "Richmond";
+		Assert.assertNull(new ExampleMetadata(Address.class).findIndexHint(a));
+	}
+}
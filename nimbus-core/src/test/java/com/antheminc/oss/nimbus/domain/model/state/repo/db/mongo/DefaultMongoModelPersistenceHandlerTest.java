@@ -0,0 +1,114 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.model.state.repo.db.mongo;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.defn.Repo;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.config.PersistenceTarget;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.ExecutionModel;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Model;
+import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
+import com.antheminc.oss.nimbus.domain.model.state.ModelEvent;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepository;
+import com.antheminc.oss.nimbus.domain.model.state.repo.ModelRepositoryFactory;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class DefaultMongoModelPersistenceHandlerTest {
+
+	private ModelRepository rep;
+	private DefaultMongoModelPersistenceHandler handler;
+	
+	private ExecutionModel rootExecution;
+	private Param coreParam;
+	
+	@Before
+	public void before() {
+		rep = mock(ModelRepository.class);
+		ModelRepositoryFactory repFactory = mock(ModelRepositoryFactory.class);
+		when(repFactory.get(Repo.Database.rep_mongodb)).thenReturn(rep);
+		handler = new DefaultMongoModelPersistenceHandler(repFactory);
+		
+		PersistenceTarget target = mock(PersistenceTarget.class);
+		when(target.getAlias()).thenReturn("sample_core");
+		when(target.isPersistable()).thenReturn(true);
+		when(target.isDocumentRoot()).thenReturn(true);
+		
+		ModelConfig config = mock(ModelConfig.class);
+		when(config.getPersistenceTarget()).thenReturn(target);
+		
+		rootExecution = mock(ExecutionModel.class);
+		
+		Model core = mock(Model.class);
+		coreParam = mock(Param.class);
+		when(coreParam.isNested()).thenReturn(true);
+		when(coreParam.findIfNested()).thenReturn(core);
+		when(coreParam.getRootDomain()).thenReturn(core);
+		when(coreParam.getBeanPath()).thenReturn("/");
+		when(coreParam.getState()).thenReturn("core state");
+		
+		when(core.getConfig()).thenReturn(config);
+		when(core.getAssociatedParam()).thenReturn(coreParam);
+		when(core.getRootDomain()).thenReturn(core);
+		when(core.getRootExecution()).thenReturn(rootExecution);
+		doReturn(param("1")).when(core).findParamByPath("/id");
+		doReturn(param("a")).when(core).findParamByPath("/name");
+	}
+	
+	private static Param param(Object state) {
+		Param p = mock(Param.class);
+		when(p.getState()).thenReturn(state);
+		return p;
+	}
+	
+	private void handleRootReplace() {
+		handler.handle(Collections.singletonList(new ModelEvent<Param<?>>(Action._replace, "/sample_core", coreParam)));
+	}
+	
+	@Test
+	public void t00_partiallyLoadedNeverReplacedWhole() {
+		when(rootExecution.getLoadedProjection()).thenReturn(new LinkedHashSet<>(Arrays.asList("/id", "/name")));
+		
+		// no view marker on the command the core is saved with
+		handleRootReplace();
+		
+		verify(rep)._update("sample_core", "1", "/id", "1");
+		verify(rep)._update("sample_core", "1", "/name", "a");
+		verify(rep, never())._update(eq("sample_core"), eq("1"), eq("/"), anyString());
+	}
+	
+	@Test
+	public void t01_loadedWholeReplaced() {
+		handleRootReplace();
+		
+		verify(rep)._update("sample_core", "1", "/", "core state");
+	}
+}
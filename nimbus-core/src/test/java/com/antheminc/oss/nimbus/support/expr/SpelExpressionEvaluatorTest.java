@@ -15,7 +15,10 @@
  */
 package com.antheminc.oss.nimbus.support.expr;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.FixMethodOrder;
@@ -23,6 +26,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.MethodSorters;
 import org.mockito.Mockito;
+import org.springframework.expression.Expression;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.antheminc.oss.nimbus.domain.model.state.EntityState.Param;
@@ -161,4 +165,29 @@ public class SpelExpressionEvaluatorTest {
 		Boolean result = expressionEvaluator.getValue(expr, new ParamStateHolder<>(onChangeParam), Boolean.class);
 		assertTrue(result);
 	}
+	
+	@Test
+	public void t14_parsed_expressions_cached_upto_limit() {
+		SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(1);
+		
+		assertSame(evaluator.parse("state != null"), evaluator.parse("state != null"));
+		assertSame(evaluator.parse("state == null"), evaluator.parse("state == null"));
+		assertEquals(1, evaluator.getCachedCount());
+		assertTrue(evaluator.getValue("state != null", new Holder<>(strArr), Boolean.class));
+	}
+	
+	@Test
+	public void t15_least_recently_used_expression_evicted() {
+		SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(2);
+		
+		Expression first = evaluator.parse("state != null");
+		Expression second = evaluator.parse("state == null");
+		assertSame(first, evaluator.parse("state != null"));
+		
+		evaluator.parse("state.length > 2");
+		
+		assertEquals(2, evaluator.getCachedCount());
+		assertSame(first, evaluator.parse("state != null"));
+		assertNotSame(second, evaluator.parse("state == null"));
+	}
 }
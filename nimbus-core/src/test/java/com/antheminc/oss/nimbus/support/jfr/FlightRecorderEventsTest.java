@@ -0,0 +1,46 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.jfr;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents.Span;
+import com.antheminc.oss.nimbus.support.jfr.FlightRecorderEvents.Type;
+
+public class FlightRecorderEventsTest {
+
+	@Test
+	public void t00_beginEndWithoutRecording() {
+		for(Type t : Type.values()) {
+			Span span = FlightRecorderEvents.begin(t);
+			Assert.assertNotNull(span);
+			span.end("/hooli/thebox/p/sample_view/_get", null);
+		}
+	}
+	
+	@Test
+	public void t01_availability() {
+		boolean jfrApi;
+		try {
+			Class.forName("jdk.jfr.EventFactory");
+			jfrApi = true;
+		} catch (ClassNotFoundException ex) {
+			jfrApi = false;
+		}
+		Assert.assertEquals(jfrApi, FlightRecorderEvents.isAvailable());
+	}
+}
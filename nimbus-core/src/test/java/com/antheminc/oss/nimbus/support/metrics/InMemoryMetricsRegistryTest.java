@@ -0,0 +1,73 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.antheminc.oss.nimbus.InvalidArgumentException;
+import com.antheminc.oss.nimbus.support.metrics.InMemoryMetricsRegistry.TimerStats;
+
+public class InMemoryMetricsRegistryTest {
+
+	@Test
+	public void t00_timer_tagOrderIndependent() {
+		InMemoryMetricsRegistry r = new InMemoryMetricsRegistry();
+		
+		r.recordTime("cmd", 10, "action", "_get", "domain", "a");
+		r.recordTime("cmd", 30, "domain", "a", "action", "_get");
+		r.recordTime("cmd", 50, "domain", "b", "action", "_get");
+		
+		TimerStats t = r.findTimer("cmd", "action", "_get", "domain", "a");
+		Assert.assertEquals(2, t.getCount());
+		Assert.assertEquals(40, t.getTotalNanos());
+		Assert.assertEquals(30, t.getMaxNanos());
+		Assert.assertEquals(20, t.getMeanNanos());
+		
+		Assert.assertEquals(1, r.findTimer("cmd", "domain", "b", "action", "_get").getCount());
+		Assert.assertNull(r.findTimer("cmd"));
+	}
+	
+	@Test
+	public void t01_counter() {
+		InMemoryMetricsRegistry r = new InMemoryMetricsRegistry();
+		
+		r.increment("errors", "exception", "X");
+		r.increment("errors", "exception", "X");
+		
+		Assert.assertEquals(2, r.getCount("errors", "exception", "X"));
+		Assert.assertEquals(0, r.getCount("errors", "exception", "Y"));
+	}
+	
+	@Test
+	public void t02_gauge_readOnDemand() {
+		InMemoryMetricsRegistry r = new InMemoryMetricsRegistry();
+		AtomicInteger live = new AtomicInteger(1);
+		
+		r.gauge("live", live::get);
+		live.incrementAndGet();
+		
+		Assert.assertEquals(2, r.getGaugeValue("live").intValue());
+		Assert.assertNull(r.getGaugeValue("other"));
+	}
+	
+	@Test(expected=InvalidArgumentException.class)
+	public void t03_unpairedTags() {
+		new InMemoryMetricsRegistry().increment("errors", "exception");
+	}
+}
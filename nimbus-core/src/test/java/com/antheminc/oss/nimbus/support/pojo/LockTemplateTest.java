@@ -0,0 +1,99 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.pojo;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LockTemplateTest {
+
+	@Test
+	public void t00_uncontended() {
+		LockTemplate lt = new LockTemplate();
+
+		String r = lt.execute(()->"done");
+		lt.execute(()->{});
+
+		Assert.assertEquals("done", r);
+		Assert.assertEquals(2, lt.getMetrics().getAcquisitions());
+		Assert.assertEquals(0, lt.getMetrics().getContentions());
+		Assert.assertEquals(0, lt.getMetrics().getWaitTimeNanos());
+	}
+
+	@Test
+	public void t01_reentrant() {
+		LockTemplate lt = new LockTemplate();
+
+		lt.execute(()->lt.execute(()->{}));
+
+		Assert.assertEquals(2, lt.getMetrics().getAcquisitions());
+		Assert.assertEquals(0, lt.getMetrics().getContentions());
+	}
+
+	@Test
+	public void t02_contended() throws Exception {
+		LockTemplate lt = new LockTemplate();
+		CountDownLatch held = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Thread owner = new Thread(()->lt.execute(()->{
+			held.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		owner.start();
+		held.await();
+
+		Thread contender = new Thread(()->lt.execute(()->{}));
+		contender.start();
+		
+		// contention is counted before the contender parks on the lock
+		while(lt.getMetrics().getContentions()==0)
+			Thread.sleep(1);
+
+		release.countDown();
+		owner.join();
+		contender.join();
+
+		Assert.assertEquals(2, lt.getMetrics().getAcquisitions());
+		Assert.assertEquals(1, lt.getMetrics().getContentions());
+		Assert.assertTrue(lt.getMetrics().getWaitTimeNanos() > 0);
+	}
+
+	@Test
+	public void t03_holdTime() {
+		LockTemplate lt = new LockTemplate();
+
+		lt.execute(()->lt.execute(()->{
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+
+		long held = lt.getMetrics().getHoldTimeNanos();
+		Assert.assertTrue(held >= TimeUnit.MILLISECONDS.toNanos(5));
+		// reentrant hold is accounted once, as part of the outermost hold
+		Assert.assertEquals(held, lt.getMetrics().getMaxHoldTimeNanos());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.support.trace;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionTracerTest {
+
+	@After
+	public void after() {
+		Assert.assertFalse(ExecutionTracer.isActive());
+	}
+	
+	@Test
+	public void t00_inactive() {
+		String r = ExecutionTracer.span(ExecutionTracer.CATEGORY_REPOSITORY, "_get", "sample", ()->"done");
+		ExecutionTracer.run(ExecutionTracer.CATEGORY_EVENT, ()->{ throw new AssertionError("name must not be built"); }, ()->{});
+		
+		Assert.assertEquals("done", r);
+	}
+	
+	@Test
+	public void t01_nested() {
+		TraceNode root = ExecutionTracer.start(ExecutionTracer.CATEGORY_COMMAND, "_get", "/a/p/sample_view:1");
+		ExecutionTracer.span(ExecutionTracer.CATEGORY_COMMAND, "_get", "/a/p/sample_core:1", ()->{
+			ExecutionTracer.span(ExecutionTracer.CATEGORY_REPOSITORY, "_get", "sample_core", ()->null);
+			ExecutionTracer.run(ExecutionTracer.CATEGORY_RULES, "fireRules", null, ()->{});
+			return null;
+		});
+		ExecutionTracer.span(ExecutionTracer.CATEGORY_REPOSITORY, "_get", "sample_core", ()->null);
+		ExecutionTracer.stop(root, null);
+		
+		Assert.assertEquals("_get /a/p/sample_view:1", root.getName());
+		Assert.assertEquals(2, root.getChildren().size());
+		Assert.assertEquals(2, root.getChildren().get(0).getChildren().size());
+		Assert.assertTrue(root.getElapsedMicros() >= 0);
+		
+		Assert.assertEquals(Integer.valueOf(2), root.getCounts().get("repository:_get sample_core"));
+		Assert.assertEquals(Integer.valueOf(1), root.getCounts().get("rules:fireRules"));
+	}
+	
+	@Test
+	public void t02_failure() {
+		TraceNode root = ExecutionTracer.start(ExecutionTracer.CATEGORY_COMMAND, "_update", null);
+		try {
+			ExecutionTracer.span(ExecutionTracer.CATEGORY_REPOSITORY, "_update", "sample_core", ()->{ throw new IllegalStateException(); });
+			Assert.fail();
+		} catch (IllegalStateException ex) {
+			// expected
+		}
+		Assert.assertTrue(ExecutionTracer.isActive());
+		ExecutionTracer.stop(root, null);
+		
+		Assert.assertEquals("IllegalStateException", root.getChildren().get(0).getError());
+		Assert.assertNull(root.getError());
+	}
+	
+	@Test
+	public void t03_propagate() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			TraceNode root = ExecutionTracer.start(ExecutionTracer.CATEGORY_COMMAND, "_get", null);
+			executor.submit(ExecutionTracer.propagate(()->ExecutionTracer.span(ExecutionTracer.CATEGORY_COMMAND, "_get", "other", ()->"done"))).get();
+			ExecutionTracer.stop(root, null);
+			
+			Assert.assertEquals(1, root.getChildren().size());
+			Assert.assertFalse(executor.submit(ExecutionTracer::isActive).get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import com.antheminc.oss.nimbus.InvalidConfigException;
 import com.antheminc.oss.nimbus.domain.cmd.Action;
@@ -233,6 +234,11 @@ public class MockParam implements Param<Object> {
 		this.setStateInitialized(true);
 		return Action.DEFAULT;
 	}
+	
+	@Override
+	public Action applyChanges(Supplier<Action> changes) {
+		return changes.get();
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -15,6 +15,7 @@
  */
 package com.antheminc.oss.nimbus.test.domain.session;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,7 +23,8 @@ import com.antheminc.oss.nimbus.domain.session.AbstractSessionProvider;
 
 public class TestSessionProvider extends AbstractSessionProvider {
 
-	public Map<String,Object> sessionMap = new HashMap<String, Object>();
+	// synchronized: shared by concurrent command streams, e.g. CommandLoadTest
+	public Map<String,Object> sessionMap = Collections.synchronizedMap(new HashMap<String, Object>());
 
 	@Override
 	public String getSessionId() {
@@ -0,0 +1,63 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.cmd.exec.internal;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.antheminc.oss.nimbus.domain.AbstractFrameworkIngerationPersistableTests;
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.domain.cmd.Behavior;
+import com.antheminc.oss.nimbus.domain.model.state.builder.internal.DefaultQuadModelBuilder;
+import com.antheminc.oss.nimbus.support.metrics.InMemoryMetricsRegistry;
+import com.antheminc.oss.nimbus.support.metrics.InMemoryMetricsRegistry.TimerStats;
+import com.antheminc.oss.nimbus.support.metrics.MetricsRegistry;
+import com.antheminc.oss.nimbus.test.domain.support.utils.MockHttpRequestBuilder;
+
+public class CommandExecutorGatewayMetricsTest extends AbstractFrameworkIngerationPersistableTests {
+
+	@Autowired @Qualifier("default.metricsRegistry")
+	private MetricsRegistry metricsRegistry;
+	
+	@Test
+	public void t00_timersAndGauges() {
+		InMemoryMetricsRegistry registry = (InMemoryMetricsRegistry)metricsRegistry;
+		registry.clear();
+		
+		MockHttpServletRequest req = MockHttpRequestBuilder.withUri(VIEW_PARAM_ROOT).addAction(Action._new).getMock();
+		assertNotNull(controller.handleGet(req, null));
+		
+		TimerStats cmd = registry.findTimer(DefaultCommandExecutorGateway.METRIC_COMMAND, 
+				MetricsRegistry.TAG_DOMAIN, VIEW_DOMAIN_ALIAS, MetricsRegistry.TAG_ACTION, Action._new.name(), 
+				MetricsRegistry.TAG_BEHAVIOR, Behavior.$execute.name(), MetricsRegistry.TAG_OUTCOME, MetricsRegistry.OUTCOME_SUCCESS);
+		assertNotNull(cmd);
+		assertTrue(cmd.getCount() >= 1);
+		
+		TimerStats exec = registry.findTimer(DefaultCommandExecutorGateway.METRIC_COMMAND_EXECUTOR, 
+				MetricsRegistry.TAG_DOMAIN, VIEW_DOMAIN_ALIAS, MetricsRegistry.TAG_ACTION, Action._new.name(), 
+				MetricsRegistry.TAG_BEHAVIOR, Behavior.$execute.name(), MetricsRegistry.TAG_OUTCOME, MetricsRegistry.OUTCOME_SUCCESS);
+		assertNotNull(exec);
+		assertTrue(exec.getTotalNanos() <= cmd.getTotalNanos());
+		
+		assertTrue(registry.getGaugeValue(DefaultQuadModelBuilder.METRIC_LIVE_QUADS).intValue() > 0);
+		assertTrue(registry.getGaugeValue(DefaultQuadModelBuilder.METRIC_QUAD_SUBSCRIBERS).longValue() > 0);
+	}
+}
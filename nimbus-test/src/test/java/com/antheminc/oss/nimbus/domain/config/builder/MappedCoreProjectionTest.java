@@ -0,0 +1,88 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.domain.config.builder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.annotation.Id;
+
+import com.antheminc.oss.nimbus.domain.defn.MapsTo;
+import com.antheminc.oss.nimbus.domain.defn.MapsTo.Path;
+import com.antheminc.oss.nimbus.domain.defn.Model;
+import com.antheminc.oss.nimbus.domain.model.config.ModelConfig;
+import com.antheminc.oss.nimbus.domain.model.config.builder.EntityConfigVisitor;
+import com.antheminc.oss.nimbus.domain.model.config.builder.internal.DefaultEntityConfigBuilder;
+import com.antheminc.oss.nimbus.test.domain.support.AbstractFrameworkIntegrationTests;
+
+import lombok.Getter;
+import lombok.Setter;
+
+public class MappedCoreProjectionTest extends AbstractFrameworkIntegrationTests {
+
+	@Autowired DefaultEntityConfigBuilder handler;
+	
+	@Model @Getter @Setter
+	public static class TCoreAddress {
+		private String city;
+		private String zip;
+	}
+	
+	@Model @Getter @Setter
+	public static class TCore {
+		@Id private String id;
+		private String name;
+		private String notes;
+		private TCoreAddress address;
+		private List<TCoreAddress> history;
+	}
+	
+	@MapsTo.Type(TCore.class) @Getter @Setter
+	public static class TViewForm {
+		@Path private String notes;
+	}
+	
+	@MapsTo.Type(TCore.class) @Getter @Setter
+	public static class TView {
+		@Path private String name;
+		@Path("/address/city") private String city;
+		@Path("/address") private TCoreAddress address;
+		private TViewForm form;
+		private String unmapped;
+	}
+	
+	@Test
+	public void t00_mappedPaths() {
+		ModelConfig<TView> vConfig = handler.load(TView.class, new EntityConfigVisitor());
+		
+		Set<String> projection = MappedCoreProjection.resolve(vConfig);
+		
+		// address/city is covered by address
+		Assert.assertEquals(new TreeSet<>(Arrays.asList("/address", "/id", "/name", "/notes")), projection);
+	}
+	
+	@Test
+	public void t01_notMapped() {
+		ModelConfig<TCore> cConfig = handler.load(TCore.class, new EntityConfigVisitor());
+		
+		Assert.assertNull(MappedCoreProjection.resolve(cConfig));
+	}
+}
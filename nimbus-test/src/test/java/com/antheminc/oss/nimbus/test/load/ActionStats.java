@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.test.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Latency, error and allocation figures of one action, recorded concurrently by the load workers.
+ */
+@RequiredArgsConstructor
+public class ActionStats {
+
+	@Getter
+	private final String action;
+	
+	private long[] latencies = new long[256];
+	
+	private int count;
+	
+	private int errors;
+	
+	private long allocatedBytes;
+	
+	public synchronized void record(long latencyNanos, long allocated, boolean failed) {
+		if(count == latencies.length)
+			latencies = Arrays.copyOf(latencies, count * 2);
+		
+		latencies[count++] = latencyNanos;
+		
+		if(failed)
+			errors++;
+		
+		if(allocated > 0)
+			allocatedBytes += allocated;
+	}
+	
+	public synchronized int getCount() {
+		return count;
+	}
+	
+	public synchronized int getErrors() {
+		return errors;
+	}
+	
+	/**
+	 * @return requests per second of wall clock time the whole run took
+	 */
+	public synchronized double getThroughput(long elapsedNanos) {
+		return elapsedNanos <= 0 ? 0 : count / (elapsedNanos / (double)TimeUnit.SECONDS.toNanos(1));
+	}
+	
+	public synchronized double getPercentileMillis(double percentile) {
+		if(count == 0)
+			return 0;
+		
+		long[] sorted = Arrays.copyOf(latencies, count);
+		Arrays.sort(sorted);
+		
+		int idx = (int)Math.ceil(percentile / 100 * count) - 1;
+		return sorted[Math.max(0, Math.min(idx, count - 1))] / (double)TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	public synchronized long getAllocatedBytesPerOp() {
+		return count == 0 ? 0 : allocatedBytes / count;
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.test.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.antheminc.oss.nimbus.domain.AbstractFrameworkIngerationPersistableTests;
+import com.antheminc.oss.nimbus.domain.cmd.Action;
+import com.antheminc.oss.nimbus.support.JustLogit;
+import com.antheminc.oss.nimbus.test.domain.support.utils.ExtractResponseOutputUtils;
+import com.antheminc.oss.nimbus.test.domain.support.utils.MockHttpRequestBuilder;
+
+/**
+ * Drives concurrent <tt>_new</tt>, <tt>_get</tt>, <tt>_update</tt> and <tt>_search</tt> round trips through the web 
+ * controller, the command dispatcher and the executor gateway, persisting to the embedded Mongo of the test profile.
+ * <p>
+ * Excluded from the default build, run with <tt>mvn test -P load</tt>. Tunable through system properties:
+ * <ul>
+ * <li><tt>nimbus.load.threads</tt>, <tt>nimbus.load.iterations</tt>: concurrent command streams and round trips per stream</li>
+ * <li><tt>nimbus.load.threshold</tt>: tolerated regression ratio against the stored {@link #BASELINE}</li>
+ * <li><tt>nimbus.load.updateBaseline</tt>: when true, writes this run's figures as the new baseline instead of checking</li>
+ * </ul>
+ * Figures of every run are written to <tt>target/load/results.properties</tt>. <br>
+ * The figures depend on the machine, so the committed {@link #BASELINE} carries none and the regression check is reported 
+ * as skipped until one is recorded. To record or refresh it, e.g. after an intended performance change, run with 
+ * <tt>-Dnimbus.load.updateBaseline=true</tt> on the machine the check runs on and commit the written file.
+ */
+public class CommandLoadTest extends AbstractFrameworkIngerationPersistableTests {
+
+	public static final String BASELINE = "/load/baseline.properties";
+	
+	private static final JustLogit logit = new JustLogit(CommandLoadTest.class);
+	
+	private final int threads = Integer.getInteger("nimbus.load.threads", 4);
+	
+	private final int iterations = Integer.getInteger("nimbus.load.iterations", 50);
+	
+	private final double threshold = Double.parseDouble(System.getProperty("nimbus.load.threshold", "0.25"));
+	
+	private final boolean updateBaseline = Boolean.getBoolean("nimbus.load.updateBaseline");
+	
+	private final Map<Action, ActionStats> stats = new LinkedHashMap<>();
+	
+	@FunctionalInterface
+	interface RoundTrip {
+		Object execute() throws Exception;
+	}
+	
+	@Test
+	public void t00_commandRoundTrips() throws Exception {
+		for(Action a : new Action[]{Action._new, Action._get, Action._update, Action._search})
+			stats.put(a, new ActionStats(a.name()));
+		
+		// warm up code paths and caches before measuring
+		runStream("warmup", Math.min(iterations, 10), null);
+		
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		
+		List<Future<Void>> streams = new ArrayList<>();
+		for(int t=0; t<threads; t++) {
+			final String streamId = "s"+t;
+			Callable<Void> stream = ()->{
+				start.await();
+				runStream(streamId, iterations, stats);
+				return null;
+			};
+			streams.add(workers.submit(stream));
+		}
+		
+		long begin = System.nanoTime();
+		start.countDown();
+		for(Future<Void> f : streams)
+			f.get();
+		long elapsed = System.nanoTime() - begin;
+		
+		workers.shutdown();
+		workers.awaitTermination(1, TimeUnit.MINUTES);
+		
+		report(elapsed);
+		
+		Properties results = LoadBaseline.toProperties(stats.values(), elapsed);
+		LoadBaseline.store(results, Paths.get("target", "load", "results.properties"), "threads="+threads+", iterations="+iterations);
+		
+		stats.values().forEach(s->assertEquals(s.getAction()+" failed requests", 0, s.getErrors()));
+		
+		if(updateBaseline) {
+			LoadBaseline.store(results, Paths.get("src", "test", "resources").resolve(BASELINE.substring(1)), "threads="+threads+", iterations="+iterations);
+			return;
+		}
+		
+		LoadBaseline baseline = LoadBaseline.load(BASELINE);
+		assumeFalse("No figures recorded in baseline "+BASELINE+", regression check skipped", baseline.isEmpty());
+		
+		List<String> regressions = baseline.findRegressions(stats.values(), elapsed, threshold);
+		assertTrue("Regressed past threshold "+threshold+" of baseline "+BASELINE+": "+regressions, regressions.isEmpty());
+	}
+	
+	private void runStream(String streamId, int count, Map<Action, ActionStats> record) throws Exception {
+		for(int i=0; i<count; i++) {
+			String marker = "load_"+streamId+"_"+i;
+			
+			Object newResp = measure(Action._new, record, ()->controller.handleGet(
+					MockHttpRequestBuilder.withUri(CORE_PARAM_ROOT).addAction(Action._new).getMock(), null));
+			
+			String refId = ExtractResponseOutputUtils.extractDomainRootRefId(newResp);
+			assertNotNull(refId);
+			
+			measure(Action._update, record, ()->controller.handlePut(
+					MockHttpRequestBuilder.withUri(HttpMethod.PUT, CORE_PARAM_ROOT).addRefId(refId).addNested("/attr_String").addAction(Action._update).getMock(), 
+					null, converter.write(marker)));
+			
+			measure(Action._get, record, ()->controller.handleGet(
+					MockHttpRequestBuilder.withUri(VIEW_PARAM_ROOT).addRefId(refId).addAction(Action._get).getMock(), null));
+			
+			MockHttpServletRequest searchReq = MockHttpRequestBuilder.withUri(CORE_PARAM_ROOT).addAction(Action._search)
+					.addParam("fn", "query")
+					.addParam("where", CORE_DOMAIN_ALIAS+".attr_String.eq('"+marker+"')")
+					.getMock();
+			measure(Action._search, record, ()->controller.handleGet(searchReq, null));
+		}
+	}
+	
+	private Object measure(Action a, Map<Action, ActionStats> record, RoundTrip rt) throws Exception {
+		ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+		long tid = Thread.currentThread().getId();
+		
+		long allocBefore = allocatedBytes(mx, tid);
+		long begin = System.nanoTime();
+		boolean failed = true;
+		try {
+			Object resp = rt.execute();
+			failed = (resp == null);
+			return resp;
+		} finally {
+			long latency = System.nanoTime() - begin;
+			long allocAfter = allocatedBytes(mx, tid);
+			
+			if(record != null)
+				record.get(a).record(latency, allocBefore < 0 ? -1 : allocAfter - allocBefore, failed);
+		}
+	}
+	
+	@SuppressWarnings("restriction")
+	private static long allocatedBytes(ThreadMXBean mx, long tid) {
+		if(mx instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean)mx).getThreadAllocatedBytes(tid);
+		
+		return -1;
+	}
+	
+	private void report(long elapsedNanos) {
+		StringBuilder sb = new StringBuilder("Load run: threads=").append(threads).append(", iterations=").append(iterations)
+				.append(", elapsed=").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append("ms");
+		
+		stats.values().forEach(s->sb.append(String.format("%n  %-8s count=%d errors=%d throughput=%.1f/s p50=%.2fms p99=%.2fms alloc=%dB/op", 
+				s.getAction(), s.getCount(), s.getErrors(), s.getThroughput(elapsedNanos), s.getPercentileMillis(50), s.getPercentileMillis(99), s.getAllocatedBytesPerOp())));
+		
+		logit.info(()->sb.toString());
+	}
+}
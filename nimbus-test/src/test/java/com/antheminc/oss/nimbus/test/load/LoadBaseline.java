@@ -0,0 +1,113 @@
+/**
+ *  Copyright 2016-2018 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.antheminc.oss.nimbus.test.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Stored figures of a previous load run, keyed as <tt>&lt;action&gt;.throughput</tt>, <tt>&lt;action&gt;.p50</tt>, 
+ * <tt>&lt;action&gt;.p99</tt> (millis) and <tt>&lt;action&gt;.allocBytesPerOp</tt>.
+ * <p>
+ * A run regresses when throughput drops, or latency or allocation grows, by more than the threshold ratio. Metrics 
+ * missing from the baseline are not checked.
+ */
+public class LoadBaseline {
+
+	public static final String THROUGHPUT = "throughput";
+	public static final String P50 = "p50";
+	public static final String P99 = "p99";
+	public static final String ALLOC_PER_OP = "allocBytesPerOp";
+	
+	private final Properties props;
+	
+	public LoadBaseline(Properties props) {
+		this.props = props;
+	}
+	
+	public static LoadBaseline load(String classpathResource) throws IOException {
+		Properties props = new Properties();
+		try(InputStream in = LoadBaseline.class.getResourceAsStream(classpathResource)) {
+			if(in != null)
+				props.load(in);
+		}
+		return new LoadBaseline(props);
+	}
+	
+	public static Properties toProperties(Collection<ActionStats> stats, long elapsedNanos) {
+		Properties props = new Properties();
+		for(ActionStats s : stats) {
+			props.setProperty(s.getAction()+"."+THROUGHPUT, format(s.getThroughput(elapsedNanos)));
+			props.setProperty(s.getAction()+"."+P50, format(s.getPercentileMillis(50)));
+			props.setProperty(s.getAction()+"."+P99, format(s.getPercentileMillis(99)));
+			props.setProperty(s.getAction()+"."+ALLOC_PER_OP, String.valueOf(s.getAllocatedBytesPerOp()));
+		}
+		return props;
+	}
+	
+	public static void store(Properties props, Path file, String comments) throws IOException {
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		try(OutputStream out = Files.newOutputStream(file)) {
+			props.store(out, comments);
+		}
+	}
+	
+	public boolean isEmpty() {
+		return props.isEmpty();
+	}
+	
+	/**
+	 * @return descriptions of the metrics regressed past the threshold, empty if none
+	 */
+	public List<String> findRegressions(Collection<ActionStats> stats, long elapsedNanos, double threshold) {
+		List<String> regressions = new ArrayList<>();
+		for(ActionStats s : stats) {
+			checkLower(regressions, s.getAction(), THROUGHPUT, s.getThroughput(elapsedNanos), threshold);
+			checkHigher(regressions, s.getAction(), P50, s.getPercentileMillis(50), threshold);
+			checkHigher(regressions, s.getAction(), P99, s.getPercentileMillis(99), threshold);
+			checkHigher(regressions, s.getAction(), ALLOC_PER_OP, s.getAllocatedBytesPerOp(), threshold);
+		}
+		return regressions;
+	}
+	
+	private void checkLower(List<String> regressions, String action, String metric, double actual, double threshold) {
+		Double expected = get(action, metric);
+		if(expected != null && actual < expected * (1 - threshold))
+			regressions.add(action+"."+metric+": "+format(actual)+" below baseline "+format(expected));
+	}
+	
+	private void checkHigher(List<String> regressions, String action, String metric, double actual, double threshold) {
+		Double expected = get(action, metric);
+		if(expected != null && actual > expected * (1 + threshold))
+			regressions.add(action+"."+metric+": "+format(actual)+" above baseline "+format(expected));
+	}
+	
+	private Double get(String action, String metric) {
+		String v = props.getProperty(action+"."+metric);
+		return v == null ? null : Double.valueOf(v.trim());
+	}
+	
+	private static String format(double d) {
+		return String.format("%.3f", d);
+	}
+}